@@ -10,7 +10,6 @@ import com.grupo_rho.service.RecitalService;
 import com.grupo_rho.ui.*;
 import com.grupo_rho.ui.command.commands.*;
 
-import java.util.Scanner;
 
 public class Main {
     private static final String DATA_DIR = "data";
@@ -20,8 +19,8 @@ public class Main {
     public static void main(String[] args) throws Exception {
         System.out.println("=== Sistema Discográfica - Recital Especial ===");
 
-        Scanner scanner = new Scanner(System.in);
-        ConsoleHelper console = new ConsoleHelper(scanner);
+        EntradaConsola entrada = new EntradaConsola(System.in);
+        ConsoleHelper console = new ConsoleHelper(entrada);
         ConfigRecitalRepository configRepo = new JsonConfigRecitalRepository(DATA_DIR);
         EstadoRecitalRepository estadoRepo = new JsonEstadoRecitalRepository(ESTADOS_DIR);
         PrettyPrinter printer = new PrettyPrinter(console);
@@ -41,7 +40,7 @@ public class Main {
         UiContext ui = new UiContext(console, printer, selector);
 
 
-        Menu menu = new Menu(scanner);
+        Menu menu = new Menu(entrada);
         menu.agregarComando(1, new ListarCancionesCommand(recitalService, ui));
         menu.agregarComando(2, new MostrarRolesFaltantesCancionCommand(recitalService, ui));
         menu.agregarComando(3, new MostrarRolesFaltantesRecitalCommand(recitalService, ui));
@@ -53,6 +52,10 @@ public class Main {
         menu.agregarComando(9, new CargarEstadoCommand(recitalService, ui, estadoRepo));
         menu.agregarComando(10, new CalcularEntrenamientosMinimosCommand(recitalService, ui, prologClient));
         menu.agregarComando(11, new QuitarArtistaCommand(recitalService, ui));
+        menu.agregarComando(12, new ContratarConEntrenamientosCommand(recitalService, ui));
+        menu.agregarComando(13, new ContratarCancionesCommand(recitalService, ui));
+        menu.agregarComando(14, new EvaluarEscenariosCommand(recitalService, ui));
+        menu.agregarComando(15, new AnalizarSensibilidadCommand(recitalService, ui));
         menu.agregarComando(0, new SalirCommand(recitalService, ui, estadoRepo));
         menu.iniciar();
     }
@@ -1,7 +1,9 @@
 package com.grupo_rho.domain.artista;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -12,6 +14,9 @@ import lombok.ToString;
 /**
  * Clase abstracta que representa a un artista.
  * Contiene la información y comportamiento común.
+ *
+ * Los roles se guardan como máscara de bits sobre RolTipo y las bandas como ids ordenados
+ * de un CatalogoBandas; los getters de Set son vistas de sólo lectura.
  */
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(onlyExplicitlyIncluded = true)
@@ -20,42 +25,158 @@ public abstract class Artista {
     @EqualsAndHashCode.Include
     @ToString.Include
     protected String nombre;
-    protected Set<RolTipo> rolesHistoricos;
-    protected Set<String> historialBandas;
+    /** Bit i encendido = sabe tocar RolTipo.values()[i]. */
+    protected int rolesMascara;
+    protected final CatalogoBandas catalogoBandas;
+    /** Ids de catalogoBandas, ordenados y sin repetir. */
+    protected final int[] bandas;
+
+    /**
+     * Artista suelto, con un catálogo de bandas propio.
+     */
     protected Artista(String nombre,
                       Set<RolTipo> rolesHistoricos,
                       Set<String> historialBandas) {
+        this(nombre, rolesHistoricos, historialBandas,
+                CatalogoBandas.de(historialBandas != null ? historialBandas : Set.of()));
+    }
+
+    protected Artista(String nombre,
+                      Set<RolTipo> rolesHistoricos,
+                      Set<String> historialBandas,
+                      CatalogoBandas catalogoBandas) {
         this.nombre = Objects.requireNonNull(nombre, "nombre obligatorio");
-        this.rolesHistoricos = rolesHistoricos != null
-                ? new HashSet<>(rolesHistoricos)
-                : new HashSet<>();
-        this.historialBandas = historialBandas != null
-                ? new HashSet<>(historialBandas)
-                : new HashSet<>();
+        if (rolesHistoricos != null) {
+            for (RolTipo rol : rolesHistoricos) {
+                this.rolesMascara |= bit(rol);
+            }
+        }
+        this.catalogoBandas = Objects.requireNonNull(catalogoBandas);
+        this.bandas = historialBandas != null
+                ? catalogoBandas.ids(historialBandas)
+                : new int[0];
+    }
+
+    /**
+     * Comparte los ids de bandas (que nadie modifica) en vez de volver a armarlos.
+     */
+    protected Artista(String nombre, int rolesMascara, CatalogoBandas catalogoBandas, int[] bandas) {
+        this.nombre = Objects.requireNonNull(nombre, "nombre obligatorio");
+        this.rolesMascara = rolesMascara;
+        this.catalogoBandas = catalogoBandas;
+        this.bandas = bandas;
     }
 
     public Set<RolTipo> getRolesHistoricos() {
-        return Collections.unmodifiableSet(rolesHistoricos);
+        return new VistaRoles();
     }
 
     public Set<String> getHistorialBandas() {
-        return Collections.unmodifiableSet(historialBandas);
+        return new VistaBandas();
+    }
+
+    /**
+     * Roles como máscara de bits (bit i = RolTipo.values()[i]).
+     */
+    public int getRolesMascara() {
+        return rolesMascara;
     }
 
     public boolean puedeTocar(RolTipo rol) {
-        return rolesHistoricos.contains(rol);
+        return (rolesMascara & bit(rol)) != 0;
     }
 
+    /**
+     * Con el mismo catálogo es un merge de los ids; si no, se buscan por nombre en el del otro.
+     */
     public boolean comparteBandaCon(Artista otro) {
-        for (String banda : this.historialBandas) {
-            if (otro.historialBandas.contains(banda)) {
+        if (this.catalogoBandas == otro.catalogoBandas) {
+            return CatalogoBandas.seCruzan(this.bandas, otro.bandas);
+        }
+        for (int id : this.bandas) {
+            int suyo = otro.catalogoBandas.buscarId(this.catalogoBandas.nombre(id));
+            if (suyo >= 0 && Arrays.binarySearch(otro.bandas, suyo) >= 0) {
                 return true;
             }
         }
         return false;
     }
 
+    protected static int bit(RolTipo rol) {
+        return 1 << rol.ordinal();
+    }
+
     public abstract double getCostoFinal(Iterable<ArtistaBase> artistasBase);
     public abstract int getMaxCanciones();
     public abstract boolean esExterno();
+
+    private final class VistaRoles extends AbstractSet<RolTipo> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof RolTipo rol && puedeTocar(rol);
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(rolesMascara);
+        }
+
+        @Override
+        public Iterator<RolTipo> iterator() {
+            return new Iterator<>() {
+                private int restantes = rolesMascara;
+
+                @Override
+                public boolean hasNext() {
+                    return restantes != 0;
+                }
+
+                @Override
+                public RolTipo next() {
+                    if (restantes == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int ordinal = Integer.numberOfTrailingZeros(restantes);
+                    restantes &= restantes - 1;
+                    return RolTipo.values()[ordinal];
+                }
+            };
+        }
+    }
+
+    private final class VistaBandas extends AbstractSet<String> {
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof String banda)) {
+                return false;
+            }
+            int id = catalogoBandas.buscarId(banda);
+            return id >= 0 && Arrays.binarySearch(bandas, id) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return bandas.length;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int siguiente = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return siguiente < bandas.length;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return catalogoBandas.nombre(bandas[siguiente++]);
+                }
+            };
+        }
+    }
 }
@@ -17,6 +17,16 @@ public class ArtistaBase extends Artista {
         super(nombre, rolesHistoricos, historialBandas);
     }
 
+    /**
+     * Con los ids de bandas de un catálogo compartido con los demás artistas cargados juntos.
+     */
+    public ArtistaBase(String nombre,
+                       Set<RolTipo> rolesHistoricos,
+                       Set<String> historialBandas,
+                       CatalogoBandas catalogoBandas) {
+        super(nombre, rolesHistoricos, historialBandas, catalogoBandas);
+    }
+
     @Override
     public double getCostoFinal(Iterable<ArtistaBase> artistasBase) {
         return 0.0;
@@ -6,25 +6,30 @@ import lombok.Getter;
 import lombok.ToString;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Representa un artista que necesita ser contratado.
  * Tiene un costo, un límite de canciones y puede ser entrenado.
+ *
+ * Es el estado del artista dentro de un recital (canciones asignadas, entrenamientos y el
+ * costo que resulta de ellos) sobre un PerfilArtistaExterno inmutable que puede compartirse
+ * con otros recitales (ver CatalogoArtistas).
  */
 @Getter
 @ToString(callSuper = true)
 public class ArtistaExterno extends Artista {
-    private static final double FACTOR_AUMENTO_ENTRENAMIENTO = 1.5;
+    public static final double FACTOR_AUMENTO_ENTRENAMIENTO = 1.5;
     private static final double FACTOR_DESCUENTO_BANDA = 0.5;
+    @ToString.Exclude
+    private final PerfilArtistaExterno perfil;
+    /** Costo por canción con los entrenamientos de este recital. */
     private double costoBase;
-    private final int maxCanciones;
     private int cancionesAsignadasEnRecital;
     @Getter(AccessLevel.NONE)
-    private final Set<RolTipo> rolesEntrenados;
-    private final TipoRecital tipoRecitalPreferido;
+    private int rolesEntrenados;
 
     public ArtistaExterno(String nombre,
                           Set<RolTipo> rolesHistoricos,
@@ -32,12 +37,28 @@ public class ArtistaExterno extends Artista {
                           double costoBase,
                           int maxCanciones,
                           TipoRecital tipoRecitalPreferido) {
-        super(nombre, rolesHistoricos, historialBandas);
-        this.costoBase = costoBase;
-        this.maxCanciones = maxCanciones;
-        this.cancionesAsignadasEnRecital = 0;
-        this.rolesEntrenados = new HashSet<>();
-        this.tipoRecitalPreferido = tipoRecitalPreferido;
+        this(new PerfilArtistaExterno(
+                nombre, rolesHistoricos, historialBandas, costoBase, maxCanciones, tipoRecitalPreferido));
+    }
+
+    public ArtistaExterno(String nombre,
+                          Set<RolTipo> rolesHistoricos,
+                          Set<String> historialBandas,
+                          double costoBase,
+                          int maxCanciones,
+                          TipoRecital tipoRecitalPreferido,
+                          CatalogoBandas catalogoBandas) {
+        this(new PerfilArtistaExterno(nombre, rolesHistoricos, historialBandas, costoBase, maxCanciones,
+                tipoRecitalPreferido, catalogoBandas));
+    }
+
+    /**
+     * Artista sin asignaciones ni entrenamientos sobre un perfil (compartido) del catálogo.
+     */
+    public ArtistaExterno(PerfilArtistaExterno perfil) {
+        super(perfil.getNombre(), perfil.getRolesMascara(), perfil.catalogoBandas(), perfil.bandas());
+        this.perfil = perfil;
+        this.costoBase = perfil.getCostoBase();
     }
 
     public record CostosUnitarios(double costoOriginal,
@@ -45,7 +66,15 @@ public class ArtistaExterno extends Artista {
                                   double costoTrasBandas) {}
 
     public CostosUnitarios calcularCostosUnitariosPorCancion(List<ArtistaBase> artistasBase) {
-        int entrenamientos = this.getRolesEntrenados().size();
+        return calcularCostosUnitariosPorCancion(comparteBandaConAlguno(artistasBase));
+    }
+
+    /**
+     * Igual que calcularCostosUnitariosPorCancion(bases), cuando ya se sabe si comparte
+     * banda con algún artista base (ver CacheCostos).
+     */
+    public CostosUnitarios calcularCostosUnitariosPorCancion(boolean comparteBandaConBase) {
+        int entrenamientos = Integer.bitCount(rolesEntrenados);
         double factorEntrenamiento = Math.pow(FACTOR_AUMENTO_ENTRENAMIENTO, entrenamientos);
 
         // Costo base original
@@ -55,7 +84,7 @@ public class ArtistaExterno extends Artista {
         double costoTrasEntrenamiento = this.getCostoBase();
 
         // Costo base post entrenamientos con descuento por bandas
-        double costoTrasBandas = this.getCostoFinal(artistasBase);
+        double costoTrasBandas = this.getCostoFinal(comparteBandaConBase);
 
         return new CostosUnitarios(
                 costoOriginal,
@@ -64,12 +93,47 @@ public class ArtistaExterno extends Artista {
         );
     }
 
+    /**
+     * Costos unitarios que tendría un artista del perfil con esa cantidad de entrenamientos,
+     * sin tocar ningún ArtistaExterno (para evaluar escenarios alternativos).
+     */
+    public static CostosUnitarios calcularCostosUnitarios(PerfilArtistaExterno perfil,
+                                                         int entrenamientos,
+                                                         boolean comparteBandaConBase) {
+        double costoTrasEntrenamiento = perfil.getCostoBase();
+        for (int i = 0; i < entrenamientos; i++) {
+            costoTrasEntrenamiento *= FACTOR_AUMENTO_ENTRENAMIENTO;
+        }
+        double costoOriginal = costoTrasEntrenamiento / Math.pow(FACTOR_AUMENTO_ENTRENAMIENTO, entrenamientos);
+        double costoTrasBandas = comparteBandaConBase
+                ? costoTrasEntrenamiento * FACTOR_DESCUENTO_BANDA
+                : costoTrasEntrenamiento;
+        return new CostosUnitarios(costoOriginal, costoTrasEntrenamiento, costoTrasBandas);
+    }
+
+    /**
+     * Roles entrenados en este recital como máscara de bits (bit i = RolTipo.values()[i]).
+     */
+    public int getRolesEntrenadosMascara() {
+        return rolesEntrenados;
+    }
+
     public Set<RolTipo> getRolesEntrenados() {
-        return Collections.unmodifiableSet(rolesEntrenados);
+        EnumSet<RolTipo> roles = EnumSet.noneOf(RolTipo.class);
+        for (RolTipo rol : RolTipo.values()) {
+            if ((rolesEntrenados & bit(rol)) != 0) {
+                roles.add(rol);
+            }
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+
+    public TipoRecital getTipoRecitalPreferido() {
+        return perfil.getTipoRecitalPreferido();
     }
 
     public boolean puedeTomarOtraCancion() {
-        return cancionesAsignadasEnRecital < maxCanciones;
+        return cancionesAsignadasEnRecital < perfil.getMaxCanciones();
     }
 
     public void registrarAsignacionEnCancion() {
@@ -86,13 +150,33 @@ public class ArtistaExterno extends Artista {
     }
 
     public void entrenar(RolTipo nuevoRol) {
-        if (!rolesHistoricos.contains(nuevoRol)) {
-            rolesHistoricos.add(nuevoRol);
-            rolesEntrenados.add(nuevoRol);
+        if (!puedeTocar(nuevoRol)) {
+            rolesMascara |= bit(nuevoRol);
+            rolesEntrenados |= bit(nuevoRol);
             this.costoBase = this.costoBase * FACTOR_AUMENTO_ENTRENAMIENTO;
         }
     }
 
+    /**
+     * Deshace un entrenamiento, para volver atrás un plan que no se pudo aplicar completo.
+     * Sólo se puede mientras el artista no tenga canciones asignadas.
+     */
+    public void deshacerEntrenamiento(RolTipo rol) {
+        if (cancionesAsignadasEnRecital > 0) {
+            throw new IllegalStateException("Artista " + nombre + " ya tiene canciones asignadas");
+        }
+        if ((rolesEntrenados & bit(rol)) != 0) {
+            rolesMascara &= ~bit(rol);
+            rolesEntrenados &= ~bit(rol);
+            // Se recalcula desde el perfil para no arrastrar error de redondeo
+            double costo = perfil.getCostoBase();
+            for (int i = 0; i < Integer.bitCount(rolesEntrenados); i++) {
+                costo *= FACTOR_AUMENTO_ENTRENAMIENTO;
+            }
+            this.costoBase = costo;
+        }
+    }
+
     /**
      * Calcula el costo final del artista, aplicando descuentos por bandas
      * compartidas e incrementos por entrenamiento.
@@ -101,26 +185,29 @@ public class ArtistaExterno extends Artista {
      */
     @Override
     public double getCostoFinal(Iterable<ArtistaBase> artistasBase) {
-        double costo = this.costoBase;
-        boolean comparteBandaConBase = false;
+        return getCostoFinal(comparteBandaConAlguno(artistasBase));
+    }
 
+    /**
+     * Costo final cuando ya se sabe si comparte banda con algún artista base.
+     * Siempre parte del costo base actual, así que refleja los entrenamientos.
+     */
+    public double getCostoFinal(boolean comparteBandaConBase) {
+        return comparteBandaConBase ? costoBase * FACTOR_DESCUENTO_BANDA : costoBase;
+    }
+
+    private boolean comparteBandaConAlguno(Iterable<ArtistaBase> artistasBase) {
         for (ArtistaBase base : artistasBase) {
             if (this.comparteBandaCon(base)) {
-                comparteBandaConBase = true;
-                break;
+                return true;
             }
         }
-
-        if (comparteBandaConBase) {
-            costo = costo * FACTOR_DESCUENTO_BANDA;
-        }
-
-        return costo;
+        return false;
     }
 
     @Override
     public int getMaxCanciones() {
-        return maxCanciones;
+        return perfil.getMaxCanciones();
     }
 
     @Override
@@ -0,0 +1,67 @@
+package com.grupo_rho.domain.artista;
+
+import java.util.*;
+
+/**
+ * Catálogo de artistas externos que se carga una sola vez y se comparte, en sólo lectura,
+ * entre muchos recitales (o muchos hilos que evalúan recitales).
+ *
+ * Guarda perfiles inmutables; cada recital pide su propio pool con crearPool(), que arma
+ * un ArtistaExterno liviano por perfil con los contadores y entrenamientos de ese recital.
+ * Así el costo en memoria de los perfiles se paga una vez y dos recitales nunca tocan
+ * los mismos objetos mutables.
+ */
+public final class CatalogoArtistas {
+
+    private final List<PerfilArtistaExterno> perfiles;
+    private final Map<String, PerfilArtistaExterno> porNombre;
+
+    public CatalogoArtistas(Collection<PerfilArtistaExterno> perfiles) {
+        Map<String, PerfilArtistaExterno> indice = new LinkedHashMap<>();
+        for (PerfilArtistaExterno perfil : perfiles) {
+            if (indice.putIfAbsent(perfil.getNombre(), perfil) != null) {
+                throw new IllegalArgumentException("Artista repetido en el catálogo: " + perfil.getNombre());
+            }
+        }
+        this.perfiles = List.copyOf(indice.values());
+        this.porNombre = Collections.unmodifiableMap(indice);
+    }
+
+    public List<PerfilArtistaExterno> getPerfiles() {
+        return perfiles;
+    }
+
+    public int size() {
+        return perfiles.size();
+    }
+
+    public Optional<PerfilArtistaExterno> buscar(String nombre) {
+        return Optional.ofNullable(porNombre.get(nombre));
+    }
+
+    /**
+     * Pool nuevo para un recital, con todos los artistas del catálogo sin asignaciones ni entrenamientos.
+     */
+    public List<ArtistaExterno> crearPool() {
+        List<ArtistaExterno> pool = new ArrayList<>(perfiles.size());
+        for (PerfilArtistaExterno perfil : perfiles) {
+            pool.add(new ArtistaExterno(perfil));
+        }
+        return pool;
+    }
+
+    /**
+     * Pool nuevo sólo con los artistas indicados, en ese orden.
+     */
+    public List<ArtistaExterno> crearPool(Collection<String> nombres) {
+        List<ArtistaExterno> pool = new ArrayList<>(nombres.size());
+        for (String nombre : nombres) {
+            PerfilArtistaExterno perfil = porNombre.get(nombre);
+            if (perfil == null) {
+                throw new IllegalArgumentException("No existe en el catálogo: " + nombre);
+            }
+            pool.add(new ArtistaExterno(perfil));
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,103 @@
+package com.grupo_rho.domain.artista;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internado de nombres de bandas: a cada nombre le corresponde un id entero denso.
+ * Los artistas que se cargan juntos (por ejemplo, los de un mismo archivo de configuración)
+ * comparten un catálogo y guardan sus bandas como ids ordenados, así que comparar historiales
+ * es un merge de dos arreglos de enteros.
+ *
+ * Se arma de una vez con todas las bandas (ver de) y después no cambia: lo comparten todos los
+ * ArtistaExterno de un perfil y todas las copias de un recital, y se consulta sin locks desde
+ * cualquier hilo.
+ */
+public final class CatalogoBandas {
+
+    private final String[] nombrePorId;
+    private final Map<String, Integer> idPorNombre;
+
+    private CatalogoBandas(String[] nombrePorId, Map<String, Integer> idPorNombre) {
+        this.nombrePorId = nombrePorId;
+        this.idPorNombre = idPorNombre;
+    }
+
+    /**
+     * Catálogo con las bandas indicadas (las repetidas cuentan una vez).
+     */
+    public static CatalogoBandas de(Iterable<String> bandas) {
+        Map<String, Integer> idPorNombre = new HashMap<>();
+        List<String> nombrePorId = new ArrayList<>();
+        for (String banda : bandas) {
+            if (idPorNombre.putIfAbsent(banda, nombrePorId.size()) == null) {
+                nombrePorId.add(banda);
+            }
+        }
+        return new CatalogoBandas(nombrePorId.toArray(new String[0]), idPorNombre);
+    }
+
+    /**
+     * Id de la banda si está en el catálogo, -1 si no.
+     */
+    public int buscarId(String banda) {
+        return idPorNombre.getOrDefault(banda, -1);
+    }
+
+    public String nombre(int id) {
+        return nombrePorId[id];
+    }
+
+    public int size() {
+        return nombrePorId.length;
+    }
+
+    /**
+     * Ids de las bandas indicadas, ordenados y sin repetir. Todas tienen que estar en el catálogo.
+     */
+    int[] ids(Iterable<String> bandas) {
+        int[] ids = new int[8];
+        int cantidad = 0;
+        for (String banda : bandas) {
+            int id = buscarId(banda);
+            if (id < 0) {
+                throw new IllegalArgumentException("La banda " + banda + " no está en el catálogo");
+            }
+            if (cantidad == ids.length) {
+                ids = Arrays.copyOf(ids, cantidad * 2);
+            }
+            ids[cantidad++] = id;
+        }
+        ids = Arrays.copyOf(ids, cantidad);
+        Arrays.sort(ids);
+        int distintos = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distintos++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distintos);
+    }
+
+    /**
+     * True si los dos arreglos ordenados de ids tienen alguno en común.
+     */
+    static boolean seCruzan(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return true;
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.grupo_rho.domain.artista;
+
+import java.util.*;
+
+/**
+ * Índice invertido banda -> artistas base, por id de banda en vez de por nombre.
+ *
+ * Los bases se agrupan por catálogo de bandas (normalmente uno solo: el del archivo del que
+ * se cargaron). Un artista del mismo catálogo se consulta con sus ids directamente; sólo
+ * si viene de otro catálogo se traducen sus bandas por nombre.
+ */
+public final class IndiceBandas {
+
+    private final Map<CatalogoBandas, PorCatalogo> porCatalogo = new IdentityHashMap<>();
+
+    public IndiceBandas(List<ArtistaBase> artistasBase) {
+        for (ArtistaBase base : artistasBase) {
+            PorCatalogo grupo = porCatalogo.computeIfAbsent(base.catalogoBandas, PorCatalogo::new);
+            for (int id : base.bandas) {
+                grupo.agregar(id, base);
+            }
+        }
+    }
+
+    /**
+     * True si el artista tocó en alguna banda con algún base.
+     */
+    public boolean comparteBanda(Artista artista) {
+        for (PorCatalogo grupo : porCatalogo.values()) {
+            for (int id : artista.bandas) {
+                if (grupo.basesDe(artista.catalogoBandas, id) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Artistas base con los que el artista tocó en alguna banda.
+     */
+    public Set<ArtistaBase> basesConBandaCompartida(Artista artista) {
+        Set<ArtistaBase> resultado = new LinkedHashSet<>();
+        for (PorCatalogo grupo : porCatalogo.values()) {
+            for (int id : artista.bandas) {
+                List<ArtistaBase> bases = grupo.basesDe(artista.catalogoBandas, id);
+                if (bases != null) {
+                    resultado.addAll(bases);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static final class PorCatalogo {
+        private final CatalogoBandas catalogo;
+        /** Bases por id de banda del catálogo (null si ningún base tocó en ella). */
+        private final List<ArtistaBase>[] basesPorId;
+
+        @SuppressWarnings("unchecked")
+        PorCatalogo(CatalogoBandas catalogo) {
+            this.catalogo = catalogo;
+            this.basesPorId = new List[catalogo.size()];
+        }
+
+        void agregar(int id, ArtistaBase base) {
+            if (basesPorId[id] == null) {
+                basesPorId[id] = new ArrayList<>();
+            }
+            basesPorId[id].add(base);
+        }
+
+        /**
+         * Bases de la banda {@code id} del catálogo {@code origen}, o null si no hay ninguno.
+         */
+        List<ArtistaBase> basesDe(CatalogoBandas origen, int id) {
+            int propio = origen == catalogo ? id : catalogo.buscarId(origen.nombre(id));
+            return propio >= 0 ? basesPorId[propio] : null;
+        }
+    }
+}
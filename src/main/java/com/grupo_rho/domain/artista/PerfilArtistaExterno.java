@@ -0,0 +1,93 @@
+package com.grupo_rho.domain.artista;
+
+import com.grupo_rho.domain.recital.TipoRecital;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Datos de un artista externo que no dependen de ningún recital: nombre, roles que sabe
+ * tocar, bandas, costo por canción sin entrenamientos, cupo y tipo de recital preferido.
+ *
+ * Es inmutable, así que un mismo perfil se comparte entre todos los recitales (y todos los
+ * hilos) que lo usan. Lo que cambia dentro de un recital vive en ArtistaExterno.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class PerfilArtistaExterno {
+    @ToString.Include
+    private final String nombre;
+    /** Bit i encendido = sabe tocar RolTipo.values()[i]. */
+    private final int rolesMascara;
+    @Getter(AccessLevel.NONE)
+    private final CatalogoBandas catalogoBandas;
+    @Getter(AccessLevel.NONE)
+    private final int[] bandas;
+    @ToString.Include
+    private final double costoBase;
+    private final int maxCanciones;
+    private final TipoRecital tipoRecitalPreferido;
+
+    public PerfilArtistaExterno(String nombre,
+                                Set<RolTipo> rolesHistoricos,
+                                Set<String> historialBandas,
+                                double costoBase,
+                                int maxCanciones,
+                                TipoRecital tipoRecitalPreferido) {
+        this(nombre, rolesHistoricos, historialBandas, costoBase, maxCanciones, tipoRecitalPreferido,
+                CatalogoBandas.de(historialBandas != null ? historialBandas : Set.of()));
+    }
+
+    /**
+     * Con los ids de bandas de un catálogo compartido con los demás artistas cargados juntos.
+     */
+    public PerfilArtistaExterno(String nombre,
+                                Set<RolTipo> rolesHistoricos,
+                                Set<String> historialBandas,
+                                double costoBase,
+                                int maxCanciones,
+                                TipoRecital tipoRecitalPreferido,
+                                CatalogoBandas catalogoBandas) {
+        this.nombre = Objects.requireNonNull(nombre, "nombre obligatorio");
+        int mascara = 0;
+        if (rolesHistoricos != null) {
+            for (RolTipo rol : rolesHistoricos) {
+                mascara |= Artista.bit(rol);
+            }
+        }
+        this.rolesMascara = mascara;
+        this.catalogoBandas = Objects.requireNonNull(catalogoBandas);
+        this.bandas = historialBandas != null
+                ? catalogoBandas.ids(historialBandas)
+                : new int[0];
+        this.costoBase = costoBase;
+        this.maxCanciones = maxCanciones;
+        this.tipoRecitalPreferido = tipoRecitalPreferido;
+    }
+
+    public Set<RolTipo> getRolesHistoricos() {
+        EnumSet<RolTipo> roles = EnumSet.noneOf(RolTipo.class);
+        for (RolTipo rol : RolTipo.values()) {
+            if ((rolesMascara & Artista.bit(rol)) != 0) {
+                roles.add(rol);
+            }
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+
+    CatalogoBandas catalogoBandas() {
+        return catalogoBandas;
+    }
+
+    /**
+     * Ids de bandas compartidos por todos los ArtistaExterno de este perfil: no se modifican.
+     */
+    int[] bandas() {
+        return bandas;
+    }
+}
@@ -2,12 +2,15 @@ package com.grupo_rho.domain.cancion;
 
 import com.grupo_rho.domain.artista.Artista;
 import com.grupo_rho.domain.artista.ArtistaBase;
+import com.grupo_rho.domain.artista.RolTipo;
 import lombok.Getter;
 import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @ToString
 public class Cancion {
@@ -15,10 +18,21 @@ public class Cancion {
     @Getter
     private final String titulo;
     private final List<RolRequerido> rolesRequeridos;
+    // Faltantes por RolTipo (índice = ordinal); los roles los actualizan al cubrirse / descubrirse
+    @ToString.Exclude
+    private final int[] faltantesPorRol = new int[RolTipo.values().length];
+    @ToString.Exclude
+    private int faltantes;
 
     public Cancion(String titulo, List<RolRequerido> rolesRequeridos) {
         this.titulo = titulo;
         this.rolesRequeridos = new ArrayList<>(rolesRequeridos);
+        for (RolRequerido rol : this.rolesRequeridos) {
+            rol.pertenecerA(this);
+            if (!rol.estaCubierto()) {
+                alDescubrirse(rol);
+            }
+        }
     }
 
     public List<RolRequerido> getRolesRequeridos() {
@@ -26,17 +40,65 @@ public class Cancion {
     }
 
     public List<RolRequerido> getRolesFaltantes() {
-        List<RolRequerido> faltantes = new ArrayList<>();
-        for (RolRequerido rol : rolesRequeridos) {
-            if (!rol.estaCubierto()) {
-                faltantes.add(rol);
-            }
+        List<RolRequerido> resultado = new ArrayList<>(faltantes);
+        for (RolRequerido rol : rolesFaltantes()) {
+            resultado.add(rol);
         }
-        return faltantes;
+        return resultado;
+    }
+
+    /**
+     * Recorre los roles sin cubrir sin armar una lista nueva.
+     */
+    public Iterable<RolRequerido> rolesFaltantes() {
+        return () -> new Iterator<>() {
+            private int siguiente = avanzar(0);
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < rolesRequeridos.size();
+            }
+
+            @Override
+            public RolRequerido next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RolRequerido rol = rolesRequeridos.get(siguiente);
+                siguiente = avanzar(siguiente + 1);
+                return rol;
+            }
+
+            private int avanzar(int desde) {
+                int i = desde;
+                while (i < rolesRequeridos.size() && rolesRequeridos.get(i).estaCubierto()) {
+                    i++;
+                }
+                return i;
+            }
+        };
     }
 
     public boolean estaCompleta() {
-        return getRolesFaltantes().isEmpty();
+        return faltantes == 0;
+    }
+
+    public int getCantidadFaltantes() {
+        return faltantes;
+    }
+
+    public int getFaltantes(RolTipo rol) {
+        return faltantesPorRol[rol.ordinal()];
+    }
+
+    void alCubrirse(RolRequerido rol) {
+        faltantesPorRol[rol.getTipoRol().ordinal()]--;
+        faltantes--;
+    }
+
+    void alDescubrirse(RolRequerido rol) {
+        faltantesPorRol[rol.getTipoRol().ordinal()]++;
+        faltantes++;
     }
 
     public double getCostoTotal(Iterable<ArtistaBase> artistasBase) {
@@ -57,11 +119,9 @@ public class Cancion {
         if (!rolesRequeridos.contains(rol)) {
             throw new IllegalArgumentException("El rol no pertenece a la canción " + titulo);
         }
-        for (RolRequerido otroRol : rolesRequeridos) {
-            if (otroRol.getArtistaAsignado() == artista) {
-                throw new IllegalArgumentException("El artista " + artista.getNombre()
-                        + " ya está asignado a la canción " + titulo);
-            }
+        if (tieneAsignado(artista)) {
+            throw new IllegalArgumentException("El artista " + artista.getNombre()
+                    + " ya está asignado a la canción " + titulo);
         }
         if (!artista.puedeTocar(rol.getTipoRol())) {
             throw new IllegalArgumentException("El artista " + artista.getNombre()
@@ -71,6 +131,18 @@ public class Cancion {
         rol.asignar(artista);
     }
 
+    /**
+     * Si el artista ya cubre algún rol de la canción (sin armar la lista de asignados).
+     */
+    public boolean tieneAsignado(Artista artista) {
+        for (RolRequerido rol : rolesRequeridos) {
+            if (rol.getArtistaAsignado() == artista) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public List<Artista> getArtistasAsignados() {
         List<Artista> resultado = new ArrayList<>();
         for (RolRequerido rol : rolesRequeridos) {
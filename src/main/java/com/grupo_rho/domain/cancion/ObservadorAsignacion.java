@@ -0,0 +1,35 @@
+package com.grupo_rho.domain.cancion;
+
+import com.grupo_rho.domain.artista.Artista;
+
+/**
+ * Recibe los cambios de asignación de un RolRequerido.
+ * Permite mantener estructuras derivadas (costos, índices) sin recorrer todo el recital.
+ */
+public interface ObservadorAsignacion {
+
+    void alAsignar(RolRequerido rol, Artista artista);
+
+    void alDesasignar(RolRequerido rol, Artista artista);
+
+    /**
+     * Observador que avisa primero a éste y después a {@code otro}
+     * (un rol admite un único observador).
+     */
+    default ObservadorAsignacion luego(ObservadorAsignacion otro) {
+        ObservadorAsignacion primero = this;
+        return new ObservadorAsignacion() {
+            @Override
+            public void alAsignar(RolRequerido rol, Artista artista) {
+                primero.alAsignar(rol, artista);
+                otro.alAsignar(rol, artista);
+            }
+
+            @Override
+            public void alDesasignar(RolRequerido rol, Artista artista) {
+                primero.alDesasignar(rol, artista);
+                otro.alDesasignar(rol, artista);
+            }
+        };
+    }
+}
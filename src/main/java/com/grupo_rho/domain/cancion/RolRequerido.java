@@ -2,6 +2,7 @@ package com.grupo_rho.domain.cancion;
 
 import com.grupo_rho.domain.artista.RolTipo;
 import com.grupo_rho.domain.artista.Artista;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -11,6 +12,12 @@ public class RolRequerido {
 
     private final RolTipo tipoRol;
     private Artista artistaAsignado;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private ObservadorAsignacion observador;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Cancion cancion;
 
     public RolRequerido(RolTipo tipoRol) {
         this.tipoRol = tipoRol;
@@ -20,6 +27,21 @@ public class RolRequerido {
         return artistaAsignado != null;
     }
 
+    /**
+     * Registra quién debe enterarse de cada asignación / desasignación de este rol.
+     * Un rol pertenece a un único recital, así que hay a lo sumo un observador.
+     */
+    public void registrarObservador(ObservadorAsignacion observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * La canción dueña del rol, para que mantenga sus contadores de faltantes.
+     */
+    void pertenecerA(Cancion cancion) {
+        this.cancion = cancion;
+    }
+
     public void asignar(Artista artista) {
         if (artista == null) {
             throw new IllegalArgumentException("El artista no puede ser null");
@@ -28,10 +50,29 @@ public class RolRequerido {
             throw new IllegalArgumentException("El artista " + artista.getNombre()
                     + " no puede tocar el rol " + tipoRol);
         }
+        Artista anterior = this.artistaAsignado;
         this.artistaAsignado = artista;
+
+        if (cancion != null && anterior == null) {
+            cancion.alCubrirse(this);
+        }
+        if (observador != null) {
+            if (anterior != null) {
+                observador.alDesasignar(this, anterior);
+            }
+            observador.alAsignar(this, artista);
+        }
     }
 
     public void desasignar() {
+        Artista anterior = this.artistaAsignado;
         this.artistaAsignado = null;
+
+        if (cancion != null && anterior != null) {
+            cancion.alDescubrirse(this);
+        }
+        if (observador != null && anterior != null) {
+            observador.alDesasignar(this, anterior);
+        }
     }
 }
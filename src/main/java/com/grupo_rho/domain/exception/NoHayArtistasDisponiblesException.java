@@ -11,8 +11,12 @@ public class NoHayArtistasDisponiblesException extends RuntimeException {
     private final RolTipo rolFaltante;
 
     public NoHayArtistasDisponiblesException(Cancion cancion, RolTipo rolFaltante) {
-        super("No hay artistas disponibles para el rol " + rolFaltante +
-                " en la canción '" + cancion.getTitulo() + "'");
+        this("No hay artistas disponibles para el rol " + rolFaltante +
+                " en la canción '" + cancion.getTitulo() + "'", cancion, rolFaltante);
+    }
+
+    protected NoHayArtistasDisponiblesException(String mensaje, Cancion cancion, RolTipo rolFaltante) {
+        super(mensaje);
         this.cancion = cancion;
         this.rolFaltante = rolFaltante;
     }
@@ -0,0 +1,41 @@
+package com.grupo_rho.domain.exception;
+
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * El pool de externos no alcanza para cubrir todo el recital, sin importar los costos.
+ * Informa el cuello de botella: los roles (y sus canciones) que compiten por
+ * los mismos externos, y cuántos de ellos quedarían sin cubrir.
+ */
+@Getter
+public class RecitalInfactibleException extends NoHayArtistasDisponiblesException {
+
+    private final Map<RolTipo, List<Cancion>> rolesDeficientes;
+    private final int rolesSinCubrir;
+
+    public RecitalInfactibleException(Map<RolTipo, List<Cancion>> rolesDeficientes, int rolesSinCubrir) {
+        super(
+                armarMensaje(rolesDeficientes, rolesSinCubrir),
+                rolesDeficientes.values().iterator().next().getFirst(),
+                rolesDeficientes.keySet().iterator().next()
+        );
+        this.rolesDeficientes = rolesDeficientes;
+        this.rolesSinCubrir = rolesSinCubrir;
+    }
+
+    private static String armarMensaje(Map<RolTipo, List<Cancion>> rolesDeficientes, int rolesSinCubrir) {
+        String detalle = rolesDeficientes.entrySet().stream()
+                .map(e -> e.getKey() + " en " + e.getValue().stream()
+                        .map(c -> "'" + c.getTitulo() + "'")
+                        .collect(Collectors.joining(", ")))
+                .collect(Collectors.joining("; "));
+        return "No hay artistas suficientes para cubrir el recital: quedarían " + rolesSinCubrir
+                + " rol(es) sin cubrir entre " + detalle;
+    }
+}
@@ -0,0 +1,59 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.ArtistaBase;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.IndiceBandas;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Costos de los externos dentro de un recital, sin recorrer a los artistas base en cada consulta.
+ *
+ * Lo caro de getCostoFinal es saber si el externo comparte banda con algún base
+ * (bases × bandas comparaciones). Acá eso se resuelve con un índice invertido
+ * id de banda -> artistas base (ver IndiceBandas) y se recuerda por externo. El costo
+ * en sí se calcula sobre el costo base actual, así que un entrenamiento se refleja sin invalidar nada;
+ * sólo hay que invalidar si cambia el plantel de artistas base.
+ */
+public class CacheCostos {
+
+    private final List<ArtistaBase> artistasBase;
+    private final Map<ArtistaExterno, Boolean> comparteBanda = new ConcurrentHashMap<>();
+    private volatile IndiceBandas basesPorBanda;
+
+    public CacheCostos(List<ArtistaBase> artistasBase) {
+        this.artistasBase = artistasBase;
+        this.basesPorBanda = new IndiceBandas(artistasBase);
+    }
+
+    /**
+     * Costo por canción del externo, con el descuento por bandas ya aplicado.
+     */
+    public double getCostoFinal(ArtistaExterno externo) {
+        return externo.getCostoFinal(comparteBandaConBase(externo));
+    }
+
+    public ArtistaExterno.CostosUnitarios getCostosUnitarios(ArtistaExterno externo) {
+        return externo.calcularCostosUnitariosPorCancion(comparteBandaConBase(externo));
+    }
+
+    public boolean comparteBandaConBase(ArtistaExterno externo) {
+        return comparteBanda.computeIfAbsent(externo, e -> basesPorBanda.comparteBanda(e));
+    }
+
+    /**
+     * Artistas base con los que el externo tocó en alguna banda.
+     */
+    public Set<ArtistaBase> basesConBandaCompartida(ArtistaExterno externo) {
+        return basesPorBanda.basesConBandaCompartida(externo);
+    }
+
+    /**
+     * Vuelve a indexar el plantel de artistas base; hay que llamarlo si cambia.
+     */
+    public void invalidarBases() {
+        basesPorBanda = new IndiceBandas(artistasBase);
+        comparteBanda.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roles sin cubrir de todo el recital, por tipo. Arranca contando todos los roles y
+ * se ajusta con cada asignación / desasignación, sin volver a recorrer las canciones.
+ */
+class ContadorFaltantes implements ObservadorAsignacion {
+
+    private final int[] faltantes = new int[RolTipo.values().length];
+
+    ContadorFaltantes(List<Cancion> canciones) {
+        for (Cancion c : canciones) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                faltantes[rol.getTipoRol().ordinal()]++;
+            }
+        }
+    }
+
+    @Override
+    public void alAsignar(RolRequerido rol, Artista artista) {
+        faltantes[rol.getTipoRol().ordinal()]--;
+    }
+
+    @Override
+    public void alDesasignar(RolRequerido rol, Artista artista) {
+        faltantes[rol.getTipoRol().ordinal()]++;
+    }
+
+    int getFaltantes(RolTipo rol) {
+        return faltantes[rol.ordinal()];
+    }
+
+    /**
+     * Sólo los tipos que tienen algún rol sin cubrir.
+     */
+    Map<RolTipo, Integer> comoMapa() {
+        Map<RolTipo, Integer> resultado = new EnumMap<>(RolTipo.class);
+        for (RolTipo tipo : RolTipo.values()) {
+            if (faltantes[tipo.ordinal()] > 0) {
+                resultado.put(tipo, faltantes[tipo.ordinal()]);
+            }
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+}
@@ -0,0 +1,79 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numeración fija de un recital: cada rol requerido es un slot (canción por canción, en orden)
+ * y cada externo del pool una posición. Las instantáneas guardan su estado en vectores
+ * indexados por estos números, así todas las del mismo recital se pueden comparar posición a posición.
+ */
+final class EstructuraRecital {
+
+    final RolRequerido[] slots;
+    final Cancion[] cancionDelSlot;
+    final List<ArtistaExterno> externos;
+    private final Map<RolRequerido, Integer> slotDelRol = new IdentityHashMap<>();
+    private final Map<Cancion, int[]> rangoDeCancion = new IdentityHashMap<>();
+    private final Map<ArtistaExterno, Integer> posicionDelExterno = new IdentityHashMap<>();
+
+    EstructuraRecital(List<Cancion> canciones, List<ArtistaExterno> externos) {
+        int cantidad = 0;
+        for (Cancion c : canciones) {
+            cantidad += c.getRolesRequeridos().size();
+        }
+        this.slots = new RolRequerido[cantidad];
+        this.cancionDelSlot = new Cancion[cantidad];
+
+        int slot = 0;
+        for (Cancion c : canciones) {
+            rangoDeCancion.put(c, new int[]{slot, slot + c.getRolesRequeridos().size()});
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                slots[slot] = rol;
+                cancionDelSlot[slot] = c;
+                slotDelRol.put(rol, slot);
+                slot++;
+            }
+        }
+
+        this.externos = externos;
+        for (int i = 0; i < externos.size(); i++) {
+            posicionDelExterno.put(externos.get(i), i);
+        }
+    }
+
+    int slot(RolRequerido rol) {
+        Integer slot = slotDelRol.get(rol);
+        if (slot == null) {
+            throw new IllegalArgumentException("El rol " + rol.getTipoRol() + " no es parte del recital");
+        }
+        return slot;
+    }
+
+    /**
+     * Slots de la canción como rango [desde, hasta).
+     */
+    int[] rango(Cancion cancion) {
+        int[] rango = rangoDeCancion.get(cancion);
+        if (rango == null) {
+            throw new IllegalArgumentException("La canción " + cancion.getTitulo() + " no es parte del recital");
+        }
+        return rango;
+    }
+
+    int[] rangoDelSlot(int slot) {
+        return rangoDeCancion.get(cancionDelSlot[slot]);
+    }
+
+    /**
+     * Posición del externo en el pool, o -1 si no es parte del pool.
+     */
+    int posicion(ArtistaExterno externo) {
+        return posicionDelExterno.getOrDefault(externo, -1);
+    }
+}
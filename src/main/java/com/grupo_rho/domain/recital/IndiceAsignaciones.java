@@ -0,0 +1,67 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.*;
+
+/**
+ * Índice inverso de asignaciones: para cada artista, qué roles cubre y en qué canción.
+ * Se actualiza con cada asignación / desasignación, así las consultas por artista
+ * cuestan lo proporcional a sus asignaciones y no a todo el recital.
+ */
+public class IndiceAsignaciones implements ObservadorAsignacion {
+
+    private final Map<RolRequerido, Cancion> cancionDelRol = new IdentityHashMap<>();
+    // LinkedHashMap: los artistas quedan en el orden en que se los asignó por primera vez
+    private final Map<Artista, Map<RolRequerido, Cancion>> rolesPorArtista = new LinkedHashMap<>();
+    private final Set<ArtistaExterno> externos = new LinkedHashSet<>();
+
+    public IndiceAsignaciones(List<Cancion> canciones) {
+        for (Cancion c : canciones) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                cancionDelRol.put(rol, c);
+            }
+        }
+    }
+
+    @Override
+    public void alAsignar(RolRequerido rol, Artista artista) {
+        rolesPorArtista.computeIfAbsent(artista, a -> new LinkedHashMap<>())
+                .put(rol, cancionDelRol.get(rol));
+        if (artista instanceof ArtistaExterno externo) {
+            externos.add(externo);
+        }
+    }
+
+    @Override
+    public void alDesasignar(RolRequerido rol, Artista artista) {
+        Map<RolRequerido, Cancion> roles = rolesPorArtista.get(artista);
+        if (roles == null) {
+            return;
+        }
+        roles.remove(rol);
+        if (roles.isEmpty()) {
+            rolesPorArtista.remove(artista);
+            externos.remove(artista);
+        }
+    }
+
+    /**
+     * Roles que cubre el artista, con la canción de cada uno.
+     */
+    public Map<RolRequerido, Cancion> getAsignaciones(Artista artista) {
+        Map<RolRequerido, Cancion> roles = rolesPorArtista.get(artista);
+        return roles != null ? Collections.unmodifiableMap(roles) : Map.of();
+    }
+
+    /**
+     * Externos con al menos un rol asignado, sin repetir.
+     */
+    public Set<ArtistaExterno> getExternosContratados() {
+        return Collections.unmodifiableSet(externos);
+    }
+}
@@ -0,0 +1,140 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.*;
+
+/**
+ * Para cada tipo de rol, los externos del pool que lo pueden tocar y todavía tienen cupo,
+ * ordenados por costo final (y, a igual costo, por su orden en el pool).
+ *
+ * El cupo se lleva con cada asignación / desasignación: el externo sale de todos sus roles
+ * al llenarse y vuelve al liberarse un lugar. Así buscar el más barato para un rol no
+ * recorre el pool: sólo saltea a los que ya tocan en la canción (a lo sumo uno por rol de ella).
+ * Los entrenamientos cambian costo y roles, por eso se informan con actualizar(externo).
+ */
+public class IndiceCandidatos implements ObservadorAsignacion {
+
+    private record Entrada(ArtistaExterno externo, double costo, int orden, int rolesMascara) {
+    }
+
+    private static final Comparator<Entrada> POR_COSTO =
+            Comparator.comparingDouble(Entrada::costo).thenComparingInt(Entrada::orden);
+
+    private final CacheCostos cacheCostos;
+    private final Map<ArtistaExterno, Entrada> entradas = new IdentityHashMap<>();
+    private final Map<ArtistaExterno, Integer> usos = new IdentityHashMap<>();
+    private final List<TreeSet<Entrada>> disponiblesPorRol = new ArrayList<>();
+
+    public IndiceCandidatos(List<ArtistaExterno> pool, CacheCostos cacheCostos) {
+        this.cacheCostos = cacheCostos;
+        for (int i = 0; i < RolTipo.values().length; i++) {
+            disponiblesPorRol.add(new TreeSet<>(POR_COSTO));
+        }
+        for (int orden = 0; orden < pool.size(); orden++) {
+            ArtistaExterno externo = pool.get(orden);
+            Entrada entrada = nuevaEntrada(externo, orden);
+            entradas.put(externo, entrada);
+            if (externo.getMaxCanciones() > 0) {
+                agregar(entrada);
+            }
+        }
+    }
+
+    @Override
+    public void alAsignar(RolRequerido rol, Artista artista) {
+        if (!(artista instanceof ArtistaExterno externo) || !entradas.containsKey(externo)) {
+            return;
+        }
+        int nuevos = usos.merge(externo, 1, Integer::sum);
+        if (nuevos == externo.getMaxCanciones()) {
+            quitar(entradas.get(externo));
+        }
+    }
+
+    @Override
+    public void alDesasignar(RolRequerido rol, Artista artista) {
+        if (!(artista instanceof ArtistaExterno externo) || !usos.containsKey(externo)) {
+            return;
+        }
+        int nuevos = usos.merge(externo, -1, Integer::sum);
+        if (nuevos == externo.getMaxCanciones() - 1) {
+            agregar(entradas.get(externo));
+        }
+        if (nuevos == 0) {
+            usos.remove(externo);
+        }
+    }
+
+    /**
+     * Vuelve a ubicar al externo tras un cambio de costo o de roles (un entrenamiento).
+     */
+    public void actualizar(ArtistaExterno externo) {
+        Entrada vieja = entradas.get(externo);
+        if (vieja == null) {
+            return;
+        }
+        boolean disponible = tieneCupo(externo);
+        if (disponible) {
+            quitar(vieja);
+        }
+        Entrada nueva = nuevaEntrada(externo, vieja.orden());
+        entradas.put(externo, nueva);
+        if (disponible) {
+            agregar(nueva);
+        }
+    }
+
+    /**
+     * El externo más barato que puede tocar el rol en la canción: con cupo y que
+     * todavía no toque otro rol en ella. Null si no queda ninguno.
+     */
+    public ArtistaExterno buscarMasBarato(RolTipo rol, Cancion cancion) {
+        for (Entrada entrada : disponiblesPorRol.get(rol.ordinal())) {
+            ArtistaExterno externo = entrada.externo();
+            // Cupos consumidos por fuera de las asignaciones (p. ej. al cargar un estado)
+            if (!externo.puedeTomarOtraCancion()) continue;
+            if (cancion.tieneAsignado(externo)) continue;
+            return externo;
+        }
+        return null;
+    }
+
+    /**
+     * Externos disponibles para el rol, del más barato al más caro.
+     */
+    public List<ArtistaExterno> getDisponibles(RolTipo rol) {
+        return disponiblesPorRol.get(rol.ordinal()).stream()
+                .map(Entrada::externo)
+                .toList();
+    }
+
+    private boolean tieneCupo(ArtistaExterno externo) {
+        return usos.getOrDefault(externo, 0) < externo.getMaxCanciones();
+    }
+
+    private Entrada nuevaEntrada(ArtistaExterno externo, int orden) {
+        return new Entrada(externo, cacheCostos.getCostoFinal(externo), orden, externo.getRolesMascara());
+    }
+
+    private void agregar(Entrada entrada) {
+        for (RolTipo tipo : RolTipo.values()) {
+            if ((entrada.rolesMascara() & (1 << tipo.ordinal())) != 0) {
+                disponiblesPorRol.get(tipo.ordinal()).add(entrada);
+            }
+        }
+    }
+
+    private void quitar(Entrada entrada) {
+        for (RolTipo tipo : RolTipo.values()) {
+            if ((entrada.rolesMascara() & (1 << tipo.ordinal())) != 0) {
+                disponiblesPorRol.get(tipo.ordinal()).remove(entrada);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.exception.ArtistaNoEntrenableException;
+
+import java.util.*;
+
+/**
+ * Estado de asignaciones y entrenamientos de un recital en un momento dado, inmutable.
+ *
+ * Sirve para probar alternativas ("¿y si sacamos estas canciones?", "¿y si X aprende piano?")
+ * sin tocar el recital: cada operación devuelve otra instantánea que comparte con la anterior
+ * todo lo que no cambió (ver VectorPersistente). El recital mantiene la suya al día con cada
+ * asignación, así que tomar una es O(1); confirmarla se hace desde RecitalService.
+ *
+ * Las operaciones validan lo mismo que el recital real: que el artista sepa tocar el rol
+ * (contando los entrenamientos del escenario), un rol por canción, el cupo de cada externo
+ * y que sólo se entrene a quien no tiene canciones asignadas.
+ */
+public final class InstantaneaRecital {
+
+    private final Recital recital;
+    private final EstructuraRecital estructura;
+    private final VectorPersistente<Artista> asignaciones;
+    private final VectorPersistente<Integer> usos;
+    private final VectorPersistente<Integer> entrenados;
+    private final int faltantes;
+    private volatile CostoRecitalDetalle detalle;
+
+    private InstantaneaRecital(Recital recital,
+                               EstructuraRecital estructura,
+                               VectorPersistente<Artista> asignaciones,
+                               VectorPersistente<Integer> usos,
+                               VectorPersistente<Integer> entrenados,
+                               int faltantes) {
+        this.recital = recital;
+        this.estructura = estructura;
+        this.asignaciones = asignaciones;
+        this.usos = usos;
+        this.entrenados = entrenados;
+        this.faltantes = faltantes;
+    }
+
+    /**
+     * Sin asignaciones, con los entrenamientos que hoy tienen los externos del pool.
+     */
+    static InstantaneaRecital inicial(Recital recital, EstructuraRecital estructura) {
+        int cantidadExternos = estructura.externos.size();
+        VectorPersistente<Integer> entrenados = VectorPersistente.lleno(cantidadExternos, 0);
+        for (int i = 0; i < cantidadExternos; i++) {
+            entrenados = entrenados.con(i, estructura.externos.get(i).getRolesEntrenadosMascara());
+        }
+        return new InstantaneaRecital(
+                recital,
+                estructura,
+                VectorPersistente.lleno(estructura.slots.length, null),
+                VectorPersistente.lleno(cantidadExternos, 0),
+                entrenados,
+                estructura.slots.length);
+    }
+
+    public Recital getRecital() {
+        return recital;
+    }
+
+    public Artista getArtistaAsignado(RolRequerido rol) {
+        return asignaciones.get(estructura.slot(rol));
+    }
+
+    /**
+     * Canciones en las que toca el externo en este escenario (0 si no es parte del pool).
+     */
+    public int getCancionesAsignadas(ArtistaExterno externo) {
+        int posicion = estructura.posicion(externo);
+        return posicion >= 0 ? usos.get(posicion) : 0;
+    }
+
+    public Set<RolTipo> getRolesEntrenados(ArtistaExterno externo) {
+        int mascara = mascaraEntrenados(externo);
+        Set<RolTipo> roles = EnumSet.noneOf(RolTipo.class);
+        for (RolTipo rol : RolTipo.values()) {
+            if ((mascara & (1 << rol.ordinal())) != 0) {
+                roles.add(rol);
+            }
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+
+    public boolean puedeTocar(Artista artista, RolTipo rol) {
+        int mascara = artista instanceof ArtistaExterno externo
+                ? externo.getPerfil().getRolesMascara() | mascaraEntrenados(externo)
+                : artista.getRolesMascara();
+        return (mascara & (1 << rol.ordinal())) != 0;
+    }
+
+    public int getCantidadFaltantes() {
+        return faltantes;
+    }
+
+    /**
+     * Escenario con el artista en el rol (reemplazando a quien estuviera).
+     */
+    public InstantaneaRecital conAsignacion(RolRequerido rol, Artista artista) {
+        Objects.requireNonNull(artista, "El artista no puede ser null");
+        int slot = estructura.slot(rol);
+        Artista anterior = asignaciones.get(slot);
+        if (anterior == artista) {
+            return this;
+        }
+        if (!puedeTocar(artista, rol.getTipoRol())) {
+            throw new IllegalArgumentException("El artista " + artista.getNombre()
+                    + " no puede tocar el rol " + rol.getTipoRol());
+        }
+        int[] rango = estructura.rangoDelSlot(slot);
+        for (int otro = rango[0]; otro < rango[1]; otro++) {
+            if (asignaciones.get(otro) == artista) {
+                throw new IllegalArgumentException("El artista " + artista.getNombre()
+                        + " ya está asignado a la canción " + estructura.cancionDelSlot[slot].getTitulo());
+            }
+        }
+        if (artista instanceof ArtistaExterno externo && getCancionesAsignadas(externo) >= externo.getMaxCanciones()) {
+            throw new IllegalStateException("Artista " + externo.getNombre() + " ya alcanzó el máximo de canciones");
+        }
+        return registrar(slot, artista);
+    }
+
+    public InstantaneaRecital sinAsignacion(RolRequerido rol) {
+        return registrar(estructura.slot(rol), null);
+    }
+
+    /**
+     * Escenario con todos los roles de la canción libres.
+     */
+    public InstantaneaRecital sinCancion(Cancion cancion) {
+        int[] rango = estructura.rango(cancion);
+        InstantaneaRecital resultado = this;
+        for (int slot = rango[0]; slot < rango[1]; slot++) {
+            resultado = resultado.registrar(slot, null);
+        }
+        return resultado;
+    }
+
+    /**
+     * Escenario sin el externo en ninguna canción (recorre los slots).
+     */
+    public InstantaneaRecital sinArtista(ArtistaExterno externo) {
+        InstantaneaRecital resultado = this;
+        for (int slot = 0; slot < estructura.slots.length && resultado.getCancionesAsignadas(externo) > 0; slot++) {
+            if (asignaciones.get(slot) == externo) {
+                resultado = resultado.registrar(slot, null);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Escenario con el externo entrenado en el rol. Como en el recital real, sólo se puede
+     * mientras no tenga canciones asignadas en el escenario.
+     */
+    public InstantaneaRecital conEntrenamiento(ArtistaExterno externo, RolTipo rol) {
+        int posicion = estructura.posicion(externo);
+        if (posicion < 0) {
+            throw new IllegalArgumentException("El artista " + externo.getNombre() + " no es parte del pool");
+        }
+        if (usos.get(posicion) > 0) {
+            throw new ArtistaNoEntrenableException(externo, "ya está asignado en al menos una canción del escenario");
+        }
+        if (puedeTocar(externo, rol)) {
+            return this;
+        }
+        return conEntrenados(posicion, entrenados.get(posicion) | (1 << rol.ordinal()));
+    }
+
+    /**
+     * Roles cuyo artista difiere entre los dos escenarios, en orden de canción.
+     * Sólo recorre las partes que no comparten.
+     */
+    public List<RolRequerido> rolesDistintos(InstantaneaRecital otra) {
+        verificarMismoRecital(otra);
+        List<RolRequerido> distintos = new ArrayList<>();
+        asignaciones.diferencias(otra.asignaciones, slot -> distintos.add(estructura.slots[slot]));
+        return distintos;
+    }
+
+    /**
+     * Externos del pool con distintos entrenamientos en los dos escenarios.
+     */
+    public List<ArtistaExterno> externosConEntrenamientosDistintos(InstantaneaRecital otra) {
+        verificarMismoRecital(otra);
+        List<ArtistaExterno> distintos = new ArrayList<>();
+        entrenados.diferencias(otra.entrenados, posicion -> {
+            if (!entrenados.get(posicion).equals(otra.entrenados.get(posicion))) {
+                distintos.add(estructura.externos.get(posicion));
+            }
+        });
+        return distintos;
+    }
+
+    /**
+     * Detalle de costos del escenario, con los entrenamientos del escenario.
+     * Se calcula la primera vez que se pide (recorriendo las asignaciones) y se recuerda.
+     */
+    public CostoRecitalDetalle getCostoDetallado() {
+        CostoRecitalDetalle calculado = detalle;
+        if (calculado == null) {
+            CacheCostos cache = recital.getCacheCostos();
+            RegistroCostos registro = new RegistroCostos(recital.getTipoRecital(), externo -> {
+                int posicion = estructura.posicion(externo);
+                if (posicion < 0) {
+                    return cache.getCostosUnitarios(externo);
+                }
+                return ArtistaExterno.calcularCostosUnitarios(externo.getPerfil(),
+                        Integer.bitCount(entrenados.get(posicion)), cache.comparteBandaConBase(externo));
+            });
+            for (int slot = 0; slot < estructura.slots.length; slot++) {
+                Artista artista = asignaciones.get(slot);
+                if (artista != null) {
+                    registro.alAsignar(estructura.slots[slot], artista);
+                }
+            }
+            calculado = registro.getDetalle();
+            detalle = calculado;
+        }
+        return calculado;
+    }
+
+    public double getCostoTotal() {
+        return getCostoDetallado().totalFinal();
+    }
+
+    int mascaraEntrenados(ArtistaExterno externo) {
+        int posicion = estructura.posicion(externo);
+        return posicion >= 0 ? entrenados.get(posicion) : externo.getRolesEntrenadosMascara();
+    }
+
+    /**
+     * Cambio sin validar: lo usa el recital para seguir sus propias asignaciones.
+     */
+    InstantaneaRecital registrar(RolRequerido rol, Artista artista) {
+        return registrar(estructura.slot(rol), artista);
+    }
+
+    /**
+     * Copia los entrenamientos actuales del externo (tras entrenarlo en el recital real).
+     */
+    InstantaneaRecital conEntrenamientosDe(ArtistaExterno externo) {
+        int posicion = estructura.posicion(externo);
+        return posicion >= 0 ? conEntrenados(posicion, externo.getRolesEntrenadosMascara()) : this;
+    }
+
+    private InstantaneaRecital registrar(int slot, Artista artista) {
+        Artista anterior = asignaciones.get(slot);
+        if (anterior == artista) {
+            return this;
+        }
+        VectorPersistente<Integer> nuevosUsos = usos;
+        nuevosUsos = sumarUso(nuevosUsos, anterior, -1);
+        nuevosUsos = sumarUso(nuevosUsos, artista, 1);
+        int nuevosFaltantes = faltantes + (anterior == null ? 0 : 1) - (artista == null ? 0 : 1);
+        return new InstantaneaRecital(recital, estructura, asignaciones.con(slot, artista),
+                nuevosUsos, entrenados, nuevosFaltantes);
+    }
+
+    private VectorPersistente<Integer> sumarUso(VectorPersistente<Integer> vector, Artista artista, int delta) {
+        if (!(artista instanceof ArtistaExterno externo)) {
+            return vector;
+        }
+        int posicion = estructura.posicion(externo);
+        return posicion >= 0 ? vector.con(posicion, vector.get(posicion) + delta) : vector;
+    }
+
+    private InstantaneaRecital conEntrenados(int posicion, int mascara) {
+        if (entrenados.get(posicion) == mascara) {
+            return this;
+        }
+        return new InstantaneaRecital(recital, estructura, asignaciones, usos,
+                entrenados.con(posicion, mascara), faltantes);
+    }
+
+    private void verificarMismoRecital(InstantaneaRecital otra) {
+        if (otra.estructura != estructura) {
+            throw new IllegalArgumentException("Las instantáneas son de recitales distintos");
+        }
+    }
+}
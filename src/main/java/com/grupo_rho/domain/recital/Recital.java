@@ -1,10 +1,10 @@
 package com.grupo_rho.domain.recital;
 
-import com.grupo_rho.domain.artista.Artista;
 import com.grupo_rho.domain.artista.ArtistaBase;
 import com.grupo_rho.domain.artista.ArtistaExterno;
 import com.grupo_rho.domain.artista.RolTipo;
 import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
 import com.grupo_rho.domain.cancion.RolRequerido;
 import lombok.Getter;
 import lombok.ToString;
@@ -13,7 +13,7 @@ import java.util.*;
 
 @ToString
 public class Recital {
-    private static final double FACTOR_DESCUENTO_ESTRELLA = 0.25;
+    public static final double FACTOR_DESCUENTO_ESTRELLA = 0.25;
     @Getter
     private final String nombre;
     private final List<Cancion> canciones;
@@ -21,6 +21,22 @@ public class Recital {
     private final List<ArtistaExterno> artistasExternosPool;
     @Getter
     private final TipoRecital tipoRecital;
+    @Getter
+    @ToString.Exclude
+    private final CacheCostos cacheCostos;
+    @Getter
+    @ToString.Exclude
+    private final RegistroCostos registroCostos;
+    @Getter
+    @ToString.Exclude
+    private final IndiceAsignaciones indiceAsignaciones;
+    @ToString.Exclude
+    private final ContadorFaltantes contadorFaltantes;
+    @Getter
+    @ToString.Exclude
+    private final IndiceCandidatos indiceCandidatos;
+    @ToString.Exclude
+    private final VersionVigente versionVigente;
 
     public Recital(String nombre,
                    List<Cancion> canciones,
@@ -32,6 +48,18 @@ public class Recital {
         this.artistasBase = new ArrayList<>(artistasBase);
         this.artistasExternosPool = new ArrayList<>(artistasExternosPool);
         this.tipoRecital = tipoRecital;
+        this.cacheCostos = new CacheCostos(this.artistasBase);
+        this.registroCostos = new RegistroCostos(tipoRecital, cacheCostos);
+        this.indiceAsignaciones = new IndiceAsignaciones(this.canciones);
+        this.contadorFaltantes = new ContadorFaltantes(this.canciones);
+        this.indiceCandidatos = new IndiceCandidatos(this.artistasExternosPool, cacheCostos);
+        EstructuraRecital estructura = new EstructuraRecital(
+                this.canciones, Collections.unmodifiableList(this.artistasExternosPool));
+        this.versionVigente = new VersionVigente(InstantaneaRecital.inicial(this, estructura));
+        observarAsignaciones(registroCostos.luego(indiceAsignaciones)
+                .luego(contadorFaltantes)
+                .luego(indiceCandidatos)
+                .luego(versionVigente));
     }
 
     public List<ArtistaBase> getArtistasBase() {
@@ -47,37 +75,31 @@ public class Recital {
     }
 
     public Map<RolTipo, Integer> getRolesFaltantesCancion(Cancion c) {
-        Map<RolTipo, Integer> acumulado = new HashMap<>();
+        Map<RolTipo, Integer> acumulado = new EnumMap<>(RolTipo.class);
 
-        for (RolRequerido rol : c.getRolesFaltantes()) {
-            acumulado.merge(rol.getTipoRol(), 1, Integer::sum);
+        for (RolTipo tipo : RolTipo.values()) {
+            int faltantes = c.getFaltantes(tipo);
+            if (faltantes > 0) {
+                acumulado.put(tipo, faltantes);
+            }
         }
 
         return Collections.unmodifiableMap(acumulado);
     }
 
+    /**
+     * Se mantiene con cada asignación / desasignación: no recorre las canciones.
+     */
     public Map<RolTipo, Integer> getRolesFaltantesTotales() {
-        Map<RolTipo, Integer> acumulado = new HashMap<>();
-
-        for (Cancion c : canciones) {
-            for (RolRequerido rol : c.getRolesFaltantes()) {
-                acumulado.merge(rol.getTipoRol(), 1, Integer::sum);
-            }
-        }
+        return contadorFaltantes.comoMapa();
+    }
 
-        return Collections.unmodifiableMap(acumulado);
+    public int getRolesFaltantesTotales(RolTipo rol) {
+        return contadorFaltantes.getFaltantes(rol);
     }
 
     public List<ArtistaExterno> getArtistasContratados() {
-        List<ArtistaExterno> contratados = new ArrayList<>();
-        for (Cancion c : canciones) {
-            for (Artista a : c.getArtistasAsignados()) {
-                if (a.esExterno() && !contratados.contains(a)) {
-                    contratados.add((ArtistaExterno) a);
-                }
-            }
-        }
-        return Collections.unmodifiableList(contratados);
+        return List.copyOf(indiceAsignaciones.getExternosContratados());
     }
 
     /**
@@ -87,95 +109,64 @@ public class Recital {
      * - descuento por compartir bandas con artistas base
      * - descuento por artista estrella
      * - total final
+     * Se lee del registro incremental, sin recorrer las canciones.
      */
     public CostoRecitalDetalle calcularCostoDetallado() {
-        double totalSinEntrenamiento = 0.0;
-        double totalTrasEntrenamiento = 0.0;
-        double totalTrasBandas = 0.0;
-
-        Map<ArtistaExterno, Double> totalPorExternoDespuesBandas = new HashMap<>();
+        return registroCostos.getDetalle();
+    }
 
+    /**
+     * Mismo detalle que calcularCostoDetallado(), pero reconstruido desde cero
+     * recorriendo todas las asignaciones. Sirve para verificar el registro incremental.
+     */
+    public CostoRecitalDetalle recalcularCostoDetallado() {
+        RegistroCostos registro = new RegistroCostos(tipoRecital, new CacheCostos(artistasBase));
         for (Cancion c : canciones) {
             for (RolRequerido rol : c.getRolesRequeridos()) {
-                Artista artista = rol.getArtistaAsignado();
-                if (!(artista instanceof ArtistaExterno ext)) {
-                    continue;
+                if (rol.estaCubierto()) {
+                    registro.alAsignar(rol, rol.getArtistaAsignado());
                 }
-
-                ArtistaExterno.CostosUnitarios costos =
-                        ext.calcularCostosUnitariosPorCancion(artistasBase);
-
-                totalSinEntrenamiento   += costos.costoOriginal();
-                totalTrasEntrenamiento  += costos.costoTrasEntrenamiento();
-                totalTrasBandas         += costos.costoTrasBandas();
-
-                totalPorExternoDespuesBandas.merge(
-                        ext,
-                        costos.costoTrasBandas(),
-                        Double::sum
-                );
             }
         }
-
-        double aumentoPorEntrenamientos = totalTrasEntrenamiento - totalSinEntrenamiento;
-        double descuentoPorBandas = totalTrasEntrenamiento - totalTrasBandas;
-
-        ArtistaEstrellaInfo estrellaInfo =
-                calcularArtistaEstrella(totalPorExternoDespuesBandas);
-
-        double descuentoEstrella = estrellaInfo.descuento();
-        double totalFinal = totalTrasBandas - descuentoEstrella;
-
-        return new CostoRecitalDetalle(
-                totalSinEntrenamiento,
-                aumentoPorEntrenamientos,
-                descuentoPorBandas,
-                descuentoEstrella,
-                totalFinal,
-                estrellaInfo.artista()
-        );
+        return registro.getDetalle();
     }
 
     /**
-     * Determina el artista estrella (si lo hay) y su descuento:
-     * - Debe tener tipoRecitalPreferido != null
-     * - Debe coincidir con el tipoRecital del recital
-     * - Se elige el que MÁS factura (después de descuentos por bandas)
-     * - El descuento es el 25% de lo que factura ese artista
+     * Costo total del recital tal como lo usa el algoritmo de backtracking.
+     * Es SIEMPRE consistente con calcularCostoDetallado().
      */
-    private ArtistaEstrellaInfo calcularArtistaEstrella(
-            Map<ArtistaExterno, Double> totalPorExternoDespuesBandas
-    ) {
-        ArtistaExterno estrella = null;
-        double totalEstrella = 0.0;
-
-        for (Map.Entry<ArtistaExterno, Double> entry : totalPorExternoDespuesBandas.entrySet()) {
-            ArtistaExterno ext = entry.getKey();
-            double totalExterno = entry.getValue();
-
-            if (ext.getTipoRecitalPreferido() == null) {
-                continue;
-            }
-            if (ext.getTipoRecitalPreferido() != this.tipoRecital) {
-                continue;
-            }
-
-            if (totalExterno > totalEstrella) {
-                totalEstrella = totalExterno;
-                estrella = ext;
-            }
-        }
+    public double getCostoTotalRecital() {
+        return registroCostos.getCostoTotal();
+    }
 
-        double descuento = (estrella != null) ? totalEstrella * FACTOR_DESCUENTO_ESTRELLA : 0.0;
-        return new ArtistaEstrellaInfo(estrella, totalEstrella, descuento);
+    /**
+     * Estado actual de asignaciones y entrenamientos, inmutable: sobre ella se pueden
+     * armar escenarios alternativos sin tocar el recital. Es O(1).
+     */
+    public InstantaneaRecital tomarInstantanea() {
+        return versionVigente.getActual();
     }
 
+    /**
+     * Hay que llamarlo después de entrenar (o deshacer el entrenamiento de) un externo del pool:
+     * cambia su costo y sus roles, que el índice de candidatos y las instantáneas tienen guardados.
+     */
+    public void registrarEntrenamiento(ArtistaExterno externo) {
+        indiceCandidatos.actualizar(externo);
+        versionVigente.alEntrenar(externo);
+    }
 
     /**
-     * Costo total del recital tal como lo usa el algoritmo de backtracking.
-     * Es SIEMPRE consistente con calcularCostoDetallado().
+     * Suscribe el observador a todos los roles y le informa lo que ya estuviera asignado.
      */
-    public double getCostoTotalRecital() {
-        return calcularCostoDetallado().totalFinal();
+    private void observarAsignaciones(ObservadorAsignacion observador) {
+        for (Cancion c : canciones) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                rol.registrarObservador(observador);
+                if (rol.estaCubierto()) {
+                    observador.alAsignar(rol, rol.getArtistaAsignado());
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,202 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Libro de costos incremental del recital.
+ * Se actualiza en O(1) con cada asignación / desasignación de un RolRequerido,
+ * así el costo detallado se obtiene sin recorrer canciones ni historiales de bandas.
+ *
+ * Los costos unitarios de un externo se calculan la primera vez que se lo asigna
+ * y se descartan cuando deja de tener asignaciones (sólo se lo puede entrenar en ese estado).
+ */
+public class RegistroCostos implements ObservadorAsignacion {
+
+    private final TipoRecital tipoRecital;
+    private final Function<ArtistaExterno, ArtistaExterno.CostosUnitarios> costosUnitarios;
+    private final Map<ArtistaExterno, Facturacion> facturacionPorExterno = new HashMap<>();
+
+    private int rolesExternos;
+    private double totalSinEntrenamiento;
+    private double totalTrasEntrenamiento;
+    private double totalTrasBandas;
+
+    private ArtistaExterno estrella;
+    private double totalEstrella;
+    private boolean estrellaVigente = true;
+
+    /**
+     * Lo que factura un externo en el recital: sus costos unitarios y cuántos roles cubre.
+     */
+    private static class Facturacion {
+        final ArtistaExterno.CostosUnitarios unitarios;
+        int roles;
+        double total;
+
+        Facturacion(ArtistaExterno.CostosUnitarios unitarios) {
+            this.unitarios = unitarios;
+        }
+    }
+
+    public RegistroCostos(TipoRecital tipoRecital, CacheCostos cacheCostos) {
+        this(tipoRecital, cacheCostos::getCostosUnitarios);
+    }
+
+    /**
+     * Con otra fuente de costos unitarios: la usan las instantáneas, donde los entrenamientos
+     * pueden no ser los de los artistas reales.
+     */
+    RegistroCostos(TipoRecital tipoRecital,
+                   Function<ArtistaExterno, ArtistaExterno.CostosUnitarios> costosUnitarios) {
+        this.tipoRecital = tipoRecital;
+        this.costosUnitarios = costosUnitarios;
+    }
+
+    @Override
+    public void alAsignar(RolRequerido rol, Artista artista) {
+        if (!(artista instanceof ArtistaExterno ext)) {
+            return;
+        }
+
+        Facturacion facturacion = facturacionPorExterno.computeIfAbsent(
+                ext,
+                e -> new Facturacion(costosUnitarios.apply(e))
+        );
+        ArtistaExterno.CostosUnitarios costos = facturacion.unitarios;
+
+        facturacion.roles++;
+        facturacion.total += costos.costoTrasBandas();
+
+        rolesExternos++;
+        totalSinEntrenamiento  += costos.costoOriginal();
+        totalTrasEntrenamiento += costos.costoTrasEntrenamiento();
+        totalTrasBandas        += costos.costoTrasBandas();
+
+        if (estrellaVigente && esElegibleEstrella(ext) && facturacion.total > totalEstrella) {
+            estrella = ext;
+            totalEstrella = facturacion.total;
+        }
+    }
+
+    @Override
+    public void alDesasignar(RolRequerido rol, Artista artista) {
+        if (!(artista instanceof ArtistaExterno ext)) {
+            return;
+        }
+        Facturacion facturacion = facturacionPorExterno.get(ext);
+        if (facturacion == null) {
+            return;
+        }
+        ArtistaExterno.CostosUnitarios costos = facturacion.unitarios;
+
+        facturacion.roles--;
+        facturacion.total -= costos.costoTrasBandas();
+        if (facturacion.roles == 0) {
+            facturacionPorExterno.remove(ext);
+        }
+
+        rolesExternos--;
+        if (rolesExternos == 0) {
+            // Evita arrastrar errores de redondeo cuando no queda nadie contratado
+            totalSinEntrenamiento = 0.0;
+            totalTrasEntrenamiento = 0.0;
+            totalTrasBandas = 0.0;
+        } else {
+            totalSinEntrenamiento  -= costos.costoOriginal();
+            totalTrasEntrenamiento -= costos.costoTrasEntrenamiento();
+            totalTrasBandas        -= costos.costoTrasBandas();
+        }
+
+        // Si la estrella bajó su facturación, otro puede haberla superado
+        if (ext.equals(estrella)) {
+            estrellaVigente = false;
+        }
+    }
+
+    /**
+     * Suma de lo que facturan todos los externos, antes del descuento de la estrella.
+     */
+    public double getTotalTrasBandas() {
+        return totalTrasBandas;
+    }
+
+    /**
+     * Total facturado por el externo en el recital (después de descuentos por bandas).
+     */
+    public double getTotalFacturado(ArtistaExterno artista) {
+        Facturacion facturacion = facturacionPorExterno.get(artista);
+        return facturacion != null ? facturacion.total : 0.0;
+    }
+
+    /**
+     * Externos que tienen al menos un rol asignado en el recital.
+     */
+    public Set<ArtistaExterno> getExternosConAsignaciones() {
+        return Collections.unmodifiableSet(facturacionPorExterno.keySet());
+    }
+
+    /**
+     * Determina el artista estrella (si lo hay) y su descuento:
+     * - Debe tener tipoRecitalPreferido != null
+     * - Debe coincidir con el tipoRecital del recital
+     * - Se elige el que MÁS factura (después de descuentos por bandas)
+     * - El descuento es el 25% de lo que factura ese artista
+     */
+    public ArtistaEstrellaInfo getArtistaEstrella() {
+        if (!estrellaVigente) {
+            recalcularEstrella();
+        }
+        double descuento = (estrella != null) ? totalEstrella * Recital.FACTOR_DESCUENTO_ESTRELLA : 0.0;
+        return new ArtistaEstrellaInfo(estrella, totalEstrella, descuento);
+    }
+
+    public double getCostoTotal() {
+        return totalTrasBandas - getArtistaEstrella().descuento();
+    }
+
+    public CostoRecitalDetalle getDetalle() {
+        ArtistaEstrellaInfo estrellaInfo = getArtistaEstrella();
+
+        return new CostoRecitalDetalle(
+                totalSinEntrenamiento,
+                totalTrasEntrenamiento - totalSinEntrenamiento,
+                totalTrasEntrenamiento - totalTrasBandas,
+                estrellaInfo.descuento(),
+                totalTrasBandas - estrellaInfo.descuento(),
+                estrellaInfo.artista()
+        );
+    }
+
+    private boolean esElegibleEstrella(ArtistaExterno ext) {
+        return ext.getTipoRecitalPreferido() != null
+                && ext.getTipoRecitalPreferido() == tipoRecital;
+    }
+
+    /**
+     * Sólo se recorre a los externos contratados, y sólo cuando la estrella actual perdió facturación.
+     */
+    private void recalcularEstrella() {
+        estrella = null;
+        totalEstrella = 0.0;
+
+        for (Map.Entry<ArtistaExterno, Facturacion> entry : facturacionPorExterno.entrySet()) {
+            ArtistaExterno ext = entry.getKey();
+            double totalExterno = entry.getValue().total;
+
+            if (!esElegibleEstrella(ext)) {
+                continue;
+            }
+            if (totalExterno > totalEstrella) {
+                totalEstrella = totalExterno;
+                estrella = ext;
+            }
+        }
+        estrellaVigente = true;
+    }
+}
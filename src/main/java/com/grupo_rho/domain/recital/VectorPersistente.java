@@ -0,0 +1,111 @@
+package com.grupo_rho.domain.recital;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Arreglo inmutable de tamaño fijo con copia por caminos: un árbol de 32 hijos por nodo.
+ * con(i, v) devuelve otro vector que comparte todo menos las ramas hasta la posición i
+ * (a lo sumo log32(n) nodos nuevos), así que quedarse con una versión cuesta O(1)
+ * y cada versión derivada sólo paga lo que cambió.
+ */
+final class VectorPersistente<T> {
+
+    private static final int BITS = 5;
+    private static final int ANCHO = 1 << BITS;
+    private static final int MASCARA = ANCHO - 1;
+
+    private final int tamanio;
+    /** Bits a desplazar en la raíz: 0 si la raíz ya es una hoja. */
+    private final int desplazamiento;
+    private final Object[] raiz;
+
+    private VectorPersistente(int tamanio, int desplazamiento, Object[] raiz) {
+        this.tamanio = tamanio;
+        this.desplazamiento = desplazamiento;
+        this.raiz = raiz;
+    }
+
+    /**
+     * Vector de {@code tamanio} posiciones con el mismo valor en todas. Los nodos iguales
+     * se comparten, así que armarlo cuesta O(log n) y no O(n).
+     */
+    static <T> VectorPersistente<T> lleno(int tamanio, T valor) {
+        int desplazamiento = 0;
+        while ((long) ANCHO << desplazamiento < tamanio) {
+            desplazamiento += BITS;
+        }
+        Object[] nodo = new Object[ANCHO];
+        Arrays.fill(nodo, valor);
+        for (int nivel = BITS; nivel <= desplazamiento; nivel += BITS) {
+            Object[] padre = new Object[ANCHO];
+            Arrays.fill(padre, nodo);
+            nodo = padre;
+        }
+        return new VectorPersistente<>(tamanio, desplazamiento, nodo);
+    }
+
+    int tamanio() {
+        return tamanio;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int i) {
+        Object[] nodo = raiz;
+        for (int nivel = desplazamiento; nivel > 0; nivel -= BITS) {
+            nodo = (Object[]) nodo[(i >>> nivel) & MASCARA];
+        }
+        return (T) nodo[i & MASCARA];
+    }
+
+    VectorPersistente<T> con(int i, T valor) {
+        if (i < 0 || i >= tamanio) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        if (get(i) == valor) {
+            return this;
+        }
+        return new VectorPersistente<>(tamanio, desplazamiento, copiarCamino(raiz, desplazamiento, i, valor));
+    }
+
+    /**
+     * Avisa cada posición cuyo valor difiere (por identidad) entre los dos vectores.
+     * Las ramas compartidas se saltean enteras: cuesta lo proporcional a lo que cambió.
+     */
+    void diferencias(VectorPersistente<T> otro, IntConsumer alDiferir) {
+        if (otro.tamanio != tamanio) {
+            throw new IllegalArgumentException("Vectores de distinto tamaño");
+        }
+        diferencias(raiz, otro.raiz, desplazamiento, 0, alDiferir);
+    }
+
+    private void diferencias(Object[] a, Object[] b, int nivel, int base, IntConsumer alDiferir) {
+        if (a == b) {
+            return;
+        }
+        for (int j = 0; j < ANCHO; j++) {
+            int inicio = base + (j << nivel);
+            if (inicio >= tamanio) {
+                return;
+            }
+            if (nivel == 0) {
+                if (a[j] != b[j]) {
+                    alDiferir.accept(inicio);
+                }
+            } else {
+                diferencias((Object[]) a[j], (Object[]) b[j], nivel - BITS, inicio, alDiferir);
+            }
+        }
+    }
+
+    private static Object[] copiarCamino(Object[] nodo, int nivel, int i, Object valor) {
+        Object[] copia = nodo.clone();
+        if (nivel == 0) {
+            copia[i & MASCARA] = valor;
+        } else {
+            int j = (i >>> nivel) & MASCARA;
+            copia[j] = copiarCamino((Object[]) nodo[j], nivel - BITS, i, valor);
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,40 @@
+package com.grupo_rho.domain.recital;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.ObservadorAsignacion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+/**
+ * La instantánea del estado actual del recital, al día con cada asignación / desasignación.
+ * Cada cambio copia sólo un camino del árbol, así que tomarla en cualquier momento es O(1).
+ */
+class VersionVigente implements ObservadorAsignacion {
+
+    private volatile InstantaneaRecital actual;
+
+    VersionVigente(InstantaneaRecital inicial) {
+        this.actual = inicial;
+    }
+
+    @Override
+    public void alAsignar(RolRequerido rol, Artista artista) {
+        actual = actual.registrar(rol, artista);
+    }
+
+    @Override
+    public void alDesasignar(RolRequerido rol, Artista artista) {
+        // En una reasignación llega primero el desasignar y después el asignar del nuevo
+        if (actual.getArtistaAsignado(rol) == artista) {
+            actual = actual.registrar(rol, null);
+        }
+    }
+
+    void alEntrenar(ArtistaExterno externo) {
+        actual = actual.conEntrenamientosDe(externo);
+    }
+
+    InstantaneaRecital getActual() {
+        return actual;
+    }
+}
@@ -48,7 +48,12 @@ public class JsonConfigRecitalRepository implements ConfigRecitalRepository {
         Set<String> nombresBaseSet = new HashSet<>(nombresBase);
 
         List<ArtistaBase> artistasBase = new ArrayList<>();
-        List<ArtistaExterno> artistasExternos = new ArrayList<>();
+        List<PerfilArtistaExterno> perfilesExternos = new ArrayList<>();
+        // Todas las bandas del archivo en un solo catálogo, que después no cambia
+        CatalogoBandas catalogoBandas = CatalogoBandas.de(artistasDto.stream()
+                .filter(dto -> dto.bandas() != null)
+                .flatMap(dto -> dto.bandas().stream())
+                .toList());
 
         for (ArtistaJsonDTO dto : artistasDto) {
             if (dto.nombre() == null || dto.nombre().isBlank()) {
@@ -64,19 +69,23 @@ public class JsonConfigRecitalRepository implements ConfigRecitalRepository {
             TipoRecital preferido = mapTipoRecitalNullable(dto.tipoRecitalPreferido());
 
             if (nombresBaseSet.contains(dto.nombre())) {
-                artistasBase.add(new ArtistaBase(dto.nombre(), roles, bandas));
+                artistasBase.add(new ArtistaBase(dto.nombre(), roles, bandas, catalogoBandas));
             } else {
-                artistasExternos.add(new ArtistaExterno(
+                perfilesExternos.add(new PerfilArtistaExterno(
                         dto.nombre(),
                         roles,
                         bandas,
                         dto.costo(),
                         dto.maxCanciones(),
-                        preferido
+                        preferido,
+                        catalogoBandas
                 ));
             }
         }
 
+        // Los externos se cargan como catálogo y el recital recibe su propio pool
+        CatalogoArtistas catalogo = new CatalogoArtistas(perfilesExternos);
+
         // 3) Leer recital.json
         RecitalJsonDTO recitalDto = mapper.readValue(
                 pathRecital.toFile(),
@@ -107,7 +116,7 @@ public class JsonConfigRecitalRepository implements ConfigRecitalRepository {
                 recitalDto.nombre(),
                 canciones,
                 artistasBase,
-                artistasExternos,
+                catalogo.crearPool(),
                 tipoRecital
         );
     }
@@ -92,13 +92,17 @@ public class JsonEstadoRecitalRepository implements EstadoRecitalRepository {
         // 1) Reconstruir tipoRecital
         TipoRecital tipoRecital = TipoRecital.valueOf(dto.tipoRecital());
 
-        // 2) Reconstruir artistas base
+        // 2) Reconstruir artistas base (todos los artistas del archivo comparten catálogo de bandas)
+        List<String> todasLasBandas = new ArrayList<>();
+        dto.artistasBase().stream().filter(b -> b.bandas() != null).forEach(b -> todasLasBandas.addAll(b.bandas()));
+        dto.artistasExternos().stream().filter(e -> e.bandas() != null).forEach(e -> todasLasBandas.addAll(e.bandas()));
+        CatalogoBandas catalogoBandas = CatalogoBandas.de(todasLasBandas);
         List<ArtistaBase> bases = new ArrayList<>();
         for (ArtistaBaseEstadoDTO b : dto.artistasBase()) {
             Set<RolTipo> roles = b.roles().stream()
                     .map(RolTipo::valueOf)
                     .collect(Collectors.toSet());
-            bases.add(new ArtistaBase(b.nombre(), roles, b.bandas()));
+            bases.add(new ArtistaBase(b.nombre(), roles, b.bandas(), catalogoBandas));
         }
 
         // 3) Reconstruir artistas externos
@@ -118,7 +122,8 @@ public class JsonEstadoRecitalRepository implements EstadoRecitalRepository {
                     e.bandas(),
                     e.costoBase(),
                     e.maxCanciones(),
-                    preferido
+                    preferido,
+                    catalogoBandas
             );
             // reponer cantidad de canciones asignadas
             for (int i = 0; i < e.cancionesAsignadasEnRecital(); i++) {
@@ -0,0 +1,28 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+import java.util.List;
+
+/**
+ * Qué canciones y qué roles pesan en el presupuesto, medido contra el plan óptimo del recital
+ * (contratando de cero todo lo que no cubren los artistas base).
+ *
+ * @param costoOptimo costo del plan óptimo del recital completo
+ * @param canciones   cuánto baja ese costo si se corta cada canción, de mayor a menor ahorro
+ * @param roles       cuánto baja si cada rol lo cubriera un artista base, de mayor a menor ahorro
+ */
+public record AnalisisSensibilidad(double costoOptimo, List<PorCancion> canciones, List<PorRol> roles) {
+
+    public AnalisisSensibilidad {
+        canciones = List.copyOf(canciones);
+        roles = List.copyOf(roles);
+    }
+
+    public record PorCancion(Cancion cancion, double ahorro) {
+    }
+
+    public record PorRol(Cancion cancion, RolRequerido rol, double ahorro) {
+    }
+}
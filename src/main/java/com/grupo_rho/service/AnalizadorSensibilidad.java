@@ -0,0 +1,163 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.Recital;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Calcula el análisis de sensibilidad: el costo del plan óptimo sin cada canción y sin cada rol.
+ *
+ * En vez de resolver el recital entero para cada caso, se resuelve una vez (sobre una copia
+ * con los externos libres, ver CopiaRecital) y cada caso reusa ese trabajo:
+ *  - sacar slots sólo cambia las componentes independientes que los contienen
+ *    (ver DescomposicionPlanificacion); las demás conservan su solución;
+ *  - si toca el bloque de la estrella, el óptimo recortado ya es una solución del caso y
+ *    sirve de cota: los candidatos a estrella que no pueden mejorarlo ni se resuelven.
+ * Los casos se resuelven en paralelo.
+ */
+class AnalizadorSensibilidad {
+
+    private final Recital recital;
+    private final ForkJoinPool pool;
+    private ModeloPlanificacion modelo;
+    private DescomposicionPlanificacion descomposicion;
+    /** Componente aditiva de cada slot (índice en getComponentesAditivas), o -1 si es del bloque estrella. */
+    private int[] componenteDelSlot;
+    private SolucionModelo optimo;
+
+    AnalizadorSensibilidad(Recital recital, ForkJoinPool pool) {
+        this.recital = recital;
+        this.pool = pool;
+    }
+
+    AnalisisSensibilidad analizar() {
+        // Los contratados que ya no están en el pool no se pueden volver a contratar: quedan fijos
+        Set<Artista> delPool = Collections.newSetFromMap(new IdentityHashMap<>());
+        delPool.addAll(recital.getArtistasExternosPool());
+        CopiaRecital copia = CopiaRecital.armar(recital, recital.tomarInstantanea(), Set.of(), Map.of(),
+                artista -> !delPool.contains(artista));
+        modelo = new PlanificacionService(copia.recital).compilarFaltantes();
+
+        Map<RolRequerido, Cancion> cancionDelRol = new IdentityHashMap<>();
+        for (Cancion c : recital.getCanciones()) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                cancionDelRol.put(rol, c);
+            }
+        }
+        if (modelo == null) {
+            // Los artistas base cubren todo: no hay nada que ahorrar
+            return armar(0.0, Map.of(), Map.of());
+        }
+
+        descomposicion = new DescomposicionPlanificacion(modelo);
+        componenteDelSlot = new int[modelo.cantidadSlots()];
+        Arrays.fill(componenteDelSlot, -1);
+        List<int[]> aditivas = descomposicion.getComponentesAditivas();
+        for (int i = 0; i < aditivas.size(); i++) {
+            for (int slot : aditivas.get(i)) {
+                componenteDelSlot[slot] = i;
+            }
+        }
+        int[] resueltas = descomposicion.resolverAditivas(pool);
+        SolucionModelo delBloque = descomposicion.tieneBloqueEstrella()
+                ? nuevoPlanificador(descomposicion.bloqueEstrella(resueltas)).resolver()
+                : null;
+        optimo = descomposicion.combinar(resueltas, delBloque);
+
+        // Un caso por canción (todos sus slots) y uno por slot
+        Map<Cancion, List<Integer>> slotsDeLaCancion = new LinkedHashMap<>();
+        RolRequerido[] rolDelSlot = new RolRequerido[modelo.cantidadSlots()];
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            rolDelSlot[slot] = copia.originalDe(modelo.slots[slot].rol());
+            slotsDeLaCancion.computeIfAbsent(cancionDelRol.get(rolDelSlot[slot]), c -> new ArrayList<>()).add(slot);
+        }
+
+        List<Cancion> cancionesConSlots = new ArrayList<>(slotsDeLaCancion.keySet());
+        List<Callable<Double>> casos = new ArrayList<>();
+        for (Cancion c : cancionesConSlots) {
+            int[] quitados = slotsDeLaCancion.get(c).stream().mapToInt(Integer::intValue).toArray();
+            casos.add(() -> optimo.costo() - costoSin(quitados));
+        }
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            int[] quitados = {slot};
+            casos.add(() -> optimo.costo() - costoSin(quitados));
+        }
+        List<Future<Double>> ahorros = pool.invokeAll(casos);
+
+        Map<Cancion, Double> ahorroPorCancion = new IdentityHashMap<>();
+        for (int i = 0; i < cancionesConSlots.size(); i++) {
+            ahorroPorCancion.put(cancionesConSlots.get(i), ahorros.get(i).resultNow());
+        }
+        Map<RolRequerido, Double> ahorroPorRol = new IdentityHashMap<>();
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            ahorroPorRol.put(rolDelSlot[slot], ahorros.get(cancionesConSlots.size() + slot).resultNow());
+        }
+        return armar(optimo.costo(), ahorroPorCancion, ahorroPorRol);
+    }
+
+    /**
+     * Costo óptimo sin los slots indicados: se vuelven a resolver sólo las componentes que los tenían.
+     */
+    private double costoSin(int[] quitados) {
+        boolean[] quitado = new boolean[modelo.cantidadSlots()];
+        int[] asignacion = optimo.asignacion().clone();
+        Set<Integer> tocadas = new HashSet<>();
+        for (int slot : quitados) {
+            quitado[slot] = true;
+            asignacion[slot] = EstadoBusqueda.SIN_ASIGNAR;
+            tocadas.add(componenteDelSlot[slot]);
+        }
+
+        for (int componente : tocadas) {
+            int[] restantes = Arrays.stream(componente == -1
+                            ? descomposicion.getSlotsEstrella()
+                            : descomposicion.getComponentesAditivas().get(componente))
+                    .filter(slot -> !quitado[slot])
+                    .toArray();
+            if (restantes.length == 0) continue;
+
+            ModeloPlanificacion sub = modelo.subModelo(restantes, 0.0);
+            int[] parcial;
+            if (componente == -1) {
+                int[] recortado = Arrays.stream(restantes).map(slot -> optimo.asignacion()[slot]).toArray();
+                SolucionModelo conocida = new SolucionModelo(sub.costoDe(recortado), recortado);
+                parcial = nuevoPlanificador(sub).resolver(conocida).asignacion();
+            } else {
+                parcial = new PlanificadorFlujo(sub).resolverConCostos(sub.costo).asignacion();
+            }
+            for (int i = 0; i < restantes.length; i++) {
+                asignacion[restantes[i]] = parcial[i];
+            }
+        }
+        return modelo.costoDe(asignacion);
+    }
+
+    private PlanificadorPorEstrella nuevoPlanificador(ModeloPlanificacion bloque) {
+        return new PlanificadorPorEstrella(bloque, pool, ControlBusqueda.sinLimite(), costo -> { });
+    }
+
+    /**
+     * Los roles y canciones que cubren sólo artistas base no ahorran nada.
+     */
+    private AnalisisSensibilidad armar(double costoOptimo,
+                                       Map<Cancion, Double> ahorroPorCancion,
+                                       Map<RolRequerido, Double> ahorroPorRol) {
+        List<AnalisisSensibilidad.PorCancion> canciones = new ArrayList<>();
+        List<AnalisisSensibilidad.PorRol> roles = new ArrayList<>();
+        for (Cancion c : recital.getCanciones()) {
+            canciones.add(new AnalisisSensibilidad.PorCancion(c, ahorroPorCancion.getOrDefault(c, 0.0)));
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                roles.add(new AnalisisSensibilidad.PorRol(c, rol, ahorroPorRol.getOrDefault(rol, 0.0)));
+            }
+        }
+        canciones.sort(Comparator.comparingDouble(AnalisisSensibilidad.PorCancion::ahorro).reversed());
+        roles.sort(Comparator.comparingDouble(AnalisisSensibilidad.PorRol::ahorro).reversed());
+        return new AnalisisSensibilidad(costoOptimo, canciones, roles);
+    }
+}
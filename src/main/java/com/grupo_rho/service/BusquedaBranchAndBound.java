@@ -0,0 +1,145 @@
+package com.grupo_rho.service;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Backtracking con poda por cota (branch and bound) sobre un ModeloPlanificacion.
+ *
+ * En cada nodo sigue por el slot abierto con menos candidatos válidos (primero el que falla)
+ * y, después de cada asignación, verifica hacia adelante que ningún slot abierto se haya
+ * quedado sin candidatos. Los candidatos de cada slot ya vienen ordenados por costo,
+ * así que en cuanto uno no puede mejorar la mejor solución conocida se corta el resto.
+ * La mejor solución conocida puede ser compartida por varias búsquedas (una por hilo).
+ * Cada mejora se informa al consumidor indicado y la búsqueda se corta cuando el
+ * ControlBusqueda lo pide, quedándose con la mejor solución hasta ese momento.
+ * Las ramas que sólo permutan slots o externos intercambiables se descartan
+ * (ver {@link ModeloPlanificacion#esCanonica}).
+ */
+final class BusquedaBranchAndBound {
+
+    private static final int NODOS_POR_TANDA = 256;
+
+    private final ModeloPlanificacion modelo;
+    private final DoubleAccumulator mejorCompartido;
+    private final ControlBusqueda control;
+    private final DoubleConsumer alMejorar;
+    private final int[] mejorAsignacion;
+    private double mejorCosto = Double.POSITIVE_INFINITY;
+    private long nodosExplorados;
+    private long ramasPodadasPorSimetria;
+    private long ramasPodadasPorVerificacion;
+    private long nodosSinInformar;
+    private boolean detenida;
+
+    BusquedaBranchAndBound(ModeloPlanificacion modelo) {
+        this(modelo, new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY));
+    }
+
+    BusquedaBranchAndBound(ModeloPlanificacion modelo, DoubleAccumulator mejorCompartido) {
+        this(modelo, mejorCompartido, ControlBusqueda.sinLimite(), costo -> { });
+    }
+
+    BusquedaBranchAndBound(ModeloPlanificacion modelo,
+                           DoubleAccumulator mejorCompartido,
+                           ControlBusqueda control,
+                           DoubleConsumer alMejorar) {
+        this.modelo = modelo;
+        this.mejorCompartido = mejorCompartido;
+        this.control = control;
+        this.alMejorar = alMejorar;
+        this.mejorAsignacion = new int[modelo.cantidadSlots()];
+    }
+
+    /**
+     * Explora todas las extensiones del estado.
+     */
+    void buscar(EstadoBusqueda estado) {
+        nodosExplorados++;
+        if (debeDetenerse()) {
+            return;
+        }
+        if (modelo.cotaInferior(estado) >= umbral()) {
+            return;
+        }
+
+        int slot = estado.elegirSlot(modelo);
+        if (slot == EstadoBusqueda.SIN_SALIDA) {
+            return;
+        }
+        if (slot == EstadoBusqueda.COMPLETO) {
+            double costo = modelo.costoFinal(estado.costoParcial, estado.usos);
+            if (costo < umbral()) {
+                mejorCosto = costo;
+                System.arraycopy(estado.asignacion, 0, mejorAsignacion, 0, mejorAsignacion.length);
+                mejorCompartido.accumulate(costo);
+                alMejorar.accept(costo);
+            }
+            return;
+        }
+
+        for (int externo : modelo.candidatos[slot]) {
+            if (detenida || modelo.cotaInferior(estado, externo, slot) >= umbral()) break;
+            if (!estado.puedeOcupar(modelo, externo, slot)) continue;
+            if (!modelo.esCanonica(estado, externo, slot)) {
+                ramasPodadasPorSimetria++;
+                continue;
+            }
+
+            estado.asignar(modelo, externo, slot);
+            if (estado.sigueSiendoViable(modelo, externo, slot)) {
+                buscar(estado);
+            } else {
+                ramasPodadasPorVerificacion++;
+            }
+            estado.desasignar(modelo, externo, slot);
+        }
+    }
+
+    /**
+     * Informa los nodos al control de a tandas, para no tocar memoria compartida en cada nodo.
+     */
+    private boolean debeDetenerse() {
+        if (++nodosSinInformar >= NODOS_POR_TANDA) {
+            detenida = !control.registrarNodos(nodosSinInformar);
+            nodosSinInformar = 0;
+        } else if (!detenida) {
+            detenida = control.fueDetenida();
+        }
+        return detenida;
+    }
+
+    /**
+     * Nodos explorados que todavía no se informaron al control.
+     */
+    void informarNodosPendientes() {
+        control.sumarNodos(nodosSinInformar);
+        nodosSinInformar = 0;
+    }
+
+    /**
+     * Mejor solución encontrada por esta búsqueda, o null si no encontró ninguna.
+     */
+    SolucionModelo getSolucion() {
+        if (mejorCosto == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new SolucionModelo(mejorCosto, mejorAsignacion.clone());
+    }
+
+    long getNodosExplorados() {
+        return nodosExplorados;
+    }
+
+    long getRamasPodadasPorSimetria() {
+        return ramasPodadasPorSimetria;
+    }
+
+    long getRamasPodadasPorVerificacion() {
+        return ramasPodadasPorVerificacion;
+    }
+
+    private double umbral() {
+        return Math.min(mejorCosto, mejorCompartido.get());
+    }
+}
@@ -0,0 +1,37 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.CostoRecitalDetalle;
+
+import java.util.List;
+
+/**
+ * Diferencias entre dos escenarios (instantáneas) del mismo recital.
+ *
+ * @param base                  detalle de costos del primer escenario
+ * @param alternativa           detalle de costos del segundo
+ * @param rolesCambiados        roles con distinto artista (o cubiertos en uno solo)
+ * @param entrenamientosDistintos externos entrenados distinto en uno y otro
+ * @param faltantesBase         roles sin cubrir en el primero
+ * @param faltantesAlternativa  roles sin cubrir en el segundo
+ */
+public record ComparacionEscenarios(CostoRecitalDetalle base,
+                                    CostoRecitalDetalle alternativa,
+                                    List<RolRequerido> rolesCambiados,
+                                    List<ArtistaExterno> entrenamientosDistintos,
+                                    int faltantesBase,
+                                    int faltantesAlternativa) {
+
+    public ComparacionEscenarios {
+        rolesCambiados = List.copyOf(rolesCambiados);
+        entrenamientosDistintos = List.copyOf(entrenamientosDistintos);
+    }
+
+    /**
+     * Cuánto más (positivo) o menos (negativo) cuesta la alternativa.
+     */
+    public double diferenciaCosto() {
+        return alternativa.totalFinal() - base.totalFinal();
+    }
+}
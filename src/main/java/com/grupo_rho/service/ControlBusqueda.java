@@ -0,0 +1,85 @@
+package com.grupo_rho.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto y cancelación de una contratación global.
+ *
+ * La búsqueda consulta este control mientras avanza y se detiene en cuanto se agota el
+ * tiempo o la cantidad de nodos, o alguien llama a {@link #cancelar()} (desde cualquier hilo).
+ * Al detenerse se queda con el mejor plan encontrado hasta ese momento.
+ */
+public final class ControlBusqueda {
+
+    private final Duration tiempoMaximo;
+    private final long nodosMaximos;
+    private final AtomicLong nodos = new AtomicLong();
+    private volatile long limiteNanos = Long.MAX_VALUE;
+    private volatile boolean detenida;
+
+    private ControlBusqueda(Duration tiempoMaximo, long nodosMaximos) {
+        this.tiempoMaximo = tiempoMaximo;
+        this.nodosMaximos = nodosMaximos;
+    }
+
+    public static ControlBusqueda sinLimite() {
+        return new ControlBusqueda(null, Long.MAX_VALUE);
+    }
+
+    public static ControlBusqueda conTiempo(Duration tiempoMaximo) {
+        return new ControlBusqueda(tiempoMaximo, Long.MAX_VALUE);
+    }
+
+    public static ControlBusqueda conNodos(long nodosMaximos) {
+        return new ControlBusqueda(null, nodosMaximos);
+    }
+
+    /**
+     * Pide a la búsqueda que se detenga lo antes posible.
+     */
+    public void cancelar() {
+        detenida = true;
+    }
+
+    /**
+     * true si la búsqueda se cortó antes de terminar (por presupuesto o cancelación).
+     */
+    public boolean fueDetenida() {
+        return detenida;
+    }
+
+    public long getNodosExplorados() {
+        return nodos.get();
+    }
+
+    /**
+     * Arranca a correr el reloj; se llama al empezar la búsqueda.
+     */
+    void iniciar() {
+        if (tiempoMaximo != null) {
+            limiteNanos = System.nanoTime() + tiempoMaximo.toNanos();
+        }
+    }
+
+    /**
+     * Suma nodos explorados (las búsquedas los informan de a tandas) y
+     * devuelve true si la búsqueda puede seguir.
+     */
+    boolean registrarNodos(long cantidad) {
+        if (detenida) {
+            return false;
+        }
+        if (nodos.addAndGet(cantidad) >= nodosMaximos || System.nanoTime() >= limiteNanos) {
+            detenida = true;
+        }
+        return !detenida;
+    }
+
+    /**
+     * Suma nodos explorados sin evaluar el presupuesto (al terminar una búsqueda).
+     */
+    void sumarNodos(long cantidad) {
+        nodos.addAndGet(cantidad);
+    }
+}
@@ -0,0 +1,106 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
+import com.grupo_rho.domain.recital.Recital;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Copia independiente de un recital armada desde una instantánea: canciones, roles y externos
+ * nuevos (sobre los mismos perfiles y artistas base, que son inmutables), con los entrenamientos
+ * y las asignaciones de la instantánea. Se puede replanificar en otro hilo sin tocar el original.
+ *
+ * Los externos contratados que ya no están en el pool también se copian, y como en el original
+ * quedan fuera del pool de la copia.
+ */
+final class CopiaRecital {
+
+    final Recital recital;
+    private final Map<ArtistaExterno, ArtistaExterno> copiaDelExterno;
+    private final Map<RolRequerido, RolRequerido> originalDelRol;
+
+    private CopiaRecital(Recital recital,
+                         Map<ArtistaExterno, ArtistaExterno> copiaDelExterno,
+                         Map<RolRequerido, RolRequerido> originalDelRol) {
+        this.recital = recital;
+        this.copiaDelExterno = copiaDelExterno;
+        this.originalDelRol = originalDelRol;
+    }
+
+    /**
+     * @param quitadas    canciones que no se copian
+     * @param rolesNuevos roles que se agregan (vacíos) al final de cada canción
+     * @param conservar   qué asignaciones de la instantánea se copian; las demás quedan libres
+     */
+    static CopiaRecital armar(Recital original,
+                              InstantaneaRecital instantanea,
+                              Set<Cancion> quitadas,
+                              Map<Cancion, List<RolTipo>> rolesNuevos,
+                              Predicate<Artista> conservar) {
+        Map<ArtistaExterno, ArtistaExterno> copiaDelExterno = new IdentityHashMap<>();
+        List<ArtistaExterno> pool = new ArrayList<>();
+        for (ArtistaExterno externo : original.getArtistasExternosPool()) {
+            ArtistaExterno copia = copiar(externo, instantanea);
+            copiaDelExterno.put(externo, copia);
+            pool.add(copia);
+        }
+        for (ArtistaExterno externo : original.getRegistroCostos().getExternosConAsignaciones()) {
+            copiaDelExterno.computeIfAbsent(externo, e -> copiar(e, instantanea));
+        }
+
+        Map<RolRequerido, RolRequerido> copiaDelRol = new LinkedHashMap<>();
+        Map<RolRequerido, RolRequerido> originalDelRol = new IdentityHashMap<>();
+        List<Cancion> canciones = new ArrayList<>();
+        for (Cancion c : original.getCanciones()) {
+            if (quitadas.contains(c)) continue;
+            List<RolRequerido> roles = new ArrayList<>();
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                RolRequerido copia = new RolRequerido(rol.getTipoRol());
+                copiaDelRol.put(rol, copia);
+                originalDelRol.put(copia, rol);
+                roles.add(copia);
+            }
+            for (RolTipo tipo : rolesNuevos.getOrDefault(c, List.of())) {
+                roles.add(new RolRequerido(tipo));
+            }
+            canciones.add(new Cancion(c.getTitulo(), roles));
+        }
+        Recital copia = new Recital(original.getNombre(), canciones, original.getArtistasBase(),
+                pool, original.getTipoRecital());
+
+        for (Map.Entry<RolRequerido, RolRequerido> entry : copiaDelRol.entrySet()) {
+            Artista artista = instantanea.getArtistaAsignado(entry.getKey());
+            if (artista == null || !conservar.test(artista)) continue;
+            if (artista instanceof ArtistaExterno externo) {
+                ArtistaExterno propio = copiaDelExterno.computeIfAbsent(externo, e -> copiar(e, instantanea));
+                propio.registrarAsignacionEnCancion();
+                artista = propio;
+            }
+            entry.getValue().asignar(artista);
+        }
+        return new CopiaRecital(copia, copiaDelExterno, originalDelRol);
+    }
+
+    private static ArtistaExterno copiar(ArtistaExterno externo, InstantaneaRecital instantanea) {
+        ArtistaExterno copia = new ArtistaExterno(externo.getPerfil());
+        instantanea.getRolesEntrenados(externo).forEach(copia::entrenar);
+        return copia;
+    }
+
+    ArtistaExterno copiaDe(ArtistaExterno original) {
+        return copiaDelExterno.get(original);
+    }
+
+    /**
+     * El rol del recital original del que salió la copia, o null si es un rol agregado.
+     */
+    RolRequerido originalDe(RolRequerido copia) {
+        return originalDelRol.get(copia);
+    }
+}
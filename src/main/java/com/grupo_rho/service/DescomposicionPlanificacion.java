@@ -0,0 +1,190 @@
+package com.grupo_rho.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parte la contratación global en subproblemas independientes.
+ *
+ * Dos slots interactúan si comparten algún externo candidato (el cupo y la regla de un rol
+ * por canción sólo acoplan slots así); las componentes conexas de esa relación se pueden
+ * resolver por separado. Lo único que las vuelve a acoplar es el descuento de la estrella,
+ * que depende de la facturación máxima entre todos los candidatos a estrella. Por eso:
+ *  - las componentes sin candidatos a estrella tienen costo aditivo y se resuelven
+ *    con flujo de costo mínimo, en paralelo;
+ *  - las que tienen alguno se juntan en un único bloque, que se resuelve después sobre
+ *    un submodelo cuyo costo fijo ya incluye lo resuelto por flujo.
+ * Juntar las soluciones da el óptimo del recital completo.
+ */
+final class DescomposicionPlanificacion {
+
+    private final ModeloPlanificacion modelo;
+    private final List<int[]> componentesAditivas = new ArrayList<>();
+    private final int[] slotsEstrella;
+    private final int cantidadComponentes;
+
+    DescomposicionPlanificacion(ModeloPlanificacion modelo) {
+        this.modelo = modelo;
+
+        int[] raiz = componentes();
+        boolean[] esEstrella = new boolean[modelo.cantidadExternos()];
+        for (int e : modelo.elegiblesEstrella) {
+            esEstrella[e] = true;
+        }
+        boolean[] componenteConEstrella = new boolean[modelo.cantidadSlots()];
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            for (int e : modelo.candidatos[slot]) {
+                if (esEstrella[e]) {
+                    componenteConEstrella[raiz[slot]] = true;
+                }
+            }
+        }
+
+        List<List<Integer>> porRaiz = new ArrayList<>();
+        int[] indiceDeRaiz = new int[modelo.cantidadSlots()];
+        Arrays.fill(indiceDeRaiz, -1);
+        List<Integer> estrella = new ArrayList<>();
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            int r = raiz[slot];
+            if (indiceDeRaiz[r] == -1) {
+                indiceDeRaiz[r] = porRaiz.size();
+                porRaiz.add(new ArrayList<>());
+            }
+            porRaiz.get(indiceDeRaiz[r]).add(slot);
+            if (componenteConEstrella[r]) {
+                estrella.add(slot);
+            }
+        }
+        this.cantidadComponentes = porRaiz.size();
+        for (List<Integer> componente : porRaiz) {
+            if (!componenteConEstrella[raiz[componente.getFirst()]]) {
+                componentesAditivas.add(componente.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        this.slotsEstrella = estrella.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int getCantidadComponentes() {
+        return cantidadComponentes;
+    }
+
+    /**
+     * Slots de cada componente sin candidatos a estrella.
+     */
+    List<int[]> getComponentesAditivas() {
+        return componentesAditivas;
+    }
+
+    /**
+     * Slots del bloque que depende de la estrella (vacío si no hay).
+     */
+    int[] getSlotsEstrella() {
+        return slotsEstrella;
+    }
+
+    /**
+     * Si queda algo para buscar; si no, alcanza con resolverAditivas.
+     */
+    boolean tieneBloqueEstrella() {
+        return slotsEstrella.length > 0;
+    }
+
+    /**
+     * Resuelve cada componente sin candidatos a estrella con su propio flujo, en paralelo.
+     * Devuelve la asignación de esos slots (los del bloque estrella quedan sin asignar).
+     * El modelo tiene que ser factible: entonces cada componente lo es por separado.
+     */
+    int[] resolverAditivas(ForkJoinPool pool) {
+        List<Callable<int[]>> tareas = new ArrayList<>();
+        for (int[] componente : componentesAditivas) {
+            tareas.add(() -> {
+                ModeloPlanificacion sub = modelo.subModelo(componente, 0.0);
+                return new PlanificadorFlujo(sub).resolverConCostos(sub.costo).asignacion();
+            });
+        }
+
+        int[] asignacion = new int[modelo.cantidadSlots()];
+        Arrays.fill(asignacion, EstadoBusqueda.SIN_ASIGNAR);
+        List<Future<int[]>> resultados = pool.invokeAll(tareas);
+        for (int i = 0; i < componentesAditivas.size(); i++) {
+            int[] componente = componentesAditivas.get(i);
+            int[] parcial = resultados.get(i).resultNow();
+            for (int j = 0; j < componente.length; j++) {
+                asignacion[componente[j]] = parcial[j];
+            }
+        }
+        return asignacion;
+    }
+
+    /**
+     * Submodelo con los slots que dependen de la estrella; su costo fijo incluye lo ya
+     * resuelto en {@code aditivas}, así que sus costos son los del recital completo.
+     */
+    ModeloPlanificacion bloqueEstrella(int[] aditivas) {
+        double costoAditivas = 0.0;
+        for (int e : aditivas) {
+            if (e != EstadoBusqueda.SIN_ASIGNAR) {
+                costoAditivas += modelo.costo[e];
+            }
+        }
+        return modelo.subModelo(slotsEstrella, costoAditivas);
+    }
+
+    /**
+     * Junta lo resuelto por flujo con la solución del bloque estrella (null si no hay bloque).
+     */
+    SolucionModelo combinar(int[] aditivas, SolucionModelo delBloque) {
+        int[] asignacion = aditivas.clone();
+        if (delBloque != null) {
+            for (int i = 0; i < slotsEstrella.length; i++) {
+                asignacion[slotsEstrella[i]] = delBloque.asignacion()[i];
+            }
+        }
+        int[] usos = new int[modelo.cantidadExternos()];
+        double parcial = 0.0;
+        for (int e : asignacion) {
+            usos[e]++;
+            parcial += modelo.costo[e];
+        }
+        return new SolucionModelo(modelo.costoFinal(parcial, usos), asignacion);
+    }
+
+    /**
+     * Union-find sobre los slots: se unen los que comparten un candidato.
+     * Devuelve la raíz de la componente de cada slot.
+     */
+    private int[] componentes() {
+        int[] padre = new int[modelo.cantidadSlots()];
+        for (int i = 0; i < padre.length; i++) {
+            padre[i] = i;
+        }
+        int[] primerSlot = new int[modelo.cantidadExternos()];
+        Arrays.fill(primerSlot, -1);
+        for (int slot = 0; slot < padre.length; slot++) {
+            for (int e : modelo.candidatos[slot]) {
+                if (primerSlot[e] == -1) {
+                    primerSlot[e] = slot;
+                } else {
+                    padre[buscar(padre, slot)] = buscar(padre, primerSlot[e]);
+                }
+            }
+        }
+        int[] raiz = new int[padre.length];
+        for (int i = 0; i < padre.length; i++) {
+            raiz[i] = buscar(padre, i);
+        }
+        return raiz;
+    }
+
+    private static int buscar(int[] padre, int i) {
+        while (padre[i] != i) {
+            padre[i] = padre[padre[i]];
+            i = padre[i];
+        }
+        return i;
+    }
+}
@@ -0,0 +1,59 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+
+import java.util.List;
+
+/**
+ * Un "¿y si...?" sobre el recital: uno o más cambios que se evalúan juntos
+ * (ver RecitalService.evaluarEscenarios). Los cambios nombran canciones y externos
+ * del recital real, que no se modifica.
+ */
+public record EscenarioHipotetico(String nombre, List<Cambio> cambios) {
+
+    public EscenarioHipotetico {
+        cambios = List.copyOf(cambios);
+    }
+
+    public static EscenarioHipotetico quitarCancion(Cancion cancion) {
+        return new EscenarioHipotetico("Sin '" + cancion.getTitulo() + "'", List.of(new QuitarCancion(cancion)));
+    }
+
+    public static EscenarioHipotetico agregarRol(Cancion cancion, RolTipo rol) {
+        return new EscenarioHipotetico(rol + " extra en '" + cancion.getTitulo() + "'",
+                List.of(new AgregarRol(cancion, rol)));
+    }
+
+    public static EscenarioHipotetico entrenar(ArtistaExterno artista, RolTipo rol) {
+        return new EscenarioHipotetico(artista.getNombre() + " aprende " + rol,
+                List.of(new EntrenarArtista(artista, rol)));
+    }
+
+    public static EscenarioHipotetico quitarArtista(ArtistaExterno artista) {
+        return new EscenarioHipotetico("Sin " + artista.getNombre(), List.of(new QuitarArtista(artista)));
+    }
+
+    public sealed interface Cambio permits QuitarCancion, AgregarRol, EntrenarArtista, QuitarArtista {
+    }
+
+    /** La canción sale del recital. */
+    public record QuitarCancion(Cancion cancion) implements Cambio {
+    }
+
+    /** La canción necesita un rol más de ese tipo. */
+    public record AgregarRol(Cancion cancion, RolTipo rol) implements Cambio {
+    }
+
+    /**
+     * El externo se entrena en el rol. Si ya tenía canciones primero se lo libera de todas,
+     * porque el dominio sólo deja entrenar a quien no tiene asignaciones.
+     */
+    public record EntrenarArtista(ArtistaExterno artista, RolTipo rol) implements Cambio {
+    }
+
+    /** Como quitarArtistaDelRecital: se lo libera de todas sus canciones pero sigue en el pool. */
+    public record QuitarArtista(ArtistaExterno artista) implements Cambio {
+    }
+}
@@ -0,0 +1,19 @@
+package com.grupo_rho.service;
+
+/**
+ * Resumen de la última contratación global.
+ *
+ * @param metodo                   cómo se resolvió (flujo, branch and bound secuencial o paralelo)
+ * @param nodosExplorados          estados visitados por la búsqueda
+ * @param ramasPodadasPorSimetria  ramas descartadas por ser permutaciones de otras ya exploradas
+ * @param ramasPodadasPorVerificacion ramas descartadas porque dejaban algún slot sin candidatos
+ * @param poda                     cuánto se achicó el pool por dominancia antes de buscar
+ * @param componentes              subproblemas independientes en que se partieron los slots
+ */
+public record EstadisticasPlanificacion(String metodo,
+                                        long nodosExplorados,
+                                        long ramasPodadasPorSimetria,
+                                        long ramasPodadasPorVerificacion,
+                                        PodaPorDominancia poda,
+                                        int componentes) {
+}
@@ -0,0 +1,134 @@
+package com.grupo_rho.service;
+
+import java.util.Arrays;
+
+/**
+ * Asignaciones de una búsqueda sobre un ModeloPlanificacion.
+ * Cada hilo trabaja con su propia instancia; asignar y desasignar no reservan memoria.
+ */
+final class EstadoBusqueda {
+
+    static final int SIN_ASIGNAR = -1;
+    /** Resultado de elegirSlot: todos los slots están asignados. */
+    static final int COMPLETO = -1;
+    /** Resultado de elegirSlot: algún slot abierto se quedó sin candidatos. */
+    static final int SIN_SALIDA = -2;
+
+    final int[] asignacion;
+    final int[] usos;
+    double costoParcial;
+    /** Suma de los candidatos más baratos de los slots todavía abiertos. */
+    double cotaPendiente;
+    int slotsAsignados;
+
+    EstadoBusqueda(ModeloPlanificacion modelo) {
+        this.asignacion = new int[modelo.cantidadSlots()];
+        this.usos = new int[modelo.cantidadExternos()];
+        Arrays.fill(asignacion, SIN_ASIGNAR);
+        for (double minimo : modelo.costoMinimo) {
+            cotaPendiente += minimo;
+        }
+    }
+
+    EstadoBusqueda(EstadoBusqueda otro) {
+        this.asignacion = otro.asignacion.clone();
+        this.usos = otro.usos.clone();
+        this.costoParcial = otro.costoParcial;
+        this.cotaPendiente = otro.cotaPendiente;
+        this.slotsAsignados = otro.slotsAsignados;
+    }
+
+    /**
+     * Cupo y regla de un rol por canción, evaluados sobre este estado.
+     */
+    boolean puedeOcupar(ModeloPlanificacion modelo, int externo, int slot) {
+        if (usos[externo] >= modelo.cupo[externo]) {
+            return false;
+        }
+        for (int otro : modelo.slotsMismaCancion[slot]) {
+            if (asignacion[otro] == externo) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cuántos candidatos del slot todavía pueden ocuparlo.
+     */
+    int candidatosValidos(ModeloPlanificacion modelo, int slot) {
+        int validos = 0;
+        for (int externo : modelo.candidatos[slot]) {
+            if (puedeOcupar(modelo, externo, slot)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    /**
+     * Primero el que falla: el slot abierto con menos candidatos válidos.
+     * Un slot con gemelo anterior sin asignar todavía no se puede elegir (los gemelos
+     * se llenan en orden), pero igual se verifica que le queden candidatos.
+     * Devuelve {@link #COMPLETO} si no quedan slots abiertos y {@link #SIN_SALIDA}
+     * si alguno ya no tiene con quién cubrirse.
+     */
+    int elegirSlot(ModeloPlanificacion modelo) {
+        int elegido = COMPLETO;
+        int menosCandidatos = Integer.MAX_VALUE;
+        for (int slot = 0; slot < asignacion.length; slot++) {
+            if (asignacion[slot] != SIN_ASIGNAR) {
+                continue;
+            }
+            int validos = candidatosValidos(modelo, slot);
+            if (validos == 0) {
+                return SIN_SALIDA;
+            }
+            int gemelo = modelo.gemeloAnterior[slot];
+            boolean habilitado = gemelo == -1 || asignacion[gemelo] != SIN_ASIGNAR;
+            if (habilitado && validos < menosCandidatos) {
+                elegido = slot;
+                menosCandidatos = validos;
+            }
+        }
+        return elegido;
+    }
+
+    /**
+     * Verificación hacia adelante tras asignar el externo al slot: sólo pueden haber perdido
+     * candidatos los slots abiertos de la misma canción y, si el externo agotó su cupo,
+     * los demás slots donde era candidato. Devuelve false si alguno se quedó sin ninguno.
+     */
+    boolean sigueSiendoViable(ModeloPlanificacion modelo, int externo, int slot) {
+        for (int otro : modelo.slotsMismaCancion[slot]) {
+            if (asignacion[otro] == SIN_ASIGNAR && candidatosValidos(modelo, otro) == 0) {
+                return false;
+            }
+        }
+        if (usos[externo] < modelo.cupo[externo]) {
+            return true;
+        }
+        for (int otro : modelo.slotsDelExterno[externo]) {
+            if (asignacion[otro] == SIN_ASIGNAR && candidatosValidos(modelo, otro) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void asignar(ModeloPlanificacion modelo, int externo, int slot) {
+        asignacion[slot] = externo;
+        usos[externo]++;
+        costoParcial += modelo.costo[externo];
+        cotaPendiente -= modelo.costoMinimo[slot];
+        slotsAsignados++;
+    }
+
+    void desasignar(ModeloPlanificacion modelo, int externo, int slot) {
+        asignacion[slot] = SIN_ASIGNAR;
+        usos[externo]--;
+        costoParcial -= modelo.costo[externo];
+        cotaPendiente += modelo.costoMinimo[slot];
+        slotsAsignados--;
+    }
+}
@@ -0,0 +1,118 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.exception.DomainException;
+import com.grupo_rho.domain.exception.NoHayArtistasDisponiblesException;
+import com.grupo_rho.domain.recital.CostoRecitalDetalle;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
+import com.grupo_rho.domain.recital.Recital;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Evalúa escenarios hipotéticos en paralelo, cada uno en su hilo virtual.
+ *
+ * Cada escenario trabaja sobre su propia copia del recital (ver CopiaRecital), armada desde
+ * una misma instantánea: nadie toca el recital real ni comparte externos con otro escenario.
+ * En la copia se aplican los cambios, se conservan las asignaciones vigentes que siguen
+ * valiendo y se contratan los roles libres con la contratación global exacta.
+ */
+class EvaluadorEscenarios {
+
+    private final Recital recital;
+
+    EvaluadorEscenarios(Recital recital) {
+        this.recital = recital;
+    }
+
+    /**
+     * Resultados ordenados por costo (ver ResultadoEscenario.POR_COSTO). Un escenario que no
+     * se puede cubrir no corta a los demás: queda al final con el motivo.
+     */
+    List<ResultadoEscenario> evaluar(List<EscenarioHipotetico> escenarios) {
+        escenarios.forEach(this::validar);
+        InstantaneaRecital vigente = recital.tomarInstantanea();
+        CostoRecitalDetalle costoVigente = vigente.getCostoDetallado();
+
+        List<Future<ResultadoEscenario>> futuros = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (EscenarioHipotetico escenario : escenarios) {
+                futuros.add(hilos.submit(() -> evaluar(escenario, vigente, costoVigente)));
+            }
+        }
+
+        List<ResultadoEscenario> resultados = new ArrayList<>();
+        for (Future<ResultadoEscenario> futuro : futuros) {
+            if (futuro.state() == Future.State.FAILED) {
+                Throwable causa = futuro.exceptionNow();
+                throw causa instanceof RuntimeException e ? e : new IllegalStateException(causa);
+            }
+            resultados.add(futuro.resultNow());
+        }
+        resultados.sort(ResultadoEscenario.POR_COSTO);
+        return resultados;
+    }
+
+    private ResultadoEscenario evaluar(EscenarioHipotetico escenario,
+                                       InstantaneaRecital vigente,
+                                       CostoRecitalDetalle costoVigente) {
+        Set<Cancion> quitadas = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Cancion, List<RolTipo>> rolesNuevos = new IdentityHashMap<>();
+        Set<ArtistaExterno> liberados = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<EscenarioHipotetico.EntrenarArtista> entrenamientos = new ArrayList<>();
+        for (EscenarioHipotetico.Cambio cambio : escenario.cambios()) {
+            switch (cambio) {
+                case EscenarioHipotetico.QuitarCancion q -> quitadas.add(q.cancion());
+                case EscenarioHipotetico.AgregarRol a ->
+                        rolesNuevos.computeIfAbsent(a.cancion(), c -> new ArrayList<>()).add(a.rol());
+                case EscenarioHipotetico.EntrenarArtista e -> {
+                    liberados.add(e.artista());
+                    entrenamientos.add(e);
+                }
+                case EscenarioHipotetico.QuitarArtista q -> liberados.add(q.artista());
+            }
+        }
+
+        CopiaRecital copia = CopiaRecital.armar(recital, vigente, quitadas, rolesNuevos,
+                artista -> !(artista instanceof ArtistaExterno externo && liberados.contains(externo)));
+
+        PlanificacionService planificador = new PlanificacionService(copia.recital);
+        try {
+            for (EscenarioHipotetico.EntrenarArtista entrenamiento : entrenamientos) {
+                planificador.entrenarArtista(copia.copiaDe(entrenamiento.artista()), entrenamiento.rol());
+            }
+            planificador.contratarParaTodoElRecital();
+        } catch (NoHayArtistasDisponiblesException | DomainException e) {
+            return new ResultadoEscenario(escenario, costoVigente, null, e.getMessage());
+        }
+        return new ResultadoEscenario(escenario, costoVigente, copia.recital.calcularCostoDetallado(), null);
+    }
+
+    private void validar(EscenarioHipotetico escenario) {
+        for (EscenarioHipotetico.Cambio cambio : escenario.cambios()) {
+            switch (cambio) {
+                case EscenarioHipotetico.QuitarCancion q -> validarCancion(q.cancion());
+                case EscenarioHipotetico.AgregarRol a -> validarCancion(a.cancion());
+                case EscenarioHipotetico.EntrenarArtista e -> validarExterno(e.artista());
+                case EscenarioHipotetico.QuitarArtista q -> validarExterno(q.artista());
+            }
+        }
+    }
+
+    private void validarCancion(Cancion cancion) {
+        if (recital.getCanciones().stream().noneMatch(c -> c == cancion)) {
+            throw new IllegalArgumentException("La canción " + cancion.getTitulo() + " no es parte del recital");
+        }
+    }
+
+    private void validarExterno(ArtistaExterno externo) {
+        if (recital.getArtistasExternosPool().stream().noneMatch(e -> e == externo)) {
+            throw new IllegalArgumentException("El artista " + externo.getNombre() + " no es parte del pool");
+        }
+    }
+}
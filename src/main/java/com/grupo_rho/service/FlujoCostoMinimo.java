@@ -0,0 +1,160 @@
+package com.grupo_rho.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Red de flujo con costos y algoritmo de caminos mínimos sucesivos
+ * (Dijkstra con potenciales). Los costos de las aristas originales deben ser no negativos.
+ *
+ * Las aristas se guardan en arreglos paralelos; cada arista tiene su reversa en el índice
+ * siguiente (índice ^ 1), como es habitual en este tipo de redes.
+ */
+final class FlujoCostoMinimo {
+
+    private static final double EPSILON = 1e-9;
+
+    private final int nodos;
+    private final int[] primera;
+    private int[] destino;
+    private int[] siguiente;
+    private int[] capacidad;
+    private int[] capacidadOriginal;
+    private double[] costo;
+    private int aristas;
+
+    FlujoCostoMinimo(int nodos) {
+        this.nodos = nodos;
+        this.primera = new int[nodos];
+        Arrays.fill(primera, -1);
+        int inicial = 16;
+        this.destino = new int[inicial];
+        this.siguiente = new int[inicial];
+        this.capacidad = new int[inicial];
+        this.capacidadOriginal = new int[inicial];
+        this.costo = new double[inicial];
+    }
+
+    /**
+     * Agrega una arista dirigida y devuelve su índice (para consultar luego su flujo).
+     */
+    int agregarArista(int desde, int hasta, int cap, double costoUnitario) {
+        asegurarLugar();
+        int id = aristas;
+        enlazar(desde, hasta, cap, costoUnitario);
+        enlazar(hasta, desde, 0, -costoUnitario);
+        return id;
+    }
+
+    int flujo(int arista) {
+        return capacidadOriginal[arista] - capacidad[arista];
+    }
+
+    /**
+     * Envía hasta {@code flujoMaximo} unidades de la fuente al sumidero con costo mínimo.
+     * Devuelve cuántas unidades pudo enviar.
+     */
+    int resolver(int fuente, int sumidero, int flujoMaximo) {
+        double[] potencial = new double[nodos];
+        double[] distancia = new double[nodos];
+        int[] aristaPrevia = new int[nodos];
+        int enviado = 0;
+
+        while (enviado < flujoMaximo) {
+            Arrays.fill(distancia, Double.POSITIVE_INFINITY);
+            Arrays.fill(aristaPrevia, -1);
+            distancia[fuente] = 0.0;
+
+            PriorityQueue<double[]> cola = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            cola.add(new double[]{0.0, fuente});
+
+            while (!cola.isEmpty()) {
+                double[] actual = cola.poll();
+                int u = (int) actual[1];
+                if (actual[0] > distancia[u] + EPSILON) continue;
+                // Los nodos que faltan no pueden mejorar el camino al sumidero
+                if (u == sumidero) break;
+
+                for (int a = primera[u]; a != -1; a = siguiente[a]) {
+                    if (capacidad[a] == 0) continue;
+                    int v = destino[a];
+                    double reducido = costo[a] + potencial[u] - potencial[v];
+                    double candidata = distancia[u] + Math.max(0.0, reducido);
+                    if (candidata + EPSILON < distancia[v]) {
+                        distancia[v] = candidata;
+                        aristaPrevia[v] = a;
+                        cola.add(new double[]{candidata, v});
+                    }
+                }
+            }
+
+            if (distancia[sumidero] == Double.POSITIVE_INFINITY) {
+                break;
+            }
+            // Potenciales con las distancias truncadas en la del sumidero: los costos reducidos
+            // siguen siendo no negativos aunque Dijkstra haya cortado antes de visitar todo
+            double hastaSumidero = distancia[sumidero];
+            for (int v = 0; v < nodos; v++) {
+                potencial[v] += Math.min(distancia[v], hastaSumidero);
+            }
+
+            // Cuello de botella del camino encontrado
+            int aumento = flujoMaximo - enviado;
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                aumento = Math.min(aumento, capacidad[aristaPrevia[v]]);
+            }
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                capacidad[aristaPrevia[v]] -= aumento;
+                capacidad[aristaPrevia[v] ^ 1] += aumento;
+            }
+            enviado += aumento;
+        }
+        return enviado;
+    }
+
+    /**
+     * Nodos que todavía pueden llegar al nodo indicado por aristas con capacidad residual.
+     * Tras un flujo máximo, los que llegan al sumidero forman el lado del sumidero del corte mínimo.
+     */
+    boolean[] puedenLlegarA(int nodo) {
+        boolean[] llegan = new boolean[nodos];
+        ArrayDeque<Integer> pendientes = new ArrayDeque<>();
+        llegan[nodo] = true;
+        pendientes.add(nodo);
+        while (!pendientes.isEmpty()) {
+            int v = pendientes.poll();
+            // La reversa de cada arista que sale de v es una arista que entra a v
+            for (int a = primera[v]; a != -1; a = siguiente[a]) {
+                int u = destino[a];
+                if (!llegan[u] && capacidad[a ^ 1] > 0) {
+                    llegan[u] = true;
+                    pendientes.add(u);
+                }
+            }
+        }
+        return llegan;
+    }
+
+    private void enlazar(int desde, int hasta, int cap, double costoUnitario) {
+        destino[aristas] = hasta;
+        capacidad[aristas] = cap;
+        capacidadOriginal[aristas] = cap;
+        costo[aristas] = costoUnitario;
+        siguiente[aristas] = primera[desde];
+        primera[desde] = aristas;
+        aristas++;
+    }
+
+    private void asegurarLugar() {
+        if (aristas + 2 <= destino.length) {
+            return;
+        }
+        int nuevo = destino.length * 2;
+        destino = Arrays.copyOf(destino, nuevo);
+        siguiente = Arrays.copyOf(siguiente, nuevo);
+        capacidad = Arrays.copyOf(capacidad, nuevo);
+        capacidadOriginal = Arrays.copyOf(capacidadOriginal, nuevo);
+        costo = Arrays.copyOf(costo, nuevo);
+    }
+}
@@ -0,0 +1,682 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.Artista;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.CacheCostos;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.RegistroCostos;
+
+import java.util.*;
+
+/**
+ * Versión compilada del problema de contratación global.
+ *
+ * Externos, canciones y slots se identifican con enteros; los roles de cada externo
+ * son una máscara de bits sobre RolTipo y los costos, cupos y candidatos de cada slot
+ * quedan en arreglos primitivos. Es inmutable: se arma una vez por planificación
+ * y lo pueden leer varios hilos a la vez.
+ */
+final class ModeloPlanificacion {
+
+    // ---- externos ----
+    final ArtistaExterno[] externos;
+    final double[] costo;
+    final int[] cupo;
+    final int[] rolesMascara;
+    final double[] facturadoFijo;
+    final int[] elegiblesEstrella;
+    /** Externo anterior de la misma clase de equivalencia, o -1 (ver {@link #esCanonica}). */
+    final int[] anteriorEnClase;
+    /** Primer externo de su clase de equivalencia (él mismo si no tiene clase). */
+    final int[] representante;
+    /** Slots en los que cada externo es candidato. */
+    final int[][] slotsDelExterno;
+
+    // ---- slots ----
+    final RolPendiente[] slots;
+    final int[] slotCancion;
+    final int[] slotRol;
+    final int[][] candidatos;
+    final int[][] slotsMismaCancion;
+    /** Slot anterior idéntico (misma canción y mismo rol), o -1. */
+    final int[] gemeloAnterior;
+
+    // ---- cotas ----
+    final double costoFijo;
+    final double topeEstrella;
+    /** Candidato más barato de cada slot (infinito si no tiene candidatos). */
+    final double[] costoMinimo;
+
+    /** Cuánto se achicaron los candidatos al compilar. */
+    final PodaPorDominancia poda;
+
+    private ModeloPlanificacion(ArtistaExterno[] externos,
+                                double[] costo,
+                                int[] cupo,
+                                int[] rolesMascara,
+                                double[] facturadoFijo,
+                                int[] elegiblesEstrella,
+                                int[] anteriorEnClase,
+                                RolPendiente[] slots,
+                                int[] slotCancion,
+                                int[] slotRol,
+                                int[][] candidatos,
+                                int[][] slotsMismaCancion,
+                                double costoFijo,
+                                PodaPorDominancia poda) {
+        this.externos = externos;
+        this.costo = costo;
+        this.cupo = cupo;
+        this.rolesMascara = rolesMascara;
+        this.facturadoFijo = facturadoFijo;
+        this.elegiblesEstrella = elegiblesEstrella;
+        this.anteriorEnClase = anteriorEnClase;
+        this.representante = calcularRepresentantes(anteriorEnClase);
+        this.slots = slots;
+        this.slotCancion = slotCancion;
+        this.slotRol = slotRol;
+        this.candidatos = candidatos;
+        this.slotsMismaCancion = slotsMismaCancion;
+        this.gemeloAnterior = calcularGemelos();
+        this.slotsDelExterno = calcularSlotsDelExterno();
+        this.costoFijo = costoFijo;
+        this.topeEstrella = calcularTopeEstrella();
+        this.costoMinimo = calcularCostoMinimo();
+        this.poda = poda;
+    }
+
+    int cantidadSlots() {
+        return slots.length;
+    }
+
+    int cantidadExternos() {
+        return externos.length;
+    }
+
+    static int mascara(RolTipo rol) {
+        return 1 << rol.ordinal();
+    }
+
+    /**
+     * Cota inferior del costo final de cualquier solución que extienda el estado.
+     * Suponemos lo mejor: cada slot abierto con su candidato más barato y
+     * el mayor descuento de estrella posible.
+     */
+    double cotaInferior(EstadoBusqueda estado) {
+        return cota(costoFijo + estado.costoParcial + estado.cotaPendiente);
+    }
+
+    /**
+     * Cota inferior del estado si además se asignara el externo al slot (sin modificarlo).
+     */
+    double cotaInferior(EstadoBusqueda estado, int externo, int slot) {
+        return cota(costoFijo + estado.costoParcial + costo[externo]
+                + (estado.cotaPendiente - costoMinimo[slot]));
+    }
+
+    private double cota(double suma) {
+        return suma - Recital.FACTOR_DESCUENTO_ESTRELLA * Math.min(suma, topeEstrella);
+    }
+
+    /**
+     * Mismo cálculo que el registro de costos del recital, para una solución completa:
+     * lo ya contratado más lo asignado, menos el descuento de la estrella.
+     */
+    double costoFinal(double costoParcial, int[] usos) {
+        double totalEstrella = 0.0;
+        for (int e : elegiblesEstrella) {
+            totalEstrella = Math.max(totalEstrella, facturadoFijo[e] + usos[e] * costo[e]);
+        }
+        return costoFijo + costoParcial - totalEstrella * Recital.FACTOR_DESCUENTO_ESTRELLA;
+    }
+
+    /**
+     * Ruptura de simetrías: decide si asignar el externo al slot lleva a una solución
+     * canónica. Descarta ramas que sólo permutan cosas intercambiables:
+     *  - en slots idénticos de una misma canción, los externos van ordenados por su clase
+     *    (el representante), que no cambia al permutar externos equivalentes;
+     *  - de una clase de externos equivalentes, sólo se estrena al primero que no se usó
+     *    todavía (los usados son siempre un prefijo de la clase).
+     * El slot gemelo anterior tiene que estar asignado antes que éste.
+     */
+    boolean esCanonica(EstadoBusqueda estado, int externo, int slot) {
+        int gemelo = gemeloAnterior[slot];
+        if (gemelo != -1 && representante[externo] < representante[estado.asignacion[gemelo]]) {
+            return false;
+        }
+        int anterior = anteriorEnClase[externo];
+        return anterior == -1 || estado.usos[externo] > 0 || estado.usos[anterior] > 0;
+    }
+
+    /**
+     * Traduce una asignación (slot -> id de externo) a los objetos del dominio.
+     */
+    Map<RolRequerido, ArtistaExterno> traducir(int[] asignacion) {
+        Map<RolRequerido, ArtistaExterno> resultado = new HashMap<>();
+        for (int i = 0; i < slots.length; i++) {
+            resultado.put(slots[i].rol(), externos[asignacion[i]]);
+        }
+        return resultado;
+    }
+
+    /**
+     * El mismo problema con otros costos unitarios (los candidatos se reordenan).
+     * Los externos dejan de ser intercambiables, así que no hay clases de equivalencia.
+     */
+    ModeloPlanificacion conCostos(double[] otrosCostos) {
+        int[][] reordenados = new int[candidatos.length][];
+        for (int i = 0; i < candidatos.length; i++) {
+            reordenados[i] = Arrays.stream(candidatos[i])
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(e -> otrosCostos[e]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        int[] sinClases = new int[externos.length];
+        Arrays.fill(sinClases, -1);
+
+        return new ModeloPlanificacion(
+                externos,
+                otrosCostos,
+                cupo,
+                rolesMascara,
+                facturadoFijo,
+                elegiblesEstrella,
+                sinClases,
+                slots,
+                slotCancion,
+                slotRol,
+                reordenados,
+                slotsMismaCancion,
+                costoFijo,
+                poda
+        );
+    }
+
+    /**
+     * El mismo problema si cada externo se entrenara además en los roles de {@code rolesExtra[e]}
+     * (máscara): puede cubrir esos roles y su costo sube un 50% por cada entrenamiento.
+     * Pensado para externos sin asignaciones y para un modelo compilado sin poda: con los costos
+     * nuevos se vuelve a podar por dominancia. Como cambian los costos no hay clases de equivalencia.
+     */
+    ModeloPlanificacion conEntrenamientos(int[] rolesExtra) {
+        double[] nuevoCosto = costo.clone();
+        int[] nuevaMascara = rolesMascara.clone();
+        for (int e = 0; e < externos.length; e++) {
+            if (rolesExtra[e] != 0) {
+                nuevoCosto[e] *= Math.pow(ArtistaExterno.FACTOR_AUMENTO_ENTRENAMIENTO, Integer.bitCount(rolesExtra[e]));
+                nuevaMascara[e] |= rolesExtra[e];
+            }
+        }
+
+        int[][] nuevosCandidatos = new int[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            int bit = 1 << slotRol[i];
+            Set<Integer> lista = new LinkedHashSet<>();
+            for (int e : candidatos[i]) {
+                lista.add(e);
+            }
+            for (int e = 0; e < externos.length; e++) {
+                if ((rolesExtra[e] & bit) != 0 && cupo[e] > 0) {
+                    lista.add(e);
+                }
+            }
+            nuevosCandidatos[i] = lista.stream()
+                    .sorted(Comparator.comparingDouble(e -> nuevoCosto[e]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        int[] sinClases = new int[externos.length];
+        Arrays.fill(sinClases, -1);
+
+        // Con los costos nuevos cambia quién domina a quién: se vuelve a podar
+        int maxRolesPorCancion = Arrays.stream(slots)
+                .mapToInt(slot -> slot.cancion().getRolesRequeridos().size())
+                .max()
+                .orElse(1);
+        Set<Integer> elegibles = new HashSet<>();
+        for (int e : elegiblesEstrella) {
+            elegibles.add(e);
+        }
+        boolean[][] dominado = calcularDominados(
+                slotRol, nuevaMascara, cupo, nuevoCosto, elegibles, sinClases, maxRolesPorCancion);
+        PodaPorDominancia nuevaPoda = podar(nuevosCandidatos, slotRol, dominado);
+
+        return new ModeloPlanificacion(
+                externos,
+                nuevoCosto,
+                cupo,
+                nuevaMascara,
+                facturadoFijo,
+                elegiblesEstrella,
+                sinClases,
+                slots,
+                slotCancion,
+                slotRol,
+                nuevosCandidatos,
+                slotsMismaCancion,
+                costoFijo,
+                nuevaPoda
+        );
+    }
+
+    /**
+     * Costo final de una asignación (externo por slot) de este modelo; los slots SIN_ASIGNAR no suman.
+     */
+    double costoDe(int[] asignacion) {
+        int[] usos = new int[externos.length];
+        double parcial = 0.0;
+        for (int e : asignacion) {
+            if (e == EstadoBusqueda.SIN_ASIGNAR) continue;
+            usos[e]++;
+            parcial += costo[e];
+        }
+        return costoFinal(parcial, usos);
+    }
+
+    /**
+     * El mismo problema restringido a algunos slots (en el orden dado), con los mismos externos.
+     * {@code costoAdicional} se suma a lo ya fijo: el costo de lo resuelto aparte, para que
+     * los costos y la cota del submodelo sigan siendo los del recital completo.
+     * Sólo tiene sentido si ningún externo es candidato a la vez de un slot elegido y de uno que no.
+     */
+    ModeloPlanificacion subModelo(int[] elegidos, double costoAdicional) {
+        int[] nuevoId = new int[slots.length];
+        Arrays.fill(nuevoId, -1);
+        for (int i = 0; i < elegidos.length; i++) {
+            nuevoId[elegidos[i]] = i;
+        }
+
+        RolPendiente[] subSlots = new RolPendiente[elegidos.length];
+        int[] subCancion = new int[elegidos.length];
+        int[] subRol = new int[elegidos.length];
+        int[][] subCandidatos = new int[elegidos.length][];
+        int[][] subMismaCancion = new int[elegidos.length][];
+        for (int i = 0; i < elegidos.length; i++) {
+            int slot = elegidos[i];
+            subSlots[i] = slots[slot];
+            subCancion[i] = slotCancion[slot];
+            subRol[i] = slotRol[slot];
+            subCandidatos[i] = candidatos[slot];
+            subMismaCancion[i] = Arrays.stream(slotsMismaCancion[slot])
+                    .map(otro -> nuevoId[otro])
+                    .filter(otro -> otro != -1)
+                    .toArray();
+        }
+
+        return new ModeloPlanificacion(
+                externos,
+                costo,
+                cupo,
+                rolesMascara,
+                facturadoFijo,
+                elegiblesEstrella,
+                anteriorEnClase,
+                subSlots,
+                subCancion,
+                subRol,
+                subCandidatos,
+                subMismaCancion,
+                costoFijo + costoAdicional,
+                poda
+        );
+    }
+
+    // =========================================================
+    // COMPILACIÓN
+    // =========================================================
+
+    /**
+     * Compila el recital (ya con los artistas base asignados) para los slots pendientes,
+     * descartando de los candidatos a los externos dominados.
+     */
+    static ModeloPlanificacion compilar(Recital recital, List<RolPendiente> pendientes) {
+        return compilar(recital, pendientes, true);
+    }
+
+    static ModeloPlanificacion compilar(Recital recital, List<RolPendiente> pendientes, boolean podarDominados) {
+        return compilar(recital, pendientes, podarDominados, Set.of());
+    }
+
+    /**
+     * Igual que compilar(recital, pendientes), sin los externos excluidos (que no deben tener
+     * nada asignado): no son candidatos de ningún slot ni pueden ser estrella.
+     */
+    static ModeloPlanificacion compilar(Recital recital, List<RolPendiente> pendientes, Set<ArtistaExterno> excluidos) {
+        return compilar(recital, pendientes, true, excluidos);
+    }
+
+    private static ModeloPlanificacion compilar(Recital recital,
+                                                List<RolPendiente> pendientes,
+                                                boolean podarDominados,
+                                                Set<ArtistaExterno> excluidos) {
+        CacheCostos cache = recital.getCacheCostos();
+        RegistroCostos registro = recital.getRegistroCostos();
+
+        // Externos: el pool más cualquiera que ya esté contratado aunque no esté en el pool
+        Map<ArtistaExterno, Integer> idPorExterno = new LinkedHashMap<>();
+        for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+            if (!excluidos.contains(externo)) {
+                idPorExterno.putIfAbsent(externo, idPorExterno.size());
+            }
+        }
+        for (ArtistaExterno externo : registro.getExternosConAsignaciones()) {
+            if (!excluidos.contains(externo)) {
+                idPorExterno.putIfAbsent(externo, idPorExterno.size());
+            }
+        }
+
+        int n = idPorExterno.size();
+        ArtistaExterno[] externos = idPorExterno.keySet().toArray(new ArtistaExterno[0]);
+        double[] costo = new double[n];
+        int[] cupo = new int[n];
+        int[] rolesMascara = new int[n];
+        double[] facturadoFijo = new double[n];
+        List<Integer> elegibles = new ArrayList<>();
+
+        for (int e = 0; e < n; e++) {
+            ArtistaExterno externo = externos[e];
+            costo[e] = cache.getCostoFinal(externo);
+            cupo[e] = Math.max(0, externo.getMaxCanciones() - externo.getCancionesAsignadasEnRecital());
+            facturadoFijo[e] = registro.getTotalFacturado(externo);
+            rolesMascara[e] = externo.getRolesMascara();
+            // Sólo cuenta como candidato a estrella si factura o puede llegar a facturar algo
+            boolean puedeFacturar = cupo[e] > 0 || facturadoFijo[e] > 0;
+            if (puedeFacturar
+                    && externo.getTipoRecitalPreferido() != null
+                    && externo.getTipoRecitalPreferido() == recital.getTipoRecital()) {
+                elegibles.add(e);
+            }
+        }
+
+        // Slots y canciones
+        int cantidadSlots = pendientes.size();
+        RolPendiente[] slots = pendientes.toArray(new RolPendiente[0]);
+        int[] slotCancion = new int[cantidadSlots];
+        int[] slotRol = new int[cantidadSlots];
+        int[][] candidatos = new int[cantidadSlots][];
+
+        Map<Cancion, Integer> idPorCancion = new HashMap<>();
+        Map<Integer, List<Integer>> slotsPorCancion = new HashMap<>();
+        for (int i = 0; i < cantidadSlots; i++) {
+            int idCancion = idPorCancion.computeIfAbsent(slots[i].cancion(), c -> idPorCancion.size());
+            slotCancion[i] = idCancion;
+            slotRol[i] = slots[i].rol().getTipoRol().ordinal();
+            slotsPorCancion.computeIfAbsent(idCancion, c -> new ArrayList<>()).add(i);
+        }
+
+        for (int i = 0; i < cantidadSlots; i++) {
+            candidatos[i] = candidatosDelSlot(slots[i], slotRol[i], idPorExterno, rolesMascara, cupo, costo);
+        }
+
+        int[] anteriorEnClase = calcularClasesEquivalencia(recital, externos, costo, cupo, rolesMascara, elegibles);
+        PodaPorDominancia poda = PodaPorDominancia.NINGUNA;
+        if (podarDominados) {
+            int maxRolesPorCancion = idPorCancion.keySet().stream()
+                    .mapToInt(c -> c.getRolesRequeridos().size())
+                    .max()
+                    .orElse(1);
+            boolean[][] dominado = calcularDominados(
+                    slotRol, rolesMascara, cupo, costo, new HashSet<>(elegibles), anteriorEnClase, maxRolesPorCancion);
+            poda = podar(candidatos, slotRol, dominado);
+        }
+
+        int[][] slotsMismaCancion = new int[cantidadSlots][];
+        for (int i = 0; i < cantidadSlots; i++) {
+            final int actual = i;
+            slotsMismaCancion[i] = slotsPorCancion.get(slotCancion[i]).stream()
+                    .mapToInt(Integer::intValue)
+                    .filter(j -> j != actual)
+                    .toArray();
+        }
+
+        return new ModeloPlanificacion(
+                externos,
+                costo,
+                cupo,
+                rolesMascara,
+                facturadoFijo,
+                elegibles.stream().mapToInt(Integer::intValue).toArray(),
+                anteriorEnClase,
+                slots,
+                slotCancion,
+                slotRol,
+                candidatos,
+                slotsMismaCancion,
+                registro.getTotalTrasBandas(),
+                poda
+        );
+    }
+
+    /**
+     * Externos que pueden tocar el rol, tienen cupo y no estaban ya en la canción
+     * antes de empezar, ordenados del más barato al más caro.
+     */
+    private static int[] candidatosDelSlot(RolPendiente slot,
+                                           int rol,
+                                           Map<ArtistaExterno, Integer> idPorExterno,
+                                           int[] rolesMascara,
+                                           int[] cupo,
+                                           double[] costo) {
+        Set<Integer> yaEnLaCancion = new HashSet<>();
+        for (Artista asignado : slot.cancion().getArtistasAsignados()) {
+            if (asignado instanceof ArtistaExterno ext) {
+                yaEnLaCancion.add(idPorExterno.get(ext));
+            }
+        }
+
+        List<Integer> lista = new ArrayList<>();
+        for (int e = 0; e < rolesMascara.length; e++) {
+            if ((rolesMascara[e] & (1 << rol)) == 0) continue;
+            if (cupo[e] == 0) continue;
+            if (yaEnLaCancion.contains(e)) continue;
+            lista.add(e);
+        }
+        lista.sort(Comparator.comparingDouble(e -> costo[e]));
+        return lista.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Poda por dominancia, rol por rol. Los externos que tocan el rol se ordenan del más
+     * barato al más caro (a igual costo, por id): los anteriores a d en ese orden lo dominan,
+     * porque cambiar a d por cualquiera de ellos en un slot del rol no sube el costo, siempre
+     * que d no pueda ser estrella (si el que entra sí puede, el descuento sólo crece).
+     *
+     * Para no perder profundidad, d se descarta sólo si sus dominadores no pueden quedar
+     * todos bloqueados a la vez en una solución que use a d: ocupados en la misma canción
+     * (a lo sumo maxRolesPorCancion - 1, y quizás desde antes sin gastar slots) o con el
+     * cupo agotado, que les exige llenar más slots de los que pueden tocar sin contar el de d.
+     * Así toda solución que use a d se puede pasar, cambio a cambio, a una igual de barata
+     * que no usa a ningún descartado.
+     *
+     * Devuelve, para cada rol (ordinal) y externo, si quedó descartado.
+     */
+    private static boolean[][] calcularDominados(int[] slotRol,
+                                                 int[] rolesMascara,
+                                                 int[] cupo,
+                                                 double[] costo,
+                                                 Set<Integer> elegibles,
+                                                 int[] anteriorEnClase,
+                                                 int maxRolesPorCancion) {
+        int cantidadRoles = RolTipo.values().length;
+        int[] slotsPorRol = new int[cantidadRoles];
+        for (int rol : slotRol) {
+            slotsPorRol[rol]++;
+        }
+        boolean[][] dominado = new boolean[cantidadRoles][rolesMascara.length];
+
+        for (int rol = 0; rol < cantidadRoles; rol++) {
+            if (slotsPorRol[rol] == 0) continue;
+            int bit = 1 << rol;
+            List<Integer> orden = new ArrayList<>();
+            for (int e = 0; e < rolesMascara.length; e++) {
+                if ((rolesMascara[e] & bit) != 0 && cupo[e] > 0) {
+                    orden.add(e);
+                }
+            }
+            // sort es estable: a igual costo queda el orden por id
+            orden.sort(Comparator.comparingDouble(e -> costo[e]));
+
+            // Los maxRolesPorCancion - 1 cupos más grandes se bloquean "gratis" en la canción de d
+            PriorityQueue<Integer> bloqueadosEnLaCancion = new PriorityQueue<>();
+            long sumaCupos = 0;
+            long cuposBloqueadosEnLaCancion = 0;
+            int rolesDominadores = 0;
+
+            for (int e : orden) {
+                long slotsAlcanzables = 0;
+                for (int r = 0; r < cantidadRoles; r++) {
+                    if ((rolesDominadores & (1 << r)) != 0) {
+                        slotsAlcanzables += slotsPorRol[r];
+                    }
+                }
+                // Cupo que tendrían que agotar todos los dominadores vs. slots que les quedan (sin el de d)
+                if (!elegibles.contains(e) && sumaCupos > 0
+                        && sumaCupos - cuposBloqueadosEnLaCancion > slotsAlcanzables - 1) {
+                    dominado[rol][e] = true;
+                }
+
+                sumaCupos += cupo[e];
+                rolesDominadores |= rolesMascara[e];
+                if (maxRolesPorCancion > 1) {
+                    bloqueadosEnLaCancion.add(cupo[e]);
+                    cuposBloqueadosEnLaCancion += cupo[e];
+                    if (bloqueadosEnLaCancion.size() > maxRolesPorCancion - 1) {
+                        cuposBloqueadosEnLaCancion -= bloqueadosEnLaCancion.poll();
+                    }
+                }
+            }
+
+            // Dentro de una clase de equivalencia los descartados tienen que ser un sufijo,
+            // si no la ruptura de simetrías (que estrena primero a los de id menor) perdería soluciones
+            for (int e = rolesMascara.length - 1; e >= 0; e--) {
+                if (!dominado[rol][e] && anteriorEnClase[e] != -1) {
+                    dominado[rol][anteriorEnClase[e]] = false;
+                }
+            }
+        }
+        return dominado;
+    }
+
+    /**
+     * Saca de cada slot a los candidatos dominados para su rol y resume cuánto se achicó el pool.
+     */
+    private static PodaPorDominancia podar(int[][] candidatos, int[] slotRol, boolean[][] dominado) {
+        Set<Integer> antes = new HashSet<>();
+        Set<Integer> despues = new HashSet<>();
+        long totalAntes = 0;
+        long totalDespues = 0;
+        for (int i = 0; i < candidatos.length; i++) {
+            boolean[] dominadoEnRol = dominado[slotRol[i]];
+            totalAntes += candidatos[i].length;
+            for (int e : candidatos[i]) {
+                antes.add(e);
+            }
+            candidatos[i] = Arrays.stream(candidatos[i]).filter(e -> !dominadoEnRol[e]).toArray();
+            totalDespues += candidatos[i].length;
+            for (int e : candidatos[i]) {
+                despues.add(e);
+            }
+        }
+        return new PodaPorDominancia(antes.size(), antes.size() - despues.size(), totalAntes, totalDespues);
+    }
+
+    /**
+     * Dos externos son intercambiables si tocan los mismos roles, cuestan lo mismo
+     * (ya con el descuento por bandas), tienen el mismo cupo, la misma relevancia
+     * como estrella y ninguno tiene asignaciones previas en el recital.
+     */
+    private static int[] calcularClasesEquivalencia(Recital recital,
+                                                    ArtistaExterno[] externos,
+                                                    double[] costo,
+                                                    int[] cupo,
+                                                    int[] rolesMascara,
+                                                    List<Integer> elegibles) {
+        record Clave(int roles, double costo, int cupo, boolean elegible) {}
+
+        Set<ArtistaExterno> conAsignaciones = recital.getRegistroCostos().getExternosConAsignaciones();
+        Set<Integer> elegiblesSet = new HashSet<>(elegibles);
+        Map<Clave, Integer> ultimoDeLaClase = new HashMap<>();
+        int[] anterior = new int[externos.length];
+
+        for (int e = 0; e < externos.length; e++) {
+            anterior[e] = -1;
+            if (externos[e].getCancionesAsignadasEnRecital() > 0 || conAsignaciones.contains(externos[e])) {
+                continue;
+            }
+            Clave clave = new Clave(rolesMascara[e], costo[e], cupo[e], elegiblesSet.contains(e));
+            Integer previo = ultimoDeLaClase.put(clave, e);
+            if (previo != null) {
+                anterior[e] = previo;
+            }
+        }
+        return anterior;
+    }
+
+    private int[] calcularGemelos() {
+        int[] gemelo = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            gemelo[i] = -1;
+            for (int j = i - 1; j >= 0; j--) {
+                if (slotCancion[j] == slotCancion[i] && slotRol[j] == slotRol[i]) {
+                    gemelo[i] = j;
+                    break;
+                }
+            }
+        }
+        return gemelo;
+    }
+
+    /**
+     * Lo máximo que podría facturar un candidato a estrella con el cupo que le queda.
+     */
+    private double calcularTopeEstrella() {
+        double tope = 0.0;
+        for (int e : elegiblesEstrella) {
+            tope = Math.max(tope, facturadoFijo[e] + cupo[e] * costo[e]);
+        }
+        return tope;
+    }
+
+    /**
+     * La cota de cada slot es su candidato más barato (ignorando cupos y repeticiones
+     * por canción), así que nunca sobreestima el costo real y la poda no pierde el óptimo.
+     * Si un slot no tiene candidatos su cota es infinita.
+     */
+    private double[] calcularCostoMinimo() {
+        double[] minimo = new double[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            minimo[i] = candidatos[i].length > 0 ? costo[candidatos[i][0]] : Double.POSITIVE_INFINITY;
+        }
+        return minimo;
+    }
+
+    private int[][] calcularSlotsDelExterno() {
+        List<List<Integer>> porExterno = new ArrayList<>();
+        for (int e = 0; e < externos.length; e++) {
+            porExterno.add(new ArrayList<>());
+        }
+        for (int i = 0; i < slots.length; i++) {
+            for (int e : candidatos[i]) {
+                porExterno.get(e).add(i);
+            }
+        }
+        int[][] resultado = new int[externos.length][];
+        for (int e = 0; e < externos.length; e++) {
+            resultado[e] = porExterno.get(e).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return resultado;
+    }
+
+    private static int[] calcularRepresentantes(int[] anteriorEnClase) {
+        int[] representante = new int[anteriorEnClase.length];
+        for (int e = 0; e < anteriorEnClase.length; e++) {
+            // Los anteriores tienen id menor, así que ya tienen su representante calculado
+            representante[e] = anteriorEnClase[e] == -1 ? e : representante[anteriorEnClase[e]];
+        }
+        return representante;
+    }
+}
@@ -0,0 +1,16 @@
+package com.grupo_rho.service;
+
+/**
+ * Cómo se resuelve la parte de la contratación global que depende de la estrella.
+ */
+public enum ModoPlanificacion {
+    /** Branch and bound en un solo hilo sobre el modelo compilado (ModeloPlanificacion); no toca el recital. */
+    SECUENCIAL,
+    /** Fork/join: cada tarea explora una rama con su propio estado de asignaciones. */
+    PARALELO,
+    /**
+     * Sin árbol de búsqueda: un flujo de costo mínimo por cada posible estrella (y uno sin estrella),
+     * en paralelo, quedándose con el mejor. Exacto y en tiempo polinomial.
+     */
+    POR_ESTRELLA
+}
@@ -0,0 +1,37 @@
+package com.grupo_rho.service;
+
+/**
+ * Configuración de la búsqueda por vecindarios grandes (ver PlanificacionService).
+ *
+ * @param iteraciones             cuántas veces destruir y reparar
+ * @param cancionesPorDestruccion cuántas canciones se liberan en cada iteración
+ * @param semilla                 misma semilla, mismo plan
+ * @param temperaturaInicial      0 para aceptar sólo mejoras; si es mayor, la reparación se hace
+ *                                con costos perturbados y se aceptan empeoramientos al estilo
+ *                                recocido simulado (relativa al costo actual)
+ * @param enfriamiento            factor por el que se multiplica la temperatura en cada iteración
+ * @param nodosPorReparacion      tope de nodos del branch and bound de cada reparación
+ */
+public record ParametrosVecindario(int iteraciones,
+                                   int cancionesPorDestruccion,
+                                   long semilla,
+                                   double temperaturaInicial,
+                                   double enfriamiento,
+                                   long nodosPorReparacion) {
+
+    public ParametrosVecindario {
+        if (iteraciones < 0 || cancionesPorDestruccion < 1 || nodosPorReparacion < 1) {
+            throw new IllegalArgumentException("Parámetros de búsqueda por vecindarios inválidos");
+        }
+        if (temperaturaInicial < 0 || enfriamiento <= 0 || enfriamiento > 1) {
+            throw new IllegalArgumentException("Temperatura y enfriamiento inválidos");
+        }
+    }
+
+    /**
+     * Sólo mejoras, liberando de a tres canciones.
+     */
+    public static ParametrosVecindario porDefecto(long semilla) {
+        return new ParametrosVecindario(500, 3, semilla, 0.0, 1.0, 20_000);
+    }
+}
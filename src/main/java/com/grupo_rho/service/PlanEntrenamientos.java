@@ -0,0 +1,26 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+
+import java.util.List;
+
+/**
+ * Resultado de la contratación con entrenamientos: qué externos se entrenaron
+ * (antes de contratarlos) y el costo total del recital que quedó.
+ *
+ * Qué entrenar se decide con una búsqueda local (ver PlanificadorEntrenamientos): el plan es
+ * un óptimo local, no necesariamente el más barato posible.
+ *
+ * @param optimoDemostrado true sólo si no había a quién entrenar (entonces la contratación,
+ *                         que es exacta, es el óptimo); si no, false aunque pudiera serlo
+ */
+public record PlanEntrenamientos(List<Entrenamiento> entrenamientos, double costo, boolean optimoDemostrado) {
+
+    public PlanEntrenamientos {
+        entrenamientos = List.copyOf(entrenamientos);
+    }
+
+    public record Entrenamiento(ArtistaExterno artista, RolTipo rol) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.grupo_rho.service;
 
-import com.grupo_rho.domain.artista.Artista;
 import com.grupo_rho.domain.artista.ArtistaBase;
 import com.grupo_rho.domain.artista.ArtistaExterno;
 import com.grupo_rho.domain.artista.RolTipo;
@@ -8,9 +7,16 @@ import com.grupo_rho.domain.cancion.Cancion;
 import com.grupo_rho.domain.cancion.RolRequerido;
 import com.grupo_rho.domain.exception.ArtistaNoEntrenableException;
 import com.grupo_rho.domain.exception.NoHayArtistasDisponiblesException;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.domain.recital.CacheCostos;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
 import com.grupo_rho.domain.recital.Recital;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 /**
  * Responsabilidad: decidir cómo asignar artistas externos a canciones
@@ -18,45 +24,16 @@ import java.util.*;
  */
 public class PlanificacionService {
 
+    /** Roles ya cubiertos que la reparación incremental reabre por cada rol libre. */
+    public static final int VECINOS_POR_ROL_LIBRE = 4;
+
     private final Recital recital;
+    private EstadisticasPlanificacion ultimasEstadisticas;
 
     public PlanificacionService(Recital recital) {
         this.recital = Objects.requireNonNull(recital);
     }
 
-    /**
-     * Slot de backtracking: un rol específico de una canción específica
-     * que todavía falta cubrir.
-     */
-    private record RolPendiente(Cancion cancion, RolRequerido rol) {}
-
-    /**
-     * Estructura para guardar la mejor solución encontrada.
-     */
-    private static class MejorSolucion {
-        double costoMinimo = Double.MAX_VALUE;
-        Map<RolRequerido, ArtistaExterno> asignacion = new HashMap<>();
-
-        boolean tieneSolucion() {
-            return costoMinimo < Double.MAX_VALUE;
-        }
-
-        void guardarSiEsMejor(double costo, List<RolPendiente> slots) {
-            if (costo >= costoMinimo) {
-                return;
-            }
-            this.costoMinimo = costo;
-            this.asignacion.clear();
-
-            for (RolPendiente slot : slots) {
-                Artista asignado = slot.rol().getArtistaAsignado();
-                if (asignado instanceof ArtistaExterno ext) {
-                    this.asignacion.put(slot.rol(), ext);
-                }
-            }
-        }
-    }
-
     /**
      * Contrata artistas externos para cubrir todos los roles faltantes de una canción,
      * eligiendo siempre el artista más barato posible para cada rol.
@@ -93,27 +70,535 @@ public class PlanificacionService {
      * buscando la combinación de asignaciones con menor costo.
      */
     public void contratarParaTodoElRecital() {
+        contratarParaTodoElRecital(ModoPlanificacion.POR_ESTRELLA);
+    }
+
+    /**
+     * Igual que contratarParaTodoElRecital(), eligiendo cómo se resuelve la parte que
+     * depende de la estrella. En todos los modos se trabaja sobre un modelo compilado del
+     * recital, que no se modifica hasta aplicar la mejor solución.
+     * Los slots se parten en componentes independientes (ver DescomposicionPlanificacion):
+     * las que no dependen de la estrella se resuelven con flujo de costo mínimo, en paralelo,
+     * y sólo se busca sobre el resto.
+     * Antes de buscar se verifica con un flujo máximo que el pool alcance; si no,
+     * lanza RecitalInfactibleException con los roles que no se pueden cubrir.
+     */
+    public void contratarParaTodoElRecital(ModoPlanificacion modo) {
+        contratarParaTodoElRecital(modo, ControlBusqueda.sinLimite(), progreso -> { });
+    }
+
+    /**
+     * Modo "anytime": igual que contratarParaTodoElRecital(modo), pero la búsqueda respeta
+     * el presupuesto y la cancelación del control, y cada vez que encuentra un plan mejor
+     * lo informa (con su costo y su brecha contra la cota inferior) a {@code alMejorar}.
+     *
+     * Arranca siempre con un plan completo (el flujo de costo mínimo ignorando a la estrella),
+     * así que aunque se corte enseguida se aplica el mejor plan encontrado hasta ese momento.
+     * Devuelve el plan aplicado; optimoDemostrado es false si la búsqueda se cortó antes.
+     */
+    public ProgresoPlanificacion contratarParaTodoElRecital(ModoPlanificacion modo,
+                                                           ControlBusqueda control,
+                                                           Consumer<ProgresoPlanificacion> alMejorar) {
         for (Cancion c : recital.getCanciones()) {
             if (!c.estaCompleta()) {
                 asignarArtistasBase(c);
             }
         }
 
+        ultimasEstadisticas = null;
         List<RolPendiente> slots = obtenerSlotsVacios();
         if (slots.isEmpty()) {
-            return;
+            double costo = recital.getCostoTotalRecital();
+            return new ProgresoPlanificacion(costo, costo, true);
+        }
+
+        control.iniciar();
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, slots);
+        verificarFactibilidad(modelo);
+
+        DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(modelo);
+        int componentes = descomposicion.getCantidadComponentes();
+        int[] aditivas = descomposicion.resolverAditivas(ForkJoinPool.commonPool());
+        SolucionModelo solucion;
+        ProgresoPlanificacion progreso;
+
+        if (!descomposicion.tieneBloqueEstrella()) {
+            // Ninguna componente depende de la estrella: el costo es aditivo y alcanza con los flujos
+            solucion = descomposicion.combinar(aditivas, null);
+            progreso = new ProgresoPlanificacion(solucion.costo(), solucion.costo(), true);
+            alMejorar.accept(progreso);
+            ultimasEstadisticas = new EstadisticasPlanificacion(
+                    "flujo de costo mínimo", 0, 0, 0, modelo.poda, componentes);
+        } else {
+            // Se busca sólo sobre el bloque que depende de la estrella; sus costos ya son los del recital
+            ModeloPlanificacion bloque = descomposicion.bloqueEstrella(aditivas);
+
+            double cota = bloque.cotaInferior(new EstadoBusqueda(bloque));
+            InformeProgreso informe = new InformeProgreso(cota, alMejorar);
+
+            if (modo == ModoPlanificacion.POR_ESTRELLA) {
+                PlanificadorPorEstrella planificador = new PlanificadorPorEstrella(
+                        bloque, ForkJoinPool.commonPool(), control, informe);
+                solucion = planificador.resolver();
+                ultimasEstadisticas = new EstadisticasPlanificacion(
+                        "flujo de costo mínimo por candidato a estrella",
+                        planificador.getCasosResueltos(),
+                        0,
+                        0,
+                        modelo.poda,
+                        componentes);
+            } else {
+                solucion = buscarConBranchAndBound(bloque, modo, control, informe, componentes);
+            }
+            solucion = descomposicion.combinar(aditivas, solucion);
+            progreso = control.fueDetenida()
+                    ? new ProgresoPlanificacion(solucion.costo(), cota, false)
+                    : new ProgresoPlanificacion(solucion.costo(), solucion.costo(), true);
+        }
+
+        aplicarMejorSolucion(modelo.traducir(solucion.asignacion()));
+        return progreso;
+    }
+
+    /**
+     * Contratación óptima sólo para las canciones indicadas, compartiendo los cupos entre
+     * ellas; el resto del recital no se toca (pero cuenta: lo que ya factura cada externo
+     * y quién puede ser estrella). Sirve para replanificar un bloque de canciones sin
+     * resolver todo el recital.
+     *
+     * Se valida una sola vez (flujo máximo) y todo se aplica junto: bases y externos.
+     * Si algo falla se deshace todo lo hecho en esta operación; si el pool no alcanza
+     * lanza RecitalInfactibleException sin tocar nada.
+     */
+    public ProgresoPlanificacion contratarParaCanciones(List<Cancion> canciones) {
+        Set<Cancion> seleccion = new LinkedHashSet<>(canciones);
+        for (Cancion c : seleccion) {
+            if (!recital.getCanciones().contains(c)) {
+                throw new IllegalArgumentException("La canción " + c.getTitulo() + " no es parte del recital");
+            }
+        }
+
+        ultimasEstadisticas = null;
+        List<RolRequerido> asignados = new ArrayList<>();
+        Map<ArtistaExterno, Integer> usosNuevos = new HashMap<>();
+        try {
+            for (Cancion c : seleccion) {
+                asignados.addAll(asignarArtistasBase(c));
+            }
+            List<RolPendiente> slots = obtenerSlotsVacios(seleccion);
+            if (!slots.isEmpty()) {
+                ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, slots);
+                verificarFactibilidad(modelo);
+
+                DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(modelo);
+                int[] aditivas = descomposicion.resolverAditivas(ForkJoinPool.commonPool());
+                SolucionModelo delBloque = null;
+                long casos = 0;
+                if (descomposicion.tieneBloqueEstrella()) {
+                    PlanificadorPorEstrella planificador = new PlanificadorPorEstrella(
+                            descomposicion.bloqueEstrella(aditivas), ForkJoinPool.commonPool(),
+                            ControlBusqueda.sinLimite(), costo -> { });
+                    delBloque = planificador.resolver();
+                    casos = planificador.getCasosResueltos();
+                }
+                SolucionModelo solucion = descomposicion.combinar(aditivas, delBloque);
+
+                for (Map.Entry<RolRequerido, ArtistaExterno> entry
+                        : modelo.traducir(solucion.asignacion()).entrySet()) {
+                    entry.getKey().asignar(entry.getValue());
+                    asignados.add(entry.getKey());
+                    entry.getValue().registrarAsignacionEnCancion();
+                    usosNuevos.merge(entry.getValue(), 1, Integer::sum);
+                }
+                ultimasEstadisticas = new EstadisticasPlanificacion(
+                        "flujo de costo mínimo por lote de canciones", casos, 0, 0,
+                        modelo.poda, descomposicion.getCantidadComponentes());
+            }
+        } catch (RuntimeException e) {
+            deshacerAsignaciones(asignados, usosNuevos);
+            throw e;
+        }
+
+        double costo = recital.getCostoTotalRecital();
+        return new ProgresoPlanificacion(costo, costo, true);
+    }
+
+    /**
+     * Cubre con artistas base lo que se pueda y compila el modelo de los roles que quedan
+     * libres, sin asignar externos (null si no queda ninguno). Si el pool no alcanza
+     * lanza RecitalInfactibleException.
+     */
+    ModeloPlanificacion compilarFaltantes() {
+        for (Cancion c : recital.getCanciones()) {
+            if (!c.estaCompleta()) {
+                asignarArtistasBase(c);
+            }
         }
+        List<RolPendiente> slots = obtenerSlotsVacios();
+        if (slots.isEmpty()) {
+            return null;
+        }
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, slots);
+        verificarFactibilidad(modelo);
+        return modelo;
+    }
 
-        MejorSolucion mejorSolucion = new MejorSolucion();
-        backtracking(0, slots, mejorSolucion);
+    /**
+     * Reparación incremental después de quitar artistas (con quitarArtistaDelRecital), más rápida
+     * que volver a contratar todo el recital: las asignaciones que no se tocaron quedan fijas y
+     * sólo se resuelven, en forma exacta, los roles libres y un vecindario acotado de roles ya
+     * cubiertos (ver elegirVecindario), para que un externo pueda pasarse a un rol libre y otro
+     * ocupar su lugar. Los quitados no vuelven a contratarse. La búsqueda parte de lo que el plan
+     * anterior dejó en pie (ver solucionInicial).
+     *
+     * Como contratarParaCanciones, todo se aplica junto: si algo falla (por ejemplo, el pool no
+     * alcanza y se lanza RecitalInfactibleException) el recital queda como estaba.
+     *
+     * La cota inferior devuelta es la de todo el recital sin los quitados (ver cotaInferiorSinFijos),
+     * no la del vecindario: el plan anterior pudo no ser el óptimo (por ejemplo, si se contrató
+     * canción por canción) y entonces no acota nada.
+     *
+     * @param planAnterior instantánea tomada antes de quitar
+     * @param quitados     externos que no pueden volver a ocupar ningún rol
+     */
+    public ProgresoPlanificacion repararPlan(InstantaneaRecital planAnterior, Set<ArtistaExterno> quitados) {
+        return repararPlan(planAnterior, quitados, VECINOS_POR_ROL_LIBRE);
+    }
 
-        if (!mejorSolucion.tieneSolucion()) {
-            // Tomamos cualquier slot como referencia del problema
-            RolPendiente first = slots.getFirst();
-            throw new NoHayArtistasDisponiblesException(first.cancion(), first.rol().getTipoRol());
+    /**
+     * Igual que repararPlan(planAnterior, quitados), reabriendo hasta {@code vecinosPorRolLibre}
+     * roles cubiertos por cada rol libre (0: sólo se cubren los libres).
+     */
+    public ProgresoPlanificacion repararPlan(InstantaneaRecital planAnterior,
+                                            Set<ArtistaExterno> quitados,
+                                            int vecinosPorRolLibre) {
+        if (planAnterior.getRecital() != recital) {
+            throw new IllegalArgumentException("El plan anterior es de otro recital");
+        }
+        Set<ArtistaExterno> excluidos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ArtistaExterno quitado : quitados) {
+            if (quitado.getCancionesAsignadasEnRecital() > 0) {
+                throw new IllegalArgumentException("El artista " + quitado.getNombre() + " sigue contratado");
+            }
+            excluidos.add(quitado);
         }
 
-        aplicarMejorSolucion(mejorSolucion);
+        ultimasEstadisticas = null;
+        List<RolRequerido> asignados = new ArrayList<>();
+        Map<ArtistaExterno, Integer> usosNuevos = new HashMap<>();
+        Map<RolRequerido, ArtistaExterno> reabiertos = new LinkedHashMap<>();
+        try {
+            for (Cancion c : recital.getCanciones()) {
+                if (!c.estaCompleta()) {
+                    asignados.addAll(asignarArtistasBase(c));
+                }
+            }
+            List<RolPendiente> libres = obtenerSlotsVacios();
+            if (libres.isEmpty()) {
+                double costo = recital.getCostoTotalRecital();
+                return new ProgresoPlanificacion(costo, costo, true);
+            }
+
+            for (RolPendiente vecino : elegirVecindario(libres, vecinosPorRolLibre * libres.size())) {
+                ArtistaExterno externo = (ArtistaExterno) vecino.rol().getArtistaAsignado();
+                vecino.rol().desasignar();
+                externo.cancelarAsignacionEnCancion();
+                reabiertos.put(vecino.rol(), externo);
+            }
+
+            ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, obtenerSlotsVacios(), excluidos);
+            verificarFactibilidad(modelo);
+
+            DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(modelo);
+            int[] aditivas = descomposicion.resolverAditivas(ForkJoinPool.commonPool());
+            SolucionModelo delBloque = null;
+            long casos = 0;
+            if (descomposicion.tieneBloqueEstrella()) {
+                ModeloPlanificacion bloque = descomposicion.bloqueEstrella(aditivas);
+                PlanificadorPorEstrella planificador = new PlanificadorPorEstrella(
+                        bloque, ForkJoinPool.commonPool(), ControlBusqueda.sinLimite(), costo -> { });
+                delBloque = planificador.resolver(solucionInicial(bloque, planAnterior));
+                casos = planificador.getCasosResueltos();
+            }
+            SolucionModelo solucion = descomposicion.combinar(aditivas, delBloque);
+
+            for (Map.Entry<RolRequerido, ArtistaExterno> entry
+                    : modelo.traducir(solucion.asignacion()).entrySet()) {
+                entry.getKey().asignar(entry.getValue());
+                asignados.add(entry.getKey());
+                entry.getValue().registrarAsignacionEnCancion();
+                usosNuevos.merge(entry.getValue(), 1, Integer::sum);
+            }
+            ultimasEstadisticas = new EstadisticasPlanificacion(
+                    "reparación incremental",
+                    casos, 0, 0, modelo.poda, descomposicion.getCantidadComponentes());
+
+            // La búsqueda del vecindario no tiene límite: es óptima si además alcanza la cota global
+            double costo = recital.getCostoTotalRecital();
+            double cota = Math.min(costo, cotaInferiorSinFijos(excluidos));
+            return new ProgresoPlanificacion(costo, cota, costo <= cota + 1e-9);
+        } catch (RuntimeException e) {
+            deshacerAsignaciones(asignados, usosNuevos);
+            for (Map.Entry<RolRequerido, ArtistaExterno> entry : reabiertos.entrySet()) {
+                entry.getKey().asignar(entry.getValue());
+                entry.getValue().registrarAsignacionEnCancion();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cota inferior del recital entero sin los excluidos: compila el modelo con todos los roles
+     * que cubren externos como si estuvieran libres (sin buscar nada) y después los repone.
+     */
+    private double cotaInferiorSinFijos(Set<ArtistaExterno> excluidos) {
+        Map<RolRequerido, ArtistaExterno> fijos = new LinkedHashMap<>();
+        for (Cancion c : recital.getCanciones()) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                if (rol.getArtistaAsignado() instanceof ArtistaExterno externo) {
+                    fijos.put(rol, externo);
+                }
+            }
+        }
+        for (Map.Entry<RolRequerido, ArtistaExterno> entry : fijos.entrySet()) {
+            entry.getKey().desasignar();
+            entry.getValue().cancelarAsignacionEnCancion();
+        }
+        try {
+            ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, obtenerSlotsVacios(), excluidos);
+            return modelo.cotaInferior(new EstadoBusqueda(modelo));
+        } finally {
+            for (Map.Entry<RolRequerido, ArtistaExterno> entry : fijos.entrySet()) {
+                entry.getKey().asignar(entry.getValue());
+                entry.getValue().registrarAsignacionEnCancion();
+            }
+        }
+    }
+
+    /**
+     * Roles cubiertos por externos que vale la pena reabrir junto con los libres: los de un tipo
+     * que también falta (quien cubra uno libre podría tomarlo) o cuyo externo sabe tocar un rol
+     * que falta (podría pasarse al libre). Los más caros primero, hasta el límite.
+     */
+    private List<RolPendiente> elegirVecindario(List<RolPendiente> libres, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        int rolesLibres = 0;
+        for (RolPendiente libre : libres) {
+            rolesLibres |= ModeloPlanificacion.mascara(libre.rol().getTipoRol());
+        }
+
+        List<RolPendiente> vecinos = new ArrayList<>();
+        for (Cancion c : recital.getCanciones()) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                if (rol.getArtistaAsignado() instanceof ArtistaExterno externo
+                        && ((ModeloPlanificacion.mascara(rol.getTipoRol()) | externo.getRolesMascara())
+                        & rolesLibres) != 0) {
+                    vecinos.add(new RolPendiente(c, rol));
+                }
+            }
+        }
+        CacheCostos cache = recital.getCacheCostos();
+        vecinos.sort(Comparator.comparingDouble(
+                (RolPendiente v) -> cache.getCostoFinal((ArtistaExterno) v.rol().getArtistaAsignado())).reversed());
+        return vecinos.subList(0, Math.min(limite, vecinos.size()));
+    }
+
+    /**
+     * Solución de partida: cada slot conserva el externo que tenía en el plan anterior si sigue
+     * siendo candidato y le queda cupo; los demás (los de los quitados) se completan con el
+     * candidato más barato que todavía entre. Null si así no se cubre todo.
+     */
+    private static SolucionModelo solucionInicial(ModeloPlanificacion modelo, InstantaneaRecital planAnterior) {
+        Map<ArtistaExterno, Integer> idPorExterno = new IdentityHashMap<>();
+        for (int e = 0; e < modelo.cantidadExternos(); e++) {
+            idPorExterno.put(modelo.externos[e], e);
+        }
+        int[] asignacion = new int[modelo.cantidadSlots()];
+        int[] usos = new int[modelo.cantidadExternos()];
+        Arrays.fill(asignacion, EstadoBusqueda.SIN_ASIGNAR);
+        for (int slot = 0; slot < asignacion.length; slot++) {
+            Integer id = planAnterior.getArtistaAsignado(modelo.slots[slot].rol()) instanceof ArtistaExterno externo
+                    ? idPorExterno.get(externo)
+                    : null;
+            if (id != null && usos[id] < modelo.cupo[id]
+                    && Arrays.stream(modelo.candidatos[slot]).anyMatch(c -> c == id)) {
+                asignacion[slot] = id;
+                usos[id]++;
+            }
+        }
+        for (int slot = 0; slot < asignacion.length; slot++) {
+            if (asignacion[slot] != EstadoBusqueda.SIN_ASIGNAR) continue;
+            for (int c : modelo.candidatos[slot]) {
+                if (usos[c] < modelo.cupo[c]
+                        && Arrays.stream(modelo.slotsMismaCancion[slot]).noneMatch(otro -> asignacion[otro] == c)) {
+                    asignacion[slot] = c;
+                    usos[c]++;
+                    break;
+                }
+            }
+            if (asignacion[slot] == EstadoBusqueda.SIN_ASIGNAR) {
+                return null;
+            }
+        }
+        return new SolucionModelo(modelo.costoDe(asignacion), asignacion);
+    }
+
+    /**
+     * Branch and bound sobre el bloque que depende de la estrella, arrancando del óptimo
+     * sin contar el descuento (que se calcula en tiempo polinomial).
+     */
+    private SolucionModelo buscarConBranchAndBound(ModeloPlanificacion bloque,
+                                                   ModoPlanificacion modo,
+                                                   ControlBusqueda control,
+                                                   InformeProgreso informe,
+                                                   int componentes) {
+        SolucionModelo inicial = new PlanificadorFlujo(bloque).resolverConCostos(bloque.costo);
+        informe.accept(inicial.costo());
+        SolucionModelo solucion;
+
+        if (modo == ModoPlanificacion.PARALELO) {
+            PlanificadorParalelo planificador = new PlanificadorParalelo(
+                    bloque, ForkJoinPool.commonPool(), control, informe, inicial.costo());
+            solucion = planificador.resolver();
+            ultimasEstadisticas = new EstadisticasPlanificacion(
+                    "branch and bound paralelo",
+                    planificador.getNodosExplorados(),
+                    planificador.getRamasPodadasPorSimetria(),
+                    planificador.getRamasPodadasPorVerificacion(),
+                    bloque.poda,
+                    componentes);
+        } else {
+            DoubleAccumulator mejor = new DoubleAccumulator(Math::min, inicial.costo());
+            BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(bloque, mejor, control, informe);
+            busqueda.buscar(new EstadoBusqueda(bloque));
+            busqueda.informarNodosPendientes();
+            solucion = busqueda.getSolucion();
+            ultimasEstadisticas = new EstadisticasPlanificacion(
+                    "branch and bound",
+                    busqueda.getNodosExplorados(),
+                    busqueda.getRamasPodadasPorSimetria(),
+                    busqueda.getRamasPodadasPorVerificacion(),
+                    bloque.poda,
+                    componentes);
+        }
+
+        if (solucion == null || inicial.costo() <= solucion.costo()) {
+            // La búsqueda no mejoró el plan inicial
+            solucion = inicial;
+        }
+        return solucion;
+    }
+
+    /**
+     * Contratación global aproximada para recitales donde la búsqueda exacta no termina:
+     * búsqueda por vecindarios grandes (ver PlanificadorVecindarioGrande) a partir de la
+     * asignación golosa. Respeta el presupuesto del control, informa cada mejora y aplica
+     * el mejor plan encontrado. Con la misma semilla siempre da el mismo plan.
+     */
+    public ProgresoPlanificacion contratarConVecindariosGrandes(ParametrosVecindario parametros,
+                                                               ControlBusqueda control,
+                                                               Consumer<ProgresoPlanificacion> alMejorar) {
+        for (Cancion c : recital.getCanciones()) {
+            if (!c.estaCompleta()) {
+                asignarArtistasBase(c);
+            }
+        }
+
+        ultimasEstadisticas = null;
+        List<RolPendiente> slots = obtenerSlotsVacios();
+        if (slots.isEmpty()) {
+            double costo = recital.getCostoTotalRecital();
+            return new ProgresoPlanificacion(costo, costo, true);
+        }
+
+        control.iniciar();
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, slots);
+        verificarFactibilidad(modelo);
+
+        double cota = modelo.cotaInferior(new EstadoBusqueda(modelo));
+        SolucionModelo solucion = new PlanificadorVecindarioGrande(modelo, parametros)
+                .resolver(control, new InformeProgreso(cota, alMejorar));
+        ultimasEstadisticas = new EstadisticasPlanificacion(
+                "búsqueda por vecindarios grandes", control.getNodosExplorados(), 0, 0, modelo.poda, 1);
+
+        aplicarMejorSolucion(modelo.traducir(solucion.asignacion()));
+        return new ProgresoPlanificacion(solucion.costo(), Math.min(cota, solucion.costo()), false);
+    }
+
+    /**
+     * Contratación global que además puede entrenar externos sin asignaciones en roles nuevos
+     * (cada entrenamiento les sube el costo un 50%), cuando eso cubre roles que el pool no
+     * alcanza o abarata el recital (ver PlanificadorEntrenamientos).
+     * Entrenamientos y contrataciones se aplican juntos: si algo falla se deshacen todos.
+     * Si ni entrenando se cubren todos los roles lanza RecitalInfactibleException sin tocar nada.
+     */
+    public PlanEntrenamientos contratarConEntrenamientos() {
+        for (Cancion c : recital.getCanciones()) {
+            if (!c.estaCompleta()) {
+                asignarArtistasBase(c);
+            }
+        }
+
+        ultimasEstadisticas = null;
+        List<RolPendiente> slots = obtenerSlotsVacios();
+        if (slots.isEmpty()) {
+            return new PlanEntrenamientos(List.of(), recital.getCostoTotalRecital(), true);
+        }
+
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, slots, false);
+        PlanificadorEntrenamientos planificador = new PlanificadorEntrenamientos(modelo, ForkJoinPool.commonPool());
+        PlanificadorEntrenamientos.Evaluacion plan = planificador.resolver();
+        if (plan.solucion() == null) {
+            verificarFactibilidad(plan.modelo());
+        }
+
+        List<PlanEntrenamientos.Entrenamiento> entrenamientos = new ArrayList<>();
+        for (int e = 0; e < modelo.cantidadExternos(); e++) {
+            for (RolTipo rol : RolTipo.values()) {
+                if ((plan.rolesExtra()[e] & ModeloPlanificacion.mascara(rol)) != 0) {
+                    entrenamientos.add(new PlanEntrenamientos.Entrenamiento(modelo.externos[e], rol));
+                }
+            }
+        }
+
+        List<PlanEntrenamientos.Entrenamiento> entrenados = new ArrayList<>();
+        List<RolRequerido> asignados = new ArrayList<>();
+        Map<ArtistaExterno, Integer> usosNuevos = new HashMap<>();
+        try {
+            // Primero los entrenamientos: después de contratarlo ya no se podría entrenar
+            for (PlanEntrenamientos.Entrenamiento entrenamiento : entrenamientos) {
+                entrenarArtista(entrenamiento.artista(), entrenamiento.rol());
+                entrenados.add(entrenamiento);
+            }
+            for (Map.Entry<RolRequerido, ArtistaExterno> entry
+                    : plan.modelo().traducir(plan.solucion().asignacion()).entrySet()) {
+                entry.getKey().asignar(entry.getValue());
+                asignados.add(entry.getKey());
+                entry.getValue().registrarAsignacionEnCancion();
+                usosNuevos.merge(entry.getValue(), 1, Integer::sum);
+            }
+        } catch (RuntimeException e) {
+            deshacerAsignaciones(asignados, usosNuevos);
+            for (PlanEntrenamientos.Entrenamiento entrenamiento : entrenados.reversed()) {
+                entrenamiento.artista().deshacerEntrenamiento(entrenamiento.rol());
+                recital.registrarEntrenamiento(entrenamiento.artista());
+            }
+            throw e;
+        }
+
+        ultimasEstadisticas = new EstadisticasPlanificacion(
+                "flujo de costo mínimo con entrenamientos", 0, 0, 0, modelo.poda, 1);
+        return new PlanEntrenamientos(entrenamientos, recital.getCostoTotalRecital(), !planificador.hayEntrenables());
+    }
+
+    /**
+     * Estadísticas de la última contratación global, o null si todavía no se hizo ninguna
+     * (o no había nada que contratar).
+     */
+    public EstadisticasPlanificacion getUltimasEstadisticas() {
+        return ultimasEstadisticas;
     }
 
     /**
@@ -134,14 +619,16 @@ public class PlanificacionService {
             );
         }
         artista.entrenar(rol);
+        recital.registrarEntrenamiento(artista);
     }
 
     /**
      * Usa artistas base para cubrir todos los roles posibles de la canción.
-     * No afecta a artistas externos.
+     * No afecta a artistas externos. Devuelve los roles que cubrió.
      */
-    private void asignarArtistasBase(Cancion c) {
+    private List<RolRequerido> asignarArtistasBase(Cancion c) {
         List<RolRequerido> faltantes = new ArrayList<>(c.getRolesFaltantes());
+        List<RolRequerido> cubiertos = new ArrayList<>();
 
         var yaAsignados = new java.util.HashSet<>(c.getArtistasAsignados());
 
@@ -152,33 +639,21 @@ public class PlanificacionService {
 
                 if (base.puedeTocar(rol.getTipoRol())) {
                     c.asignarArtista(rol, base);
+                    cubiertos.add(rol);
 
                     yaAsignados.add(base);
                     break;
                 }
             }
         }
+        return cubiertos;
     }
 
+    /**
+     * Consulta el índice por rol del recital: no recorre el pool.
+     */
     private ArtistaExterno buscarMasBaratoParaRol(RolTipo rol, Cancion cancion) {
-        ArtistaExterno mejor = null;
-        double mejorCosto = Double.MAX_VALUE;
-
-        var yaAsignados = new HashSet<>(cancion.getArtistasAsignados());
-
-        for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
-            if (!externo.puedeTocar(rol)) continue;
-            if (!externo.puedeTomarOtraCancion()) continue;
-            if (yaAsignados.contains(externo)) continue;
-
-            double costo = externo.getCostoFinal(recital.getArtistasBase());
-            if (costo < mejorCosto) {
-                mejorCosto = costo;
-                mejor = externo;
-            }
-        }
-
-        return mejor;
+        return recital.getIndiceCandidatos().buscarMasBarato(rol, cancion);
     }
 
     private void deshacerAsignaciones(List<RolRequerido> rolesAsignados,
@@ -196,50 +671,33 @@ public class PlanificacionService {
     }
 
     /**
-     * Backtracking sobre la lista de slots:
-     *   - En cada slot elegimos un artista externo candidato.
-     *   - Cuando cubrimos todos, medimos el costo total del recital.
-     *   - Si es mejor, guardamos esa configuración.
+     * Informa sólo las mejoras estrictas; las búsquedas paralelas pueden llamarlo desde varios hilos.
      */
-    private void backtracking(int indice, List<RolPendiente> slots, MejorSolucion mejorSolucion) {
-        // Caso base: cubrimos todos los roles pendientes
-        if (indice == slots.size()) {
-            double costoTotal = recital.getCostoTotalRecital();
-            mejorSolucion.guardarSiEsMejor(costoTotal, slots);
-            return;
+    private static final class InformeProgreso implements DoubleConsumer {
+        private final double cotaInferior;
+        private final Consumer<ProgresoPlanificacion> destino;
+        private double ultimoCosto = Double.POSITIVE_INFINITY;
+
+        InformeProgreso(double cotaInferior, Consumer<ProgresoPlanificacion> destino) {
+            this.cotaInferior = cotaInferior;
+            this.destino = destino;
         }
 
-        // Paso recursivo
-        RolPendiente slotActual = slots.get(indice);
-        RolRequerido rol = slotActual.rol();
-        Cancion cancion = slotActual.cancion();
-
-        List<ArtistaExterno> candidatos = obtenerCandidatosValidos(rol.getTipoRol(), cancion);
-
-        // Probar primero los más baratos ayuda a encontrar antes una buena solución
-        candidatos.sort(Comparator.comparingDouble(a -> a.getCostoFinal(recital.getArtistasBase())));
-
-        for (ArtistaExterno artista : candidatos) {
-            // asignamos artista a ese rol
-            rol.asignar(artista);
-            artista.registrarAsignacionEnCancion();
-
-            // siguiente slot
-            backtracking(indice + 1, slots, mejorSolucion);
-
-            // deshacemos para seguir probando otras combinaciones
-            artista.cancelarAsignacionEnCancion();
-            rol.desasignar();
+        @Override
+        public synchronized void accept(double costo) {
+            if (costo < ultimoCosto) {
+                ultimoCosto = costo;
+                destino.accept(new ProgresoPlanificacion(costo, Math.min(cotaInferior, costo), false));
+            }
         }
-        // Si ningún candidato sirve, esta rama simplemente no llega al caso base.
     }
 
     /**
      * Aplica la mejor solución encontrada (mapa de RolRequerido -> ArtistaExterno)
      * al estado real del recital.
      */
-    private void aplicarMejorSolucion(MejorSolucion solucion) {
-        for (Map.Entry<RolRequerido, ArtistaExterno> entry : solucion.asignacion.entrySet()) {
+    private void aplicarMejorSolucion(Map<RolRequerido, ArtistaExterno> asignacion) {
+        for (Map.Entry<RolRequerido, ArtistaExterno> entry : asignacion.entrySet()) {
             RolRequerido rol = entry.getKey();
             ArtistaExterno artista = entry.getValue();
 
@@ -249,34 +707,42 @@ public class PlanificacionService {
     }
 
     /**
-     * Construye la lista de (Cancion, RolRequerido) que todavía no están cubiertos
-     * luego de haber usado artistas base.
+     * Falla en tiempo polinomial si ninguna asignación puede cubrir todos los slots,
+     * informando el conjunto de roles y canciones que forman el cuello de botella.
      */
-    private List<RolPendiente> obtenerSlotsVacios() {
-        List<RolPendiente> slots = new ArrayList<>();
-        for (Cancion c : recital.getCanciones()) {
-            for (RolRequerido rol : c.getRolesFaltantes()) {
-                slots.add(new RolPendiente(c, rol));
+    private void verificarFactibilidad(ModeloPlanificacion modelo) {
+        PlanificadorFlujo.Deficit deficit = new PlanificadorFlujo(modelo).verificarCobertura();
+        if (deficit == null) {
+            return;
+        }
+
+        Map<RolTipo, List<Cancion>> rolesDeficientes = new LinkedHashMap<>();
+        for (int slot : deficit.slots()) {
+            RolPendiente pendiente = modelo.slots[slot];
+            List<Cancion> canciones = rolesDeficientes.computeIfAbsent(
+                    pendiente.rol().getTipoRol(), r -> new ArrayList<>());
+            if (!canciones.contains(pendiente.cancion())) {
+                canciones.add(pendiente.cancion());
             }
         }
-        return slots;
+        throw new RecitalInfactibleException(rolesDeficientes, deficit.sinCubrir());
     }
 
     /**
-     * Artistas externos que pueden tocar el rol, tienen cupo,
-     * y no están ya en esa canción (regla: un rol por canción por artista).
+     * Construye la lista de (Cancion, RolRequerido) que todavía no están cubiertos
+     * luego de haber usado artistas base.
      */
-    private List<ArtistaExterno> obtenerCandidatosValidos(RolTipo rol, Cancion cancion) {
-        List<ArtistaExterno> lista = new ArrayList<>();
-        List<Artista> yaAsignados = cancion.getArtistasAsignados();
-
-        for (ArtistaExterno a : recital.getArtistasExternosPool()) {
-            if (!a.puedeTocar(rol)) continue;
-            if (!a.puedeTomarOtraCancion()) continue;
-            if (yaAsignados.contains(a)) continue; // no puede tener otro rol en la misma canción
+    private List<RolPendiente> obtenerSlotsVacios() {
+        return obtenerSlotsVacios(recital.getCanciones());
+    }
 
-            lista.add(a);
+    private List<RolPendiente> obtenerSlotsVacios(Collection<Cancion> canciones) {
+        List<RolPendiente> slots = new ArrayList<>();
+        for (Cancion c : canciones) {
+            for (RolRequerido rol : c.rolesFaltantes()) {
+                slots.add(new RolPendiente(c, rol));
+            }
         }
-        return lista;
+        return slots;
     }
 }
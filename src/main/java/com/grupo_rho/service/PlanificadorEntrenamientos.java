@@ -0,0 +1,211 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decide a la vez qué externos entrenar y a quién contratar.
+ *
+ * Es una heurística: el resultado es un óptimo local (ningún entrenamiento más, de los que se
+ * prueban, lo mejora), no necesariamente el plan más barato. Nunca cuesta más que no entrenar.
+ *
+ * Cada conjunto de entrenamientos da otro modelo (ver ModeloPlanificacion#conEntrenamientos)
+ * cuya contratación óptima se calcula en forma exacta y polinomial: descomposición en
+ * componentes más un flujo por candidato a estrella. Sobre eso se hace una búsqueda local:
+ * en cada ronda se prueban los entrenamientos que pueden servir y se aplica el que más
+ * mejora (primero cubrir más roles, después costar menos), hasta que ninguno mejore.
+ *
+ * Sólo se entrena a externos sin asignaciones. Para que escale a cientos de externos:
+ *  - en cada rol se prueban sólo los pocos más baratos ya entrenados, y sólo si quedarían
+ *    más baratos que el más caro que hoy cubre ese rol;
+ *  - cada uno se filtra con un único flujo (en paralelo) y sólo los mejores se evalúan exacto;
+ *  - cada modelo entrenado se vuelve a podar por dominancia.
+ */
+final class PlanificadorEntrenamientos {
+
+    /** Aspirantes por rol que se prueban en cada ronda (los más baratos ya entrenados). */
+    private static final int ASPIRANTES_POR_ROL = 3;
+    /** De los que pasan el filtro rápido, cuántos se evalúan en forma exacta por ronda. */
+    private static final int EVALUACIONES_EXACTAS_POR_RONDA = 2;
+
+    private final ModeloPlanificacion modelo;
+    private final ForkJoinPool pool;
+    private final int[] slotsPorRol = new int[RolTipo.values().length];
+    private final boolean[] entrenable;
+
+    /**
+     * @param modelo sin poda por dominancia: entrenar cambia quién domina a quién
+     */
+    PlanificadorEntrenamientos(ModeloPlanificacion modelo, ForkJoinPool pool) {
+        this.modelo = modelo;
+        this.pool = pool;
+        for (int rol : modelo.slotRol) {
+            slotsPorRol[rol]++;
+        }
+        this.entrenable = new boolean[modelo.cantidadExternos()];
+        for (int e = 0; e < entrenable.length; e++) {
+            ArtistaExterno externo = modelo.externos[e];
+            entrenable[e] = modelo.cupo[e] > 0
+                    && modelo.facturadoFijo[e] == 0
+                    && externo.getCancionesAsignadasEnRecital() == 0;
+        }
+    }
+
+    /**
+     * False si no hay ningún externo que se pueda entrenar: entonces resolver() es exacto.
+     */
+    boolean hayEntrenables() {
+        for (boolean e : entrenable) {
+            if (e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Un conjunto de entrenamientos (máscara de roles extra por externo) y su mejor contratación.
+     * Si ni así se cubren todos los slots, solucion es null y deficit dice cuántos faltan.
+     */
+    record Evaluacion(int[] rolesExtra,
+                      ModeloPlanificacion modelo,
+                      PlanificadorFlujo.Deficit deficit,
+                      SolucionModelo solucion) {
+
+        int sinCubrir() {
+            return deficit == null ? 0 : deficit.sinCubrir();
+        }
+
+        double costo() {
+            return solucion == null ? Double.POSITIVE_INFINITY : solucion.costo();
+        }
+
+        boolean esMejorQue(Evaluacion otra) {
+            if (sinCubrir() != otra.sinCubrir()) {
+                return sinCubrir() < otra.sinCubrir();
+            }
+            return costo() < otra.costo() - 1e-9;
+        }
+    }
+
+    Evaluacion resolver() {
+        Evaluacion actual = evaluarExacto(new int[modelo.cantidadExternos()]);
+        while (true) {
+            Evaluacion base = actual;
+            List<int[]> entrenamientos = entrenamientosPrometedores(base);
+
+            // Filtro barato: un solo flujo por entrenamiento, ignorando a la estrella al elegir
+            List<Evaluacion> preseleccion = pool.submit(() -> entrenamientos.parallelStream()
+                    .map(e -> evaluarRapido(conEntrenamiento(base.rolesExtra(), e[0], e[1]), base))
+                    .sorted(PlanificadorEntrenamientos::comparar)
+                    .limit(EVALUACIONES_EXACTAS_POR_RONDA)
+                    .toList()).join();
+
+            Evaluacion mejor = null;
+            for (Evaluacion candidata : preseleccion) {
+                Evaluacion exacta = evaluarExacto(candidata.rolesExtra());
+                if (exacta.esMejorQue(base) && (mejor == null || exacta.esMejorQue(mejor))) {
+                    mejor = exacta;
+                }
+            }
+            if (mejor == null) {
+                return actual;
+            }
+            actual = mejor;
+        }
+    }
+
+    private static int comparar(Evaluacion a, Evaluacion b) {
+        return a.esMejorQue(b) ? -1 : (b.esMejorQue(a) ? 1 : 0);
+    }
+
+    /**
+     * Entrenamientos (externo, rol) que vale la pena evaluar a partir de la evaluación dada.
+     */
+    private List<int[]> entrenamientosPrometedores(Evaluacion actual) {
+        double[] techo = new double[slotsPorRol.length];
+        if (actual.solucion() == null) {
+            // Falta cubrir: sirve cualquier entrenamiento en los roles del cuello de botella
+            for (int slot : actual.deficit().slots()) {
+                techo[modelo.slotRol[slot]] = Double.POSITIVE_INFINITY;
+            }
+        } else {
+            int[] asignacion = actual.solucion().asignacion();
+            for (int slot = 0; slot < asignacion.length; slot++) {
+                int rol = modelo.slotRol[slot];
+                techo[rol] = Math.max(techo[rol], actual.modelo().costo[asignacion[slot]]);
+            }
+        }
+
+        List<int[]> resultado = new ArrayList<>();
+        for (int rol = 0; rol < slotsPorRol.length; rol++) {
+            if (slotsPorRol[rol] == 0 || techo[rol] == 0) continue;
+            int bit = 1 << rol;
+            List<Integer> aspirantes = new ArrayList<>();
+            for (int e = 0; e < entrenable.length; e++) {
+                boolean yaLoToca = ((modelo.rolesMascara[e] | actual.rolesExtra()[e]) & bit) != 0;
+                if (entrenable[e] && !yaLoToca && costoEntrenado(actual, e) < techo[rol]) {
+                    aspirantes.add(e);
+                }
+            }
+            aspirantes.sort(Comparator.comparingDouble(e -> costoEntrenado(actual, e)));
+            int cantidad = Math.min(Math.min(slotsPorRol[rol], ASPIRANTES_POR_ROL), aspirantes.size());
+            for (int e : aspirantes.subList(0, cantidad)) {
+                resultado.add(new int[]{e, rol});
+            }
+        }
+        return resultado;
+    }
+
+    private static double costoEntrenado(Evaluacion actual, int externo) {
+        return actual.modelo().costo[externo] * ArtistaExterno.FACTOR_AUMENTO_ENTRENAMIENTO;
+    }
+
+    private static int[] conEntrenamiento(int[] rolesExtra, int externo, int rol) {
+        int[] nuevo = rolesExtra.clone();
+        nuevo[externo] |= 1 << rol;
+        return nuevo;
+    }
+
+    /**
+     * Cota superior rápida: el costo real del óptimo sin contar a la estrella. Mientras
+     * falten roles por cubrir, cuenta cuántos quedan afuera.
+     */
+    private Evaluacion evaluarRapido(int[] rolesExtra, Evaluacion actual) {
+        ModeloPlanificacion entrenado = modelo.conEntrenamientos(rolesExtra);
+        PlanificadorFlujo flujo = new PlanificadorFlujo(entrenado);
+        if (actual.solucion() == null) {
+            PlanificadorFlujo.Deficit deficit = flujo.verificarCobertura();
+            if (deficit != null) {
+                return new Evaluacion(rolesExtra, entrenado, deficit, null);
+            }
+        }
+        return new Evaluacion(rolesExtra, entrenado, null, flujo.resolverConCostos(entrenado.costo));
+    }
+
+    /**
+     * Óptimo exacto de la contratación con esos entrenamientos.
+     */
+    private Evaluacion evaluarExacto(int[] rolesExtra) {
+        ModeloPlanificacion entrenado = modelo.conEntrenamientos(rolesExtra);
+        PlanificadorFlujo.Deficit deficit = new PlanificadorFlujo(entrenado).verificarCobertura();
+        if (deficit != null) {
+            return new Evaluacion(rolesExtra, entrenado, deficit, null);
+        }
+
+        DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(entrenado);
+        int[] aditivas = descomposicion.resolverAditivas(pool);
+        SolucionModelo delBloque = null;
+        if (descomposicion.tieneBloqueEstrella()) {
+            delBloque = new PlanificadorPorEstrella(
+                    descomposicion.bloqueEstrella(aditivas), pool, ControlBusqueda.sinLimite(), costo -> { })
+                    .resolver();
+        }
+        return new Evaluacion(rolesExtra, entrenado, null, descomposicion.combinar(aditivas, delBloque));
+    }
+}
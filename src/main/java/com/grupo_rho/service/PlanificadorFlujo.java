@@ -0,0 +1,195 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.recital.Recital;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Resuelve la contratación global como un flujo de costo mínimo, en tiempo polinomial.
+ *
+ * Si nadie puede ser artista estrella el costo es la suma de lo que factura cada
+ * asignación, y el problema es exactamente este flujo:
+ *
+ *   fuente -> externo           (capacidad = cupo restante, costo = costo unitario)
+ *   externo -> (externo, canción) (capacidad 1: un solo rol por canción)
+ *   (externo, canción) -> slot  (si puede tocar el rol del slot)
+ *   slot -> sumidero            (capacidad 1)
+ *
+ * Con candidatos a estrella sirve como subrutina: fijando quién es la estrella, su
+ * costo unitario baja un 25% y el resto del problema vuelve a ser aditivo.
+ */
+final class PlanificadorFlujo {
+
+    private final ModeloPlanificacion modelo;
+
+    PlanificadorFlujo(ModeloPlanificacion modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Solución óptima cuando el modelo no tiene candidatos a estrella.
+     * Devuelve null si no se pueden cubrir todos los slots.
+     */
+    SolucionModelo resolverSinEstrella() {
+        if (modelo.elegiblesEstrella.length > 0) {
+            throw new IllegalStateException("El modelo tiene candidatos a estrella: el costo no es aditivo");
+        }
+        return resolverConCostos(modelo.costo);
+    }
+
+    /**
+     * Mejor solución suponiendo que {@code estrella} es quien recibe el descuento.
+     * El costo devuelto es el real de esa asignación (que nunca es mayor al supuesto).
+     */
+    SolucionModelo resolverConEstrellaFija(int estrella) {
+        double[] costos = modelo.costo.clone();
+        costos[estrella] = costos[estrella] * (1 - Recital.FACTOR_DESCUENTO_ESTRELLA);
+        return resolverConCostos(costos);
+    }
+
+    /**
+     * Flujo de costo mínimo con el costo unitario indicado para cada externo.
+     */
+    SolucionModelo resolverConCostos(double[] costoPorExterno) {
+        Red red = armarRed(costoPorExterno);
+        int cantidadSlots = modelo.cantidadSlots();
+
+        if (red.flujo().resolver(red.fuente(), red.sumidero(), cantidadSlots) < cantidadSlots) {
+            return null;
+        }
+
+        EstadoBusqueda estado = new EstadoBusqueda(modelo);
+        for (int[] arista : red.aristasAsignacion()) {
+            if (red.flujo().flujo(arista[0]) > 0) {
+                estado.asignar(modelo, arista[1], arista[2]);
+            }
+        }
+        double costo = modelo.costoFinal(estado.costoParcial, estado.usos);
+        return new SolucionModelo(costo, estado.asignacion);
+    }
+
+    /**
+     * Slots que no se pueden cubrir todos a la vez, y cuántos quedan afuera como mínimo.
+     */
+    record Deficit(int sinCubrir, int[] slots) {
+    }
+
+    /**
+     * Verificación de factibilidad: flujo máximo sin mirar costos, con los cupos y la regla
+     * de un rol por canción. Devuelve null si se pueden cubrir todos los slots; si no, el
+     * cuello de botella: los slots del lado del sumidero del corte mínimo, que compiten
+     * por externos que no alcanzan para todos.
+     */
+    Deficit verificarCobertura() {
+        Red red = armarRed(new double[modelo.cantidadExternos()]);
+        int cantidadSlots = modelo.cantidadSlots();
+
+        int cubiertos = red.flujo().resolver(red.fuente(), red.sumidero(), cantidadSlots);
+        if (cubiertos == cantidadSlots) {
+            return null;
+        }
+        boolean[] llegan = red.flujo().puedenLlegarA(red.sumidero());
+        int[] slots = IntStream.range(0, cantidadSlots)
+                .filter(i -> llegan[red.primerSlot() + i])
+                .toArray();
+        return new Deficit(cantidadSlots - cubiertos, slots);
+    }
+
+    /**
+     * Red armada para el modelo; aristasAsignacion guarda, para cada arista par -> slot,
+     * su índice, el externo y el slot.
+     */
+    private record Red(FlujoCostoMinimo flujo, int fuente, int sumidero, int primerSlot,
+                       List<int[]> aristasAsignacion) {
+    }
+
+    private Red armarRed(double[] costoPorExterno) {
+        int cantidadSlots = modelo.cantidadSlots();
+        int cantidadExternos = modelo.cantidadExternos();
+
+        // Slots agrupados por canción
+        List<List<Integer>> slotsPorCancion = new ArrayList<>();
+        for (int i = 0; i < cantidadSlots; i++) {
+            int cancion = modelo.slotCancion[i];
+            while (slotsPorCancion.size() <= cancion) {
+                slotsPorCancion.add(new ArrayList<>());
+            }
+            slotsPorCancion.get(cancion).add(i);
+        }
+
+        // Nodos: fuente, sumidero, externos, slots y después los pares (externo, canción).
+        // El par sólo hace falta si el externo es candidato de más de un slot de la canción;
+        // si no, la arista va directo del externo al slot.
+        int fuente = 0;
+        int sumidero = 1;
+        int primerExterno = 2;
+        int primerSlot = primerExterno + cantidadExternos;
+        int[] slotsEnLaCancion = new int[cantidadExternos];
+        int cantidadPares = 0;
+        for (List<Integer> slots : slotsPorCancion) {
+            contarSlots(slots, slotsEnLaCancion, 1);
+            for (int e : externosDeLaCancion(slots)) {
+                if (slotsEnLaCancion[e] > 1) {
+                    cantidadPares++;
+                }
+            }
+            contarSlots(slots, slotsEnLaCancion, -1);
+        }
+        FlujoCostoMinimo red = new FlujoCostoMinimo(primerSlot + cantidadSlots + cantidadPares);
+
+        for (int e = 0; e < cantidadExternos; e++) {
+            if (modelo.cupo[e] > 0) {
+                red.agregarArista(fuente, primerExterno + e, modelo.cupo[e], costoPorExterno[e]);
+            }
+        }
+        for (int i = 0; i < cantidadSlots; i++) {
+            red.agregarArista(primerSlot + i, sumidero, 1, 0.0);
+        }
+
+        List<int[]> aristasAsignacion = new ArrayList<>();
+        int[] nodoPar = new int[cantidadExternos];
+        int siguienteNodo = primerSlot + cantidadSlots;
+
+        for (List<Integer> slots : slotsPorCancion) {
+            contarSlots(slots, slotsEnLaCancion, 1);
+            int[] externos = externosDeLaCancion(slots);
+            for (int e : externos) {
+                if (slotsEnLaCancion[e] > 1) {
+                    nodoPar[e] = siguienteNodo++;
+                    red.agregarArista(primerExterno + e, nodoPar[e], 1, 0.0);
+                } else {
+                    nodoPar[e] = primerExterno + e;
+                }
+            }
+            for (int slot : slots) {
+                for (int e : modelo.candidatos[slot]) {
+                    int arista = red.agregarArista(nodoPar[e], primerSlot + slot, 1, 0.0);
+                    aristasAsignacion.add(new int[]{arista, e, slot});
+                }
+            }
+            contarSlots(slots, slotsEnLaCancion, -1);
+        }
+        return new Red(red, fuente, sumidero, primerSlot, aristasAsignacion);
+    }
+
+    private void contarSlots(List<Integer> slots, int[] slotsEnLaCancion, int delta) {
+        for (int slot : slots) {
+            for (int e : modelo.candidatos[slot]) {
+                slotsEnLaCancion[e] += delta;
+            }
+        }
+    }
+
+    /**
+     * Externos distintos que son candidatos de al menos un slot de la canción.
+     */
+    private int[] externosDeLaCancion(List<Integer> slots) {
+        return slots.stream()
+                .flatMapToInt(slot -> Arrays.stream(modelo.candidatos[slot]))
+                .distinct()
+                .toArray();
+    }
+}
@@ -0,0 +1,163 @@
+package com.grupo_rho.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Versión paralela del branch and bound de la contratación global.
+ *
+ * Los primeros niveles del árbol (contados en slots asignados) se reparten en tareas de un ForkJoinPool; por debajo
+ * de ese nivel cada tarea sigue en forma secuencial. Ninguna tarea toca el recital:
+ * cada una trabaja sobre su propia copia de las asignaciones y sólo se comparte,
+ * a través de un acumulador atómico, el mejor costo conocido para que todas poden contra él.
+ */
+class PlanificadorParalelo {
+
+    /** Cantidad de ramas por hilo que buscamos generar antes de pasar a modo secuencial. */
+    private static final int RAMAS_POR_HILO = 8;
+
+    private final ModeloPlanificacion modelo;
+    private final ForkJoinPool pool;
+    private final ControlBusqueda control;
+    private final DoubleConsumer alMejorar;
+    private final int profundidadDivision;
+    private final DoubleAccumulator mejorCosto =
+            new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final LongAdder nodosExplorados = new LongAdder();
+    private final LongAdder ramasPodadasPorSimetria = new LongAdder();
+    private final LongAdder ramasPodadasPorVerificacion = new LongAdder();
+
+    PlanificadorParalelo(ModeloPlanificacion modelo, ForkJoinPool pool) {
+        this(modelo, pool, ControlBusqueda.sinLimite(), costo -> { }, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param costoInicial costo de una solución ya conocida: sólo se buscan mejores que ella
+     */
+    PlanificadorParalelo(ModeloPlanificacion modelo,
+                         ForkJoinPool pool,
+                         ControlBusqueda control,
+                         DoubleConsumer alMejorar,
+                         double costoInicial) {
+        this.modelo = modelo;
+        this.pool = pool;
+        this.control = control;
+        this.alMejorar = alMejorar;
+        this.mejorCosto.accumulate(costoInicial);
+        this.profundidadDivision = calcularProfundidadDivision();
+    }
+
+    /**
+     * Busca la asignación de menor costo. Devuelve null si no hay solución
+     * (o ninguna mejor que el costo inicial).
+     */
+    SolucionModelo resolver() {
+        return pool.invoke(new TareaBusqueda(new EstadoBusqueda(modelo)));
+    }
+
+    long getNodosExplorados() {
+        return nodosExplorados.sum();
+    }
+
+    long getRamasPodadasPorSimetria() {
+        return ramasPodadasPorSimetria.sum();
+    }
+
+    long getRamasPodadasPorVerificacion() {
+        return ramasPodadasPorVerificacion.sum();
+    }
+
+    private final class TareaBusqueda extends RecursiveTask<SolucionModelo> {
+        private final EstadoBusqueda estado;
+
+        TareaBusqueda(EstadoBusqueda estado) {
+            this.estado = estado;
+        }
+
+        @Override
+        protected SolucionModelo compute() {
+            if (estado.slotsAsignados >= profundidadDivision) {
+                BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(modelo, mejorCosto, control, alMejorar);
+                busqueda.buscar(estado);
+                busqueda.informarNodosPendientes();
+                nodosExplorados.add(busqueda.getNodosExplorados());
+                ramasPodadasPorSimetria.add(busqueda.getRamasPodadasPorSimetria());
+                ramasPodadasPorVerificacion.add(busqueda.getRamasPodadasPorVerificacion());
+                return busqueda.getSolucion();
+            }
+            nodosExplorados.increment();
+            if (!control.registrarNodos(1) || modelo.cotaInferior(estado) >= mejorCosto.get()) {
+                return null;
+            }
+            // Con profundidadDivision <= cantidad de slots, acá siempre queda alguno abierto
+            int slot = estado.elegirSlot(modelo);
+            if (slot == EstadoBusqueda.SIN_SALIDA) {
+                return null;
+            }
+
+            List<TareaBusqueda> subtareas = new ArrayList<>();
+            for (int externo : modelo.candidatos[slot]) {
+                if (modelo.cotaInferior(estado, externo, slot) >= mejorCosto.get()) break;
+                if (!estado.puedeOcupar(modelo, externo, slot)) continue;
+                if (!modelo.esCanonica(estado, externo, slot)) {
+                    ramasPodadasPorSimetria.increment();
+                    continue;
+                }
+
+                EstadoBusqueda copia = new EstadoBusqueda(estado);
+                copia.asignar(modelo, externo, slot);
+                if (!copia.sigueSiendoViable(modelo, externo, slot)) {
+                    ramasPodadasPorVerificacion.increment();
+                    continue;
+                }
+                subtareas.add(new TareaBusqueda(copia));
+            }
+
+            SolucionModelo mejor = null;
+            for (TareaBusqueda subtarea : invokeAll(subtareas)) {
+                SolucionModelo s = subtarea.join();
+                if (s != null && (mejor == null || s.costo() < mejor.costo())) {
+                    mejor = s;
+                }
+            }
+            return mejor;
+        }
+    }
+
+    /**
+     * Cuántos niveles repartir en tareas: los suficientes para tener varias ramas
+     * por hilo del pool, sin fragmentar de más el árbol.
+     *
+     * Como el orden de los slots es dinámico, se recorre una rama (la del candidato más
+     * barato, que es la que la búsqueda abre primero) eligiendo en cada nivel el mismo slot
+     * que elegirSlot y multiplicando sus candidatos válidos en ese punto.
+     */
+    private int calcularProfundidadDivision() {
+        long objetivo = (long) pool.getParallelism() * RAMAS_POR_HILO;
+        long ramas = 1;
+        int profundidad = 0;
+        EstadoBusqueda estado = new EstadoBusqueda(modelo);
+        while (ramas < objetivo) {
+            int slot = estado.elegirSlot(modelo);
+            if (slot < 0) {
+                break;
+            }
+            ramas *= Math.max(1, estado.candidatosValidos(modelo, slot));
+            profundidad++;
+            int primero = -1;
+            for (int externo : modelo.candidatos[slot]) {
+                if (estado.puedeOcupar(modelo, externo, slot)) {
+                    primero = externo;
+                    break;
+                }
+            }
+            estado.asignar(modelo, primero, slot);
+        }
+        return profundidad;
+    }
+}
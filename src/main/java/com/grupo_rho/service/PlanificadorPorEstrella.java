@@ -0,0 +1,133 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.recital.Recital;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Resuelve la contratación global en forma exacta enumerando quién es la estrella.
+ *
+ * El descuento de la estrella es lo único no aditivo del costo. Fijando un candidato e
+ * como estrella, el costo "suponiendo que e es la estrella" (descontar el 25% de lo que
+ * factura e) nunca es menor que el real, y coincide con él cuando e es quien más factura.
+ * Así, el óptimo es el mínimo, sobre cada candidato (y sobre "sin estrella"), del flujo de
+ * costo mínimo con los costos de e rebajados: no hace falta obligar a los demás a facturar
+ * menos. Los casos se resuelven en paralelo y se saltea el que no puede mejorar al mejor conocido.
+ */
+final class PlanificadorPorEstrella {
+
+    private final ModeloPlanificacion modelo;
+    private final ForkJoinPool pool;
+    private final ControlBusqueda control;
+    private final DoubleConsumer alMejorar;
+    private final LongAdder casosResueltos = new LongAdder();
+    private final LongAdder casosDescartados = new LongAdder();
+
+    PlanificadorPorEstrella(ModeloPlanificacion modelo,
+                            ForkJoinPool pool,
+                            ControlBusqueda control,
+                            DoubleConsumer alMejorar) {
+        this.modelo = modelo;
+        this.pool = pool;
+        this.control = control;
+        this.alMejorar = alMejorar;
+    }
+
+    /**
+     * El caso "sin estrella" se resuelve siempre (da un plan completo aunque el control
+     * corte enseguida); los demás, mientras el control lo permita.
+     * Devuelve null sólo si el modelo no tiene solución.
+     */
+    SolucionModelo resolver() {
+        return resolver(null);
+    }
+
+    /**
+     * Igual que resolver(), partiendo de una solución ya conocida del mismo modelo (por ejemplo,
+     * la de un problema parecido ya resuelto, recortada): los casos que no pueden mejorarla
+     * ni se resuelven. Si ninguno la mejora, devuelve esa misma.
+     */
+    SolucionModelo resolver(SolucionModelo conocida) {
+        PlanificadorFlujo flujo = new PlanificadorFlujo(modelo);
+        SolucionModelo sinEstrella = flujo.resolverConCostos(modelo.costo);
+        casosResueltos.increment();
+        if (sinEstrella == null) {
+            return null;
+        }
+        alMejorar.accept(sinEstrella.costo());
+
+        // Lo mínimo que suma cualquier plan, sin descuento: la base de la cota de cada caso
+        double sumaMinima = modelo.costoFijo;
+        for (int e : sinEstrella.asignacion()) {
+            sumaMinima += modelo.costo[e];
+        }
+
+        SolucionModelo mejor = sinEstrella;
+        if (conocida != null && conocida.costo() < mejor.costo()) {
+            mejor = conocida;
+        }
+        DoubleAccumulator mejorCosto = new DoubleAccumulator(Math::min, mejor.costo());
+        List<Integer> estrellas = new ArrayList<>();
+        for (int e : modelo.elegiblesEstrella) {
+            if (modelo.slotsDelExterno[e].length > 0) {
+                estrellas.add(e);
+            }
+        }
+        // Primero los que más descuento pueden dar
+        double base = sumaMinima;
+        estrellas.sort(Comparator.comparingDouble(e -> cotaCaso(base, e)));
+
+        List<Callable<SolucionModelo>> casos = new ArrayList<>();
+        for (int estrella : estrellas) {
+            casos.add(() -> {
+                if (cotaCaso(base, estrella) >= mejorCosto.get()) {
+                    casosDescartados.increment();
+                    return null;
+                }
+                if (!control.registrarNodos(1)) {
+                    return null;
+                }
+                SolucionModelo solucion = flujo.resolverConEstrellaFija(estrella);
+                casosResueltos.increment();
+                if (solucion.costo() < mejorCosto.get()) {
+                    mejorCosto.accumulate(solucion.costo());
+                    alMejorar.accept(solucion.costo());
+                }
+                return solucion;
+            });
+        }
+
+        for (Future<SolucionModelo> caso : pool.invokeAll(casos)) {
+            SolucionModelo solucion = caso.resultNow();
+            if (solucion != null && solucion.costo() < mejor.costo()) {
+                mejor = solucion;
+            }
+        }
+        return mejor;
+    }
+
+    long getCasosResueltos() {
+        return casosResueltos.sum();
+    }
+
+    long getCasosDescartados() {
+        return casosDescartados.sum();
+    }
+
+    /**
+     * Cota inferior del caso: la suma mínima menos el 25% de lo máximo que podría facturar la estrella.
+     */
+    private double cotaCaso(double sumaMinima, int estrella) {
+        int usosPosibles = Math.min(modelo.cupo[estrella], modelo.slotsDelExterno[estrella].length);
+        double tope = modelo.facturadoFijo[estrella] + usosPosibles * modelo.costo[estrella];
+        return sumaMinima - Recital.FACTOR_DESCUENTO_ESTRELLA * tope;
+    }
+}
@@ -0,0 +1,185 @@
+package com.grupo_rho.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Búsqueda por vecindarios grandes (LNS) para pools y setlists donde la búsqueda exacta no termina.
+ *
+ * Arranca con la asignación golosa (el más barato disponible para cada slot, como
+ * contratarParaCancion) y en cada iteración libera todos los slots de algunas canciones
+ * al azar y los vuelve a cubrir con el branch and bound, dejando fijo el resto.
+ * Se liberan canciones completas para que la ruptura de simetrías entre slots gemelos
+ * siga siendo válida. Cupos, un rol por canción y estrella se respetan a través del modelo.
+ *
+ * Con temperatura cero sólo se aceptan mejoras. Con temperatura, cada reparación se hace
+ * sobre costos con ruido y el resultado se acepta con el criterio de Metropolis sobre el
+ * costo real, así la búsqueda puede salir de óptimos locales. Es determinística para una semilla.
+ */
+final class PlanificadorVecindarioGrande {
+
+    private final ModeloPlanificacion modelo;
+    private final ParametrosVecindario parametros;
+    private final Random azar;
+    private final int[][] slotsPorCancion;
+
+    PlanificadorVecindarioGrande(ModeloPlanificacion modelo, ParametrosVecindario parametros) {
+        this.modelo = modelo;
+        this.parametros = parametros;
+        this.azar = new Random(parametros.semilla());
+        this.slotsPorCancion = agruparPorCancion();
+    }
+
+    /**
+     * Mejor solución encontrada. El modelo tiene que ser factible (ver verificarCobertura).
+     */
+    SolucionModelo resolver(ControlBusqueda control, DoubleConsumer alMejorar) {
+        int[] actual = solucionInicial();
+        double costoActual = costoReal(actual);
+        int[] mejor = actual.clone();
+        double costoMejor = costoActual;
+        alMejorar.accept(costoMejor);
+
+        double temperatura = parametros.temperaturaInicial();
+        for (int iteracion = 0; iteracion < parametros.iteraciones() && !control.fueDetenida(); iteracion++) {
+            int[] liberados = elegirSlotsALiberar();
+            int[] candidato = temperatura > 0
+                    ? repararConRuido(actual, liberados, temperatura, control)
+                    : reparar(modelo, actual, liberados, costoActual, control);
+
+            if (candidato != null) {
+                double costoCandidato = costoReal(candidato);
+                if (acepta(costoCandidato, costoActual, temperatura)) {
+                    actual = candidato;
+                    costoActual = costoCandidato;
+                }
+                if (costoActual < costoMejor) {
+                    mejor = actual.clone();
+                    costoMejor = costoActual;
+                    alMejorar.accept(costoMejor);
+                }
+            }
+            temperatura *= parametros.enfriamiento();
+        }
+        return new SolucionModelo(costoMejor, mejor);
+    }
+
+    /**
+     * Golosa: para cada slot, en orden, el candidato más barato que todavía puede ocuparlo.
+     * Si se traba (puede pasar con cupos justos) se usa el flujo de costo mínimo sin estrella,
+     * que siempre encuentra una asignación completa.
+     */
+    private int[] solucionInicial() {
+        EstadoBusqueda estado = new EstadoBusqueda(modelo);
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            int elegido = EstadoBusqueda.SIN_ASIGNAR;
+            for (int externo : modelo.candidatos[slot]) {
+                if (estado.puedeOcupar(modelo, externo, slot)) {
+                    elegido = externo;
+                    break;
+                }
+            }
+            if (elegido == EstadoBusqueda.SIN_ASIGNAR) {
+                return new PlanificadorFlujo(modelo).resolverConCostos(modelo.costo).asignacion();
+            }
+            estado.asignar(modelo, elegido, slot);
+        }
+        return estado.asignacion;
+    }
+
+    private int[] elegirSlotsALiberar() {
+        List<Integer> canciones = new ArrayList<>();
+        for (int c = 0; c < slotsPorCancion.length; c++) {
+            canciones.add(c);
+        }
+        int cantidad = Math.min(parametros.cancionesPorDestruccion(), canciones.size());
+        List<Integer> liberados = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int cancion = canciones.remove(azar.nextInt(canciones.size()));
+            for (int slot : slotsPorCancion[cancion]) {
+                liberados.add(slot);
+            }
+        }
+        return liberados.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Mejor forma de volver a cubrir los slots liberados, dejando fijo el resto,
+     * que cueste menos que {@code cotaSuperior} en el modelo dado. Null si no la encontró.
+     */
+    private int[] reparar(ModeloPlanificacion sobre,
+                          int[] asignacion,
+                          int[] liberados,
+                          double cotaSuperior,
+                          ControlBusqueda control) {
+        EstadoBusqueda estado = new EstadoBusqueda(sobre);
+        for (int slot = 0; slot < asignacion.length; slot++) {
+            estado.asignar(sobre, asignacion[slot], slot);
+        }
+        for (int slot : liberados) {
+            estado.desasignar(sobre, asignacion[slot], slot);
+        }
+
+        ControlBusqueda presupuesto = ControlBusqueda.conNodos(parametros.nodosPorReparacion());
+        BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(
+                sobre, new DoubleAccumulator(Math::min, cotaSuperior), presupuesto, costo -> { });
+        busqueda.buscar(estado);
+        busqueda.informarNodosPendientes();
+        control.registrarNodos(presupuesto.getNodosExplorados());
+
+        SolucionModelo solucion = busqueda.getSolucion();
+        return solucion != null ? solucion.asignacion() : null;
+    }
+
+    /**
+     * Reparación exacta sobre costos con ruido multiplicativo proporcional a la temperatura.
+     */
+    private int[] repararConRuido(int[] asignacion, int[] liberados, double temperatura, ControlBusqueda control) {
+        double[] costos = new double[modelo.cantidadExternos()];
+        for (int e = 0; e < costos.length; e++) {
+            costos[e] = modelo.costo[e] * Math.exp(temperatura * azar.nextGaussian());
+        }
+        return reparar(modelo.conCostos(costos), asignacion, liberados, Double.POSITIVE_INFINITY, control);
+    }
+
+    private boolean acepta(double costoCandidato, double costoActual, double temperatura) {
+        if (costoCandidato < costoActual) {
+            return true;
+        }
+        if (temperatura <= 0 || costoActual <= 0) {
+            return false;
+        }
+        double empeoramiento = (costoCandidato - costoActual) / costoActual;
+        return azar.nextDouble() < Math.exp(-empeoramiento / temperatura);
+    }
+
+    private double costoReal(int[] asignacion) {
+        EstadoBusqueda estado = new EstadoBusqueda(modelo);
+        for (int slot = 0; slot < asignacion.length; slot++) {
+            estado.asignar(modelo, asignacion[slot], slot);
+        }
+        return modelo.costoFinal(estado.costoParcial, estado.usos);
+    }
+
+    private int[][] agruparPorCancion() {
+        int canciones = 0;
+        for (int c : modelo.slotCancion) {
+            canciones = Math.max(canciones, c + 1);
+        }
+        List<List<Integer>> porCancion = new ArrayList<>();
+        for (int c = 0; c < canciones; c++) {
+            porCancion.add(new ArrayList<>());
+        }
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            porCancion.get(modelo.slotCancion[slot]).add(slot);
+        }
+        int[][] resultado = new int[canciones][];
+        for (int c = 0; c < canciones; c++) {
+            resultado[c] = porCancion.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return resultado;
+    }
+}
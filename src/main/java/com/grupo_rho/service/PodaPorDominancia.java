@@ -0,0 +1,25 @@
+package com.grupo_rho.service;
+
+/**
+ * Cuánto se achicó el pool de externos al descartar, rol por rol, a los dominados
+ * (ver ModeloPlanificacion#compilar).
+ *
+ * @param externosCandidatos  externos que eran candidatos de algún slot
+ * @param externosDescartados de ésos, los que ya no son candidatos de ningún slot
+ * @param candidatosAntes     suma de los candidatos de todos los slots antes de podar
+ * @param candidatosDespues   la misma suma después de podar
+ */
+public record PodaPorDominancia(int externosCandidatos,
+                                int externosDescartados,
+                                long candidatosAntes,
+                                long candidatosDespues) {
+
+    public static final PodaPorDominancia NINGUNA = new PodaPorDominancia(0, 0, 0, 0);
+
+    /**
+     * Fracción de candidatos descartados (0 si no había ninguno).
+     */
+    public double reduccion() {
+        return candidatosAntes == 0 ? 0.0 : 1.0 - (double) candidatosDespues / candidatosAntes;
+    }
+}
@@ -0,0 +1,21 @@
+package com.grupo_rho.service;
+
+/**
+ * Un plan encontrado por la contratación global y qué tan lejos puede estar del óptimo.
+ *
+ * @param costo            costo total del recital con ese plan
+ * @param cotaInferior     ningún plan puede costar menos que esto
+ * @param optimoDemostrado true si la búsqueda terminó y el plan es el óptimo
+ */
+public record ProgresoPlanificacion(double costo, double cotaInferior, boolean optimoDemostrado) {
+
+    /**
+     * Brecha de optimalidad relativa: 0 si es el óptimo, (costo - cota) / costo si no.
+     */
+    public double brecha() {
+        if (optimoDemostrado || costo <= 0.0) {
+            return 0.0;
+        }
+        return Math.max(0.0, (costo - cotaInferior) / costo);
+    }
+}
@@ -6,9 +6,14 @@ import com.grupo_rho.domain.cancion.*;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class RecitalService {
 
@@ -41,10 +46,38 @@ public class RecitalService {
         planificador.contratarParaCancion(c);
     }
 
+    public ProgresoPlanificacion contratarParaCanciones(List<Cancion> canciones) {
+        return planificador.contratarParaCanciones(canciones);
+    }
+
     public void contratarParaTodoElRecital() {
         planificador.contratarParaTodoElRecital();
     }
 
+    public void contratarParaTodoElRecital(ModoPlanificacion modo) {
+        planificador.contratarParaTodoElRecital(modo);
+    }
+
+    public ProgresoPlanificacion contratarParaTodoElRecital(ModoPlanificacion modo,
+                                                           ControlBusqueda control,
+                                                           Consumer<ProgresoPlanificacion> alMejorar) {
+        return planificador.contratarParaTodoElRecital(modo, control, alMejorar);
+    }
+
+    public ProgresoPlanificacion contratarConVecindariosGrandes(ParametrosVecindario parametros,
+                                                               ControlBusqueda control,
+                                                               Consumer<ProgresoPlanificacion> alMejorar) {
+        return planificador.contratarConVecindariosGrandes(parametros, control, alMejorar);
+    }
+
+    public PlanEntrenamientos contratarConEntrenamientos() {
+        return planificador.contratarConEntrenamientos();
+    }
+
+    public EstadisticasPlanificacion getUltimasEstadisticasPlanificacion() {
+        return planificador.getUltimasEstadisticas();
+    }
+
     public boolean puedeEntrenarse(ArtistaExterno artista) {
         return planificador.puedeEntrenarse(artista);
     }
@@ -150,12 +183,122 @@ public class RecitalService {
             return;
         }
 
-        for (Cancion c : recital.getCanciones()) {
-            for (RolRequerido rol : c.getRolesRequeridos()) {
-                Artista asignado = rol.getArtistaAsignado();
-                if (asignado != null && asignado.equals(artista)) {
-                    artista.cancelarAsignacionEnCancion();
-                    rol.desasignar();
+        // Copia: desasignar modifica el índice
+        List<RolRequerido> roles = new ArrayList<>(
+                recital.getIndiceAsignaciones().getAsignaciones(artista).keySet());
+        for (RolRequerido rol : roles) {
+            artista.cancelarAsignacionEnCancion();
+            rol.desasignar();
+        }
+    }
+
+    /**
+     * Vuelve a cubrir los roles que quedaron libres después de quitar artistas, sin
+     * replanificar todo y sin volver a contratar a los quitados: ver PlanificacionService.repararPlan.
+     *
+     * @param planAnterior instantánea tomada antes de quitarlos
+     */
+    public ProgresoPlanificacion repararPlan(InstantaneaRecital planAnterior, Set<ArtistaExterno> quitados) {
+        return planificador.repararPlan(planAnterior, quitados);
+    }
+
+    /**
+     * Escenario para probar alternativas: el estado actual del recital como instantánea
+     * inmutable (O(1)). Sobre ella se arman variantes sin tocar el recital.
+     */
+    public InstantaneaRecital bifurcar() {
+        return recital.tomarInstantanea();
+    }
+
+    /**
+     * Compara dos escenarios del recital: costos y qué roles y entrenamientos cambian.
+     */
+    public ComparacionEscenarios comparar(InstantaneaRecital base, InstantaneaRecital alternativa) {
+        return new ComparacionEscenarios(
+                base.getCostoDetallado(),
+                alternativa.getCostoDetallado(),
+                base.rolesDistintos(alternativa),
+                base.externosConEntrenamientosDistintos(alternativa),
+                base.getCantidadFaltantes(),
+                alternativa.getCantidadFaltantes());
+    }
+
+    /**
+     * Evalúa varios "¿y si...?" a la vez, en paralelo y sin tocar el recital: en cada uno se
+     * aplican los cambios sobre una copia, se contratan los roles que quedan libres y se
+     * compara el costo con el plan vigente. Devuelve los resultados del más barato al más caro.
+     */
+    public List<ResultadoEscenario> evaluarEscenarios(List<EscenarioHipotetico> escenarios) {
+        return new EvaluadorEscenarios(recital).evaluar(escenarios);
+    }
+
+    /**
+     * Análisis de sensibilidad del presupuesto: cuánto se ahorraría en el plan óptimo cortando
+     * cada canción o cubriendo cada rol con un artista base. No toca el recital.
+     */
+    public AnalisisSensibilidad analizarSensibilidad() {
+        return new AnalizadorSensibilidad(recital, ForkJoinPool.commonPool()).analizar();
+    }
+
+    /**
+     * Lleva el recital al estado del escenario. Sólo toca lo que difiere del estado actual:
+     * primero libera esos roles (y los de externos cuyo entrenamiento cambia, para que se
+     * vuelvan a facturar con el costo nuevo), después ajusta entrenamientos y por último asigna.
+     * Si algo falla vuelve al estado anterior.
+     */
+    public void confirmar(InstantaneaRecital escenario) {
+        if (escenario.getRecital() != recital) {
+            throw new IllegalArgumentException("El escenario es de otro recital");
+        }
+        InstantaneaRecital anterior = recital.tomarInstantanea();
+        try {
+            aplicarEscenario(escenario);
+        } catch (RuntimeException e) {
+            aplicarEscenario(anterior);
+            throw e;
+        }
+    }
+
+    private void aplicarEscenario(InstantaneaRecital destino) {
+        InstantaneaRecital actual = recital.tomarInstantanea();
+        List<ArtistaExterno> reentrenados = actual.externosConEntrenamientosDistintos(destino);
+        Set<RolRequerido> aCambiar = new LinkedHashSet<>(actual.rolesDistintos(destino));
+        if (!reentrenados.isEmpty()) {
+            Set<ArtistaExterno> afectados = new HashSet<>(reentrenados);
+            for (Cancion c : recital.getCanciones()) {
+                for (RolRequerido rol : c.getRolesRequeridos()) {
+                    if (afectados.contains(actual.getArtistaAsignado(rol))
+                            || afectados.contains(destino.getArtistaAsignado(rol))) {
+                        aCambiar.add(rol);
+                    }
+                }
+            }
+        }
+
+        for (RolRequerido rol : aCambiar) {
+            if (rol.getArtistaAsignado() instanceof ArtistaExterno externo) {
+                externo.cancelarAsignacionEnCancion();
+            }
+            rol.desasignar();
+        }
+        for (ArtistaExterno externo : reentrenados) {
+            Set<RolTipo> deseados = destino.getRolesEntrenados(externo);
+            for (RolTipo rol : externo.getRolesEntrenados()) {
+                if (!deseados.contains(rol)) {
+                    externo.deshacerEntrenamiento(rol);
+                }
+            }
+            for (RolTipo rol : deseados) {
+                externo.entrenar(rol);
+            }
+            recital.registrarEntrenamiento(externo);
+        }
+        for (RolRequerido rol : aCambiar) {
+            Artista artista = destino.getArtistaAsignado(rol);
+            if (artista != null) {
+                rol.asignar(artista);
+                if (artista instanceof ArtistaExterno externo) {
+                    externo.registrarAsignacionEnCancion();
                 }
             }
         }
@@ -0,0 +1,45 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.recital.CostoRecitalDetalle;
+
+import java.util.Comparator;
+
+/**
+ * Cómo queda el recital en un escenario hipotético, comparado con el plan vigente.
+ *
+ * @param escenario el escenario evaluado
+ * @param vigente   detalle de costos del plan vigente
+ * @param resultado detalle de costos del escenario replanificado, o null si no se pudo cubrir
+ * @param error     por qué no se pudo cubrir (null si se pudo)
+ */
+public record ResultadoEscenario(EscenarioHipotetico escenario,
+                                 CostoRecitalDetalle vigente,
+                                 CostoRecitalDetalle resultado,
+                                 String error) {
+
+    /** Primero los factibles, del más barato al más caro; los que no se pudieron cubrir al final. */
+    static final Comparator<ResultadoEscenario> POR_COSTO = Comparator
+            .comparing((ResultadoEscenario r) -> !r.esFactible())
+            .thenComparingDouble(r -> r.esFactible() ? r.resultado().totalFinal() : 0.0);
+
+    public boolean esFactible() {
+        return resultado != null;
+    }
+
+    /**
+     * Diferencia componente a componente contra el plan vigente (positivo = cuesta más),
+     * con la estrella del escenario. Null si el escenario no se pudo cubrir.
+     */
+    public CostoRecitalDetalle diferencia() {
+        if (!esFactible()) {
+            return null;
+        }
+        return new CostoRecitalDetalle(
+                resultado.totalSinEntrenamiento() - vigente.totalSinEntrenamiento(),
+                resultado.aumentoPorEntrenamientos() - vigente.aumentoPorEntrenamientos(),
+                resultado.descuentoPorBandas() - vigente.descuentoPorBandas(),
+                resultado.descuentoArtistaEstrella() - vigente.descuentoArtistaEstrella(),
+                resultado.totalFinal() - vigente.totalFinal(),
+                resultado.artistaEstrella());
+    }
+}
@@ -0,0 +1,10 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+
+/**
+ * Slot de backtracking: un rol específico de una canción específica
+ * que todavía falta cubrir.
+ */
+record RolPendiente(Cancion cancion, RolRequerido rol) {}
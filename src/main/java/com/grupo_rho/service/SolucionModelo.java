@@ -0,0 +1,6 @@
+package com.grupo_rho.service;
+
+/**
+ * Solución completa sobre un ModeloPlanificacion: costo final y externo elegido por slot.
+ */
+record SolucionModelo(double costo, int[] asignacion) {}
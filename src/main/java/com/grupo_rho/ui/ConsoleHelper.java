@@ -1,13 +1,11 @@
 package com.grupo_rho.ui;
 
-import java.util.Scanner;
-
 public class ConsoleHelper {
 
-    private final Scanner scanner;
+    private final EntradaConsola entrada;
 
-    public ConsoleHelper(Scanner scanner) {
-        this.scanner = scanner;
+    public ConsoleHelper(EntradaConsola entrada) {
+        this.entrada = entrada;
     }
 
     // ---- salida ----
@@ -24,13 +22,21 @@ public class ConsoleHelper {
 
     public String leerLinea(String mensaje) {
         System.out.print(mensaje);
-        return scanner.nextLine();
+        return entrada.leerLinea();
+    }
+
+    /**
+     * true si ya hay algo tipeado para leer sin quedarse esperando; de mejor esfuerzo
+     * (ver EntradaConsola#hayEntradaPendiente).
+     */
+    public boolean hayEntradaPendiente() {
+        return entrada.hayEntradaPendiente();
     }
 
     public int leerEntero(String mensaje) {
         while (true) {
             System.out.print(mensaje);
-            String linea = scanner.nextLine();
+            String linea = entrada.leerLinea();
             try {
                 return Integer.parseInt(linea.trim());
             } catch (NumberFormatException e) {
@@ -0,0 +1,59 @@
+package com.grupo_rho.ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+/**
+ * Única lectura de la consola, línea por línea y sin buffer propio: nunca se lee más allá
+ * del fin de la línea pedida. Así lo que el usuario tipeó y todavía no se leyó sigue en el
+ * stream, y hayEntradaPendiente() lo puede ver (un Scanner lo tendría en su buffer).
+ */
+public class EntradaConsola {
+
+    private final InputStream in;
+    private final Charset charset;
+
+    public EntradaConsola(InputStream in) {
+        this.in = in;
+        this.charset = System.console() != null ? System.console().charset() : Charset.defaultCharset();
+    }
+
+    /**
+     * Siguiente línea sin el fin de línea. Lanza NoSuchElementException si la entrada se terminó.
+     */
+    public synchronized String leerLinea() {
+        ByteArrayOutputStream linea = new ByteArrayOutputStream();
+        try {
+            int b = in.read();
+            if (b == -1) {
+                throw new NoSuchElementException("No hay más entrada");
+            }
+            while (b != -1 && b != '\n') {
+                linea.write(b);
+                b = in.read();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String texto = linea.toString(charset);
+        return texto.endsWith("\r") ? texto.substring(0, texto.length() - 1) : texto;
+    }
+
+    /**
+     * true si ya hay algo tipeado para leer sin quedarse esperando (por ejemplo, un Enter).
+     *
+     * Es de mejor esfuerzo: se basa en InputStream.available(), que algunas consolas o IDEs
+     * no informan (devuelven 0 aunque haya algo), y en ese caso nunca se ve la entrada.
+     */
+    public boolean hayEntradaPendiente() {
+        try {
+            return in.available() > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
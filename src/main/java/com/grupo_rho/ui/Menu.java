@@ -4,7 +4,6 @@ import com.grupo_rho.ui.command.Command;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * Clase Invoker que maneja las opciones y la interacción con el usuario.
@@ -13,10 +12,10 @@ import java.util.Scanner;
 public class Menu {
 
     private final Map<Integer, Command> comandos = new LinkedHashMap<>();
-    private final Scanner scanner;
+    private final EntradaConsola consola;
 
-    public Menu(Scanner scanner) {
-        this.scanner = scanner;
+    public Menu(EntradaConsola entrada) {
+        this.consola = entrada;
     }
 
     public void agregarComando(int opcion, Command comando) {
@@ -29,7 +28,7 @@ public class Menu {
             mostrarOpciones();
             System.out.print("Seleccione una opción: ");
             try {
-                String entrada = scanner.nextLine();
+                String entrada = consola.leerLinea();
                 int opcion = Integer.parseInt(entrada);
 
                 if (opcion == 0) {
@@ -10,6 +10,7 @@ import com.grupo_rho.domain.recital.CostoRecitalDetalle;
 import com.grupo_rho.domain.recital.Recital;
 import com.grupo_rho.persistence.estado.EstadoRecitalInfo;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -43,8 +44,8 @@ public class PrettyPrinter {
                 canciones.size(), completas, incompletas
         ));
 
-        // Costos detallados
-        CostoRecitalDetalle costos = recital.calcularCostoDetallado();
+        // Costos detallados (del registro incremental del recital)
+        CostoRecitalDetalle costos = recital.getRegistroCostos().getDetalle();
 
         console.println("");
         console.println("💰 Costos (resumen):");
@@ -291,7 +292,7 @@ public class PrettyPrinter {
         double factorEntrenamiento = Math.pow(1.5, entrenamientos);
         double baseOriginal      = a.getCostoBase() / factorEntrenamiento;
         double baseActual        = a.getCostoBase();
-        double unitConDesc       = a.getCostoFinal(recital.getArtistasBase());
+        double unitConDesc       = recital.getCacheCostos().getCostoFinal(a);
         String asigMax           = a.getCancionesAsignadasEnRecital() + "/" + a.getMaxCanciones();
 
         console.println(String.format(
@@ -319,7 +320,7 @@ public class PrettyPrinter {
         double factorEntrenamiento = Math.pow(1.5, entrenamientos);
         double baseOriginal      = a.getCostoBase() / factorEntrenamiento;
         double baseActual        = a.getCostoBase();
-        double unitConDesc       = a.getCostoFinal(recital.getArtistasBase());
+        double unitConDesc       = recital.getCacheCostos().getCostoFinal(a);
         int cancionesAsignadas   = a.getCancionesAsignadasEnRecital();
         double costoTotalAprox   = unitConDesc * cancionesAsignadas;
 
@@ -385,14 +386,11 @@ public class PrettyPrinter {
     }
 
     private String resumirRolesFaltantes(Cancion c) {
-        List<RolRequerido> faltantes = c.getRolesFaltantes();
-        if (faltantes.isEmpty()) return "-";
+        if (c.estaCompleta()) return "-";
 
-        Map<RolTipo, Long> agrupados = faltantes.stream()
-                .collect(Collectors.groupingBy(RolRequerido::getTipoRol, Collectors.counting()));
-
-        return agrupados.entrySet().stream()
-                .map(e -> e.getKey() + "(" + e.getValue() + ")")
+        return Arrays.stream(RolTipo.values())
+                .filter(tipo -> c.getFaltantes(tipo) > 0)
+                .map(tipo -> tipo + "(" + c.getFaltantes(tipo) + ")")
                 .collect(Collectors.joining(", "));
     }
 
@@ -5,6 +5,7 @@ import com.grupo_rho.domain.artista.RolTipo;
 import com.grupo_rho.domain.cancion.Cancion;
 import com.grupo_rho.service.RecitalService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class SelectionHelper {
@@ -39,6 +40,37 @@ public class SelectionHelper {
         return canciones.get(opcion - 1);
     }
 
+    /**
+     * Varias canciones, por número y separadas por comas. Devuelve null si algún número es inválido.
+     */
+    public List<Cancion> elegirCanciones() {
+        List<Cancion> canciones = recitalService.getCanciones();
+        if (canciones.isEmpty()) {
+            console.println("No hay canciones cargadas.");
+            return null;
+        }
+
+        console.println("Elegí las canciones:");
+        printer.listadoCancionesNumerado(canciones, recitalService.getArtistasBase());
+
+        String linea = console.leerLinea("Números de canción separados por coma: ");
+        List<Cancion> elegidas = new ArrayList<>();
+        for (String parte : linea.split(",")) {
+            int opcion;
+            try {
+                opcion = Integer.parseInt(parte.trim());
+            } catch (NumberFormatException e) {
+                opcion = -1;
+            }
+            if (opcion < 1 || opcion > canciones.size()) {
+                console.println("Número inválido: " + parte.trim());
+                return null;
+            }
+            elegidas.add(canciones.get(opcion - 1));
+        }
+        return elegidas;
+    }
+
     public ArtistaExterno elegirArtistaExterno() {
         List<ArtistaExterno> externos = recitalService.getArtistasExternosPool();
         if (externos.isEmpty()) {
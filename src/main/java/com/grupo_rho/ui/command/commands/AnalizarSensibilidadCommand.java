@@ -0,0 +1,44 @@
+package com.grupo_rho.ui.command.commands;
+
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.service.AnalisisSensibilidad;
+import com.grupo_rho.service.RecitalService;
+import com.grupo_rho.ui.UiContext;
+import com.grupo_rho.ui.command.AbstractCommand;
+
+public class AnalizarSensibilidadCommand extends AbstractCommand {
+
+    private static final int MAXIMO_A_MOSTRAR = 10;
+
+    public AnalizarSensibilidadCommand(RecitalService service, UiContext ui) {
+        super(service, ui);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Ver qué canciones y roles pesan más en el presupuesto";
+    }
+
+    @Override
+    public void execute() {
+        println("== Sensibilidad del presupuesto ==");
+        AnalisisSensibilidad analisis;
+        try {
+            analisis = recitalService.analizarSensibilidad();
+        } catch (RecitalInfactibleException e) {
+            println("[ERROR DE DOMINIO] El plantel no alcanza para cubrir el recital: " + e.getMessage());
+            return;
+        }
+
+        println(String.format("Costo del plan óptimo: $%.2f.", analisis.costoOptimo()));
+        println("Canciones que más ahorran si se cortan:");
+        analisis.canciones().stream()
+                .limit(MAXIMO_A_MOSTRAR)
+                .forEach(p -> println(String.format("  - %s: $%.2f", p.cancion().getTitulo(), p.ahorro())));
+        println("Roles que más ahorran si los cubre un artista base:");
+        analisis.roles().stream()
+                .limit(MAXIMO_A_MOSTRAR)
+                .forEach(p -> println(String.format("  - %s en '%s': $%.2f",
+                        p.rol().getTipoRol(), p.cancion().getTitulo(), p.ahorro())));
+    }
+}
@@ -0,0 +1,44 @@
+package com.grupo_rho.ui.command.commands;
+
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.service.ProgresoPlanificacion;
+import com.grupo_rho.service.RecitalService;
+import com.grupo_rho.ui.UiContext;
+import com.grupo_rho.ui.command.AbstractCommand;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ContratarCancionesCommand extends AbstractCommand {
+
+    public ContratarCancionesCommand(RecitalService service, UiContext ui) {
+        super(service, ui);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Contratar artistas para varias canciones";
+    }
+
+    @Override
+    public void execute() {
+        println("== Contratar artistas para varias canciones ==");
+        List<Cancion> canciones = selector().elegirCanciones();
+        if (canciones == null) {
+            return;
+        }
+
+        try {
+            ProgresoPlanificacion resultado = recitalService.contratarParaCanciones(canciones);
+            println("Contratación realizada para " + canciones.size() + " canción(es).");
+            println(String.format("Costo total del recital: $%.2f.", resultado.costo()));
+        } catch (RecitalInfactibleException e) {
+            println("[ERROR DE DOMINIO] El plantel no alcanza para esas canciones: quedarían "
+                    + e.getRolesSinCubrir() + " rol(es) sin cubrir. No se contrató a nadie. Compiten por:");
+            e.getRolesDeficientes().forEach((rol, enConflicto) -> println("  - " + rol + ": " + enConflicto.stream()
+                    .map(Cancion::getTitulo)
+                    .collect(Collectors.joining(", "))));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.grupo_rho.ui.command.commands;
+
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.service.PlanEntrenamientos;
+import com.grupo_rho.service.RecitalService;
+import com.grupo_rho.ui.UiContext;
+import com.grupo_rho.ui.command.AbstractCommand;
+
+import java.util.stream.Collectors;
+
+public class ContratarConEntrenamientosCommand extends AbstractCommand {
+
+    public ContratarConEntrenamientosCommand(RecitalService service, UiContext ui) {
+        super(service, ui);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Contratar todo el recital entrenando artistas si conviene";
+    }
+
+    @Override
+    public void execute() {
+        try {
+            PlanEntrenamientos plan = recitalService.contratarConEntrenamientos();
+            if (plan.entrenamientos().isEmpty()) {
+                println("No hizo falta entrenar a nadie.");
+            } else {
+                println("Entrenamientos realizados:");
+                for (PlanEntrenamientos.Entrenamiento entrenamiento : plan.entrenamientos()) {
+                    println("  - " + entrenamiento.artista().getNombre() + " en " + entrenamiento.rol());
+                }
+            }
+            println(String.format("Contratación realizada. Costo total: $%.2f%s.", plan.costo(),
+                    plan.optimoDemostrado() ? " (óptimo)" : " (puede haber un plan más barato)"));
+        } catch (RecitalInfactibleException e) {
+            println("[ERROR DE DOMINIO] Ni entrenando alcanza el plantel: quedarían " + e.getRolesSinCubrir()
+                    + " rol(es) sin cubrir. Compiten por los mismos artistas:");
+            e.getRolesDeficientes().forEach((rol, canciones) -> println("  - " + rol + ": " + canciones.stream()
+                    .map(Cancion::getTitulo)
+                    .collect(Collectors.joining(", "))));
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package com.grupo_rho.ui.command.commands;
 
+import com.grupo_rho.domain.cancion.Cancion;
 import com.grupo_rho.domain.exception.NoHayArtistasDisponiblesException;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.service.ControlBusqueda;
+import com.grupo_rho.service.EstadisticasPlanificacion;
+import com.grupo_rho.service.ModoPlanificacion;
+import com.grupo_rho.service.PodaPorDominancia;
+import com.grupo_rho.service.ProgresoPlanificacion;
 import com.grupo_rho.service.RecitalService;
 import com.grupo_rho.ui.UiContext;
 import com.grupo_rho.ui.command.AbstractCommand;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
 public class ContratarTodoRecitalCommand extends AbstractCommand {
 
     public ContratarTodoRecitalCommand(RecitalService service, UiContext ui) {
@@ -19,12 +35,91 @@ public class ContratarTodoRecitalCommand extends AbstractCommand {
     @Override
     public void execute() {
         try {
-            recitalService.contratarParaTodoElRecital();
+            int segundos = console().leerEntero("Tiempo máximo de búsqueda en segundos (0 = hasta el óptimo): ");
+            ControlBusqueda control = segundos > 0
+                    ? ControlBusqueda.conTiempo(Duration.ofSeconds(segundos))
+                    : ControlBusqueda.sinLimite();
+
+            println("Buscando... Apretá Enter para cortar y quedarte con el mejor plan hasta ahora.");
+            ProgresoPlanificacion resultado = buscarHastaEnter(control);
             println("Contratación realizada para todas las canciones posibles.");
+            if (resultado.optimoDemostrado()) {
+                println(String.format("Costo total: $%.2f (óptimo).", resultado.costo()));
+            } else {
+                println(String.format(
+                        "Se cortó la búsqueda: costo total $%.2f, a lo sumo %.1f%% sobre el óptimo.",
+                        resultado.costo(), resultado.brecha() * 100));
+            }
+
+            EstadisticasPlanificacion estadisticas = recitalService.getUltimasEstadisticasPlanificacion();
+            if (estadisticas != null) {
+                println("Resuelto con " + estadisticas.metodo()
+                        + " (" + estadisticas.nodosExplorados() + " nodos explorados, "
+                        + estadisticas.ramasPodadasPorSimetria() + " ramas descartadas por simetría, "
+                        + estadisticas.ramasPodadasPorVerificacion() + " por dejar roles sin candidatos).");
+                if (estadisticas.componentes() > 1) {
+                    println("Los roles pendientes se partieron en " + estadisticas.componentes()
+                            + " grupos independientes.");
+                }
+                PodaPorDominancia poda = estadisticas.poda();
+                if (poda.externosDescartados() > 0 || poda.candidatosDespues() < poda.candidatosAntes()) {
+                    println(String.format(
+                            "Poda por dominancia: %d de %d externos descartados, %.1f%% menos candidatos.",
+                            poda.externosDescartados(), poda.externosCandidatos(), poda.reduccion() * 100));
+                }
+            }
+        } catch (RecitalInfactibleException e) {
+            println("[ERROR DE DOMINIO] El plantel no alcanza: quedarían " + e.getRolesSinCubrir()
+                    + " rol(es) sin cubrir. Compiten por los mismos artistas:");
+            e.getRolesDeficientes().forEach((rol, canciones) -> println("  - " + rol + ": " + canciones.stream()
+                    .map(Cancion::getTitulo)
+                    .collect(Collectors.joining(", "))));
+            println("Tip: entrená artistas en esos roles o sumá externos al plantel.");
         } catch (NoHayArtistasDisponiblesException e) {
             println("[ERROR DE DOMINIO] " + e.getMessage());
             println("Tip: podés usar la opción de contratar por canción para entrenar artistas si hace falta.");
         }
     }
+
+    /**
+     * Corre la contratación en otro hilo mientras este mira si el usuario apretó Enter;
+     * si lo hace, cancela el control y la búsqueda aplica el mejor plan que tenga.
+     */
+    private ProgresoPlanificacion buscarHastaEnter(ControlBusqueda control) {
+        try (ExecutorService hilo = Executors.newSingleThreadExecutor()) {
+            Future<ProgresoPlanificacion> busqueda = hilo.submit(() -> recitalService.contratarParaTodoElRecital(
+                    ModoPlanificacion.POR_ESTRELLA,
+                    control,
+                    progreso -> println(String.format(
+                            "  plan de $%.2f (a lo sumo %.1f%% sobre el óptimo)",
+                            progreso.costo(), progreso.brecha() * 100))));
+            boolean interrumpido = false;
+            try {
+                while (true) {
+                    if (!control.fueDetenida() && console().hayEntradaPendiente()) {
+                        console().leerLinea("");
+                        control.cancelar();
+                        println("Cortando la búsqueda...");
+                    }
+                    try {
+                        return busqueda.get(100, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // sigue buscando
+                    } catch (InterruptedException e) {
+                        control.cancelar();
+                        interrumpido = true;
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof RuntimeException causa
+                                ? causa
+                                : new IllegalStateException(e.getCause());
+                    }
+                }
+            } finally {
+                if (interrumpido) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
 }
 
@@ -0,0 +1,99 @@
+package com.grupo_rho.ui.command.commands;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.recital.CostoRecitalDetalle;
+import com.grupo_rho.service.EscenarioHipotetico;
+import com.grupo_rho.service.RecitalService;
+import com.grupo_rho.service.ResultadoEscenario;
+import com.grupo_rho.ui.UiContext;
+import com.grupo_rho.ui.command.AbstractCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EvaluarEscenariosCommand extends AbstractCommand {
+
+    public EvaluarEscenariosCommand(RecitalService service, UiContext ui) {
+        super(service, ui);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Evaluar escenarios hipotéticos (sin modificar el recital)";
+    }
+
+    @Override
+    public void execute() {
+        println("== Evaluar escenarios hipotéticos ==");
+        List<EscenarioHipotetico> escenarios = new ArrayList<>();
+
+        while (true) {
+            println("Escenarios cargados: " + escenarios.size());
+            println("1. Quitar una canción");
+            println("2. Agregar un rol a una canción");
+            println("3. Entrenar a un artista externo");
+            println("4. Quitar a un artista contratado");
+            println("5. Quitar cada canción (un escenario por canción)");
+            println("6. Quitar cada artista contratado (un escenario por artista)");
+            println("0. Evaluar");
+            int opcion = console().leerEntero("Opción: ");
+            if (opcion == 0) {
+                break;
+            }
+            switch (opcion) {
+                case 1 -> {
+                    Cancion cancion = selector().elegirCancion();
+                    if (cancion != null) escenarios.add(EscenarioHipotetico.quitarCancion(cancion));
+                }
+                case 2 -> {
+                    Cancion cancion = selector().elegirCancion();
+                    RolTipo rol = cancion == null ? null : selector().elegirRolTipo("Rol a agregar: ");
+                    if (rol != null) escenarios.add(EscenarioHipotetico.agregarRol(cancion, rol));
+                }
+                case 3 -> {
+                    ArtistaExterno artista = selector().elegirArtistaExterno();
+                    RolTipo rol = artista == null ? null : selector().elegirRolTipo("Rol a entrenar: ");
+                    if (rol != null) escenarios.add(EscenarioHipotetico.entrenar(artista, rol));
+                }
+                case 4 -> {
+                    ArtistaExterno artista = selector().elegirArtistaContratado();
+                    if (artista != null) escenarios.add(EscenarioHipotetico.quitarArtista(artista));
+                }
+                case 5 -> recitalService.getCanciones()
+                        .forEach(c -> escenarios.add(EscenarioHipotetico.quitarCancion(c)));
+                case 6 -> recitalService.getArtistasContratados()
+                        .forEach(a -> escenarios.add(EscenarioHipotetico.quitarArtista(a)));
+                default -> println("Opción inválida.");
+            }
+        }
+
+        if (escenarios.isEmpty()) {
+            println("No se cargó ningún escenario.");
+            return;
+        }
+
+        List<ResultadoEscenario> resultados = recitalService.evaluarEscenarios(escenarios);
+        println(String.format("Costo del plan vigente: $%.2f. Del más barato al más caro:",
+                recitalService.getCostoTotalRecital()));
+        int posicion = 1;
+        for (ResultadoEscenario resultado : resultados) {
+            String nombre = resultado.escenario().nombre();
+            if (!resultado.esFactible()) {
+                println(String.format("%2d. %s: no se puede cubrir (%s)", posicion++, nombre, resultado.error()));
+                continue;
+            }
+            CostoRecitalDetalle diferencia = resultado.diferencia();
+            println(String.format("%2d. %s: $%.2f (%+.2f) [base %+.2f, entrenamientos %+.2f, bandas %+.2f, estrella %+.2f]",
+                    posicion++,
+                    nombre,
+                    resultado.resultado().totalFinal(),
+                    diferencia.totalFinal(),
+                    diferencia.totalSinEntrenamiento(),
+                    diferencia.aumentoPorEntrenamientos(),
+                    -diferencia.descuentoPorBandas(),
+                    -diferencia.descuentoArtistaEstrella()));
+        }
+    }
+}
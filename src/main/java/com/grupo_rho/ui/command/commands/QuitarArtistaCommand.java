@@ -1,10 +1,15 @@
 package com.grupo_rho.ui.command.commands;
 
 import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
+import com.grupo_rho.service.ProgresoPlanificacion;
 import com.grupo_rho.service.RecitalService;
 import com.grupo_rho.ui.UiContext;
 import com.grupo_rho.ui.command.AbstractCommand;
 
+import java.util.Set;
+
 public class QuitarArtistaCommand extends AbstractCommand {
 
     public QuitarArtistaCommand(RecitalService recitalService, UiContext ui) {
@@ -37,9 +42,23 @@ public class QuitarArtistaCommand extends AbstractCommand {
             return;
         }
 
+        InstantaneaRecital planAnterior = recitalService.bifurcar();
         recitalService.quitarArtistaDelRecital(artista);
 
         println("Se quitó a '" + artista.getNombre() +
                 "' de todas las canciones. Algunos roles pueden haber quedado incompletos.");
+
+        String reparar = ui.console().leerLinea(
+                "¿Querés volver a cubrir ahora los roles que quedaron libres? (s/n): "
+        ).trim().toLowerCase();
+        if (!reparar.equals("s")) {
+            return;
+        }
+        try {
+            ProgresoPlanificacion resultado = recitalService.repararPlan(planAnterior, Set.of(artista));
+            println(String.format("Roles cubiertos de nuevo. Costo total del recital: $%.2f.", resultado.costo()));
+        } catch (RecitalInfactibleException e) {
+            println("[ERROR DE DOMINIO] " + e.getMessage() + ". Los roles quedaron libres.");
+        }
     }
 }
@@ -2,11 +2,15 @@ package com.grupo_rho.domain;
 
 import com.grupo_rho.domain.artista.ArtistaBase;
 import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.CatalogoBandas;
+import com.grupo_rho.domain.artista.IndiceBandas;
 import com.grupo_rho.domain.artista.RolTipo;
 import org.junit.jupiter.api.Test;
 
 import com.grupo_rho.domain.recital.TipoRecital;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -148,4 +152,57 @@ class ArtistaExternoTest {
         double costo = externo.getCostoFinal(Set.of(brian));
         assertEquals(1000.0, costo, 0.001);
     }
+
+    @Test
+    void rolesYBandasSeGuardanComoBitsEIdsPeroSeVenComoConjuntos() {
+        Set<String> muchasBandas = new HashSet<>();
+        for (int i = 0; i < 150; i++) {
+            muchasBandas.add("Banda bits " + i);
+        }
+        ArtistaExterno externo = new ArtistaExterno(
+                "Multibanda", Set.of(RolTipo.BAJO, RolTipo.COROS), muchasBandas, 1000.0, 2, null);
+        ArtistaBase base = new ArtistaBase("Base", Set.of(RolTipo.BATERIA), Set.of("Banda bits 140"));
+        ArtistaBase otra = new ArtistaBase("Otra", Set.of(RolTipo.BATERIA), Set.of("Banda que nadie comparte"));
+
+        assertEquals(Set.of(RolTipo.BAJO, RolTipo.COROS), externo.getRolesHistoricos());
+        assertEquals(muchasBandas, externo.getHistorialBandas());
+        assertFalse(externo.getHistorialBandas().contains("Banda inexistente"));
+        assertTrue(externo.comparteBandaCon(base));
+        assertTrue(base.comparteBandaCon(externo));
+        assertFalse(externo.comparteBandaCon(otra));
+
+        // Con un catálogo de bandas compartido se comparan los ids y da lo mismo
+        Set<String> todas = new HashSet<>(muchasBandas);
+        todas.add("Banda que nadie comparte");
+        CatalogoBandas catalogo = CatalogoBandas.de(todas);
+        ArtistaExterno mismoCatalogo = new ArtistaExterno(
+                "Multibanda", Set.of(RolTipo.BAJO), muchasBandas, 1000.0, 2, null, catalogo);
+        ArtistaBase baseMismoCatalogo = new ArtistaBase(
+                "Base", Set.of(RolTipo.BATERIA), Set.of("Banda bits 140"), catalogo);
+        ArtistaBase otraMismoCatalogo = new ArtistaBase(
+                "Otra", Set.of(RolTipo.BATERIA), Set.of("Banda que nadie comparte"), catalogo);
+        assertEquals(muchasBandas, mismoCatalogo.getHistorialBandas());
+        assertEquals(Set.of("Banda bits 140"), baseMismoCatalogo.getHistorialBandas());
+        assertTrue(mismoCatalogo.comparteBandaCon(baseMismoCatalogo));
+        assertTrue(baseMismoCatalogo.comparteBandaCon(mismoCatalogo));
+        assertFalse(mismoCatalogo.comparteBandaCon(otraMismoCatalogo));
+        assertTrue(externo.comparteBandaCon(baseMismoCatalogo));
+        assertEquals(151, catalogo.size());
+
+        // El índice de bases busca por id en su catálogo y por nombre si el artista viene de otro
+        IndiceBandas indice = new IndiceBandas(List.of(baseMismoCatalogo, otraMismoCatalogo));
+        assertTrue(indice.comparteBanda(mismoCatalogo));
+        assertTrue(indice.comparteBanda(externo));
+        assertEquals(Set.of(baseMismoCatalogo), indice.basesConBandaCompartida(externo));
+        assertFalse(new IndiceBandas(List.of(otraMismoCatalogo, otra)).comparteBanda(mismoCatalogo));
+        assertThrows(IllegalArgumentException.class, () -> new ArtistaBase(
+                "Nueva", Set.of(RolTipo.BATERIA), Set.of("Banda fuera del catálogo"), catalogo));
+
+        // La vista refleja los entrenamientos y no se puede modificar
+        Set<RolTipo> roles = externo.getRolesHistoricos();
+        externo.entrenar(RolTipo.PIANO);
+        assertTrue(roles.contains(RolTipo.PIANO));
+        assertTrue(externo.puedeTocar(RolTipo.PIANO));
+        assertThrows(UnsupportedOperationException.class, () -> roles.add(RolTipo.VOZ_PRINCIPAL));
+    }
 }
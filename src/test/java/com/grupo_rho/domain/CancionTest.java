@@ -135,4 +135,42 @@ class CancionTest {
         assertEquals(1, artistas.size());
         assertThrows(UnsupportedOperationException.class, () -> artistas.add(cantante));
     }
+
+    @Test
+    void contadoresDeFaltantesSiguenAsignacionesReasignacionesYDesasignaciones() {
+        RolRequerido voz = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido coros1 = new RolRequerido(RolTipo.COROS);
+        RolRequerido coros2 = new RolRequerido(RolTipo.COROS);
+        ArtistaBase cantante = new ArtistaBase("Cantante", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of("Banda"));
+        ArtistaBase corista = new ArtistaBase("Corista", Set.of(RolTipo.COROS), Set.of("Banda"));
+        ArtistaBase otroCorista = new ArtistaBase("Otro Corista", Set.of(RolTipo.COROS), Set.of("Banda"));
+        // Lo asignado antes de armar la canción ya cuenta como cubierto
+        coros2.asignar(corista);
+
+        Cancion cancion = new Cancion("Test Song", List.of(voz, coros1, coros2));
+
+        assertEquals(2, cancion.getCantidadFaltantes());
+        assertEquals(1, cancion.getFaltantes(RolTipo.VOZ_PRINCIPAL));
+        assertEquals(1, cancion.getFaltantes(RolTipo.COROS));
+        assertEquals(List.of(voz, coros1), cancion.getRolesFaltantes());
+
+        cancion.asignarArtista(voz, cantante);
+        assertEquals(0, cancion.getFaltantes(RolTipo.VOZ_PRINCIPAL));
+
+        // Reasignar un rol cubierto no cambia los contadores
+        voz.asignar(cantante);
+        assertEquals(1, cancion.getCantidadFaltantes());
+
+        cancion.asignarArtista(coros1, otroCorista);
+        assertTrue(cancion.estaCompleta());
+        assertFalse(cancion.rolesFaltantes().iterator().hasNext());
+
+        coros2.desasignar();
+        coros2.desasignar();
+        assertFalse(cancion.estaCompleta());
+        assertEquals(1, cancion.getFaltantes(RolTipo.COROS));
+        var faltantes = cancion.rolesFaltantes().iterator();
+        assertSame(coros2, faltantes.next());
+        assertFalse(faltantes.hasNext());
+    }
 }
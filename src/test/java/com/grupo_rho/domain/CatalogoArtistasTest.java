@@ -0,0 +1,76 @@
+package com.grupo_rho.domain;
+
+import com.grupo_rho.domain.artista.ArtistaBase;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.CatalogoArtistas;
+import com.grupo_rho.domain.artista.PerfilArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoArtistasTest {
+
+    private static CatalogoArtistas catalogo() {
+        return new CatalogoArtistas(List.of(
+                new PerfilArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Queen"), 1000.0, 2, TipoRecital.ROCK),
+                new PerfilArtistaExterno("Beto", Set.of(RolTipo.BAJO), Set.of("Otra"), 800.0, 1, null)
+        ));
+    }
+
+    @Test
+    void cadaRecitalTieneSuPropioEstadoSobreLosMismosPerfiles() {
+        CatalogoArtistas catalogo = catalogo();
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Recital primero = new Recital("Uno", List.of(new Cancion("C1", List.of(voz1))),
+                List.of(brian), catalogo.crearPool(), TipoRecital.ROCK);
+        Recital segundo = new Recital("Dos", List.of(new Cancion("C2", List.of(voz2))),
+                List.of(brian), catalogo.crearPool(), TipoRecital.ROCK);
+
+        ArtistaExterno anaUno = primero.getArtistasExternosPool().get(0);
+        ArtistaExterno anaDos = segundo.getArtistasExternosPool().get(0);
+        assertNotSame(anaUno, anaDos);
+        assertSame(anaUno.getPerfil(), anaDos.getPerfil());
+        assertTrue(anaUno.comparteBandaCon(brian));
+
+        // Entrenar y contratar en un recital no se ve en el otro ni en el perfil
+        anaUno.entrenar(RolTipo.COROS);
+        voz1.asignar(anaUno);
+        anaUno.registrarAsignacionEnCancion();
+
+        assertEquals(1500.0, anaUno.getCostoBase(), 0.0001);
+        assertEquals(1000.0, anaDos.getCostoBase(), 0.0001);
+        assertEquals(1000.0, anaUno.getPerfil().getCostoBase(), 0.0001);
+        assertFalse(anaDos.puedeTocar(RolTipo.COROS));
+        assertEquals(Set.of(RolTipo.VOZ_PRINCIPAL), anaUno.getPerfil().getRolesHistoricos());
+        assertEquals(0, anaDos.getCancionesAsignadasEnRecital());
+        assertEquals(List.of(anaUno), primero.getArtistasContratados());
+        assertTrue(segundo.getArtistasContratados().isEmpty());
+    }
+
+    @Test
+    void crearPoolConNombresYBuscar() {
+        CatalogoArtistas catalogo = catalogo();
+
+        List<ArtistaExterno> pool = catalogo.crearPool(List.of("Beto"));
+        assertEquals(1, pool.size());
+        assertEquals("Beto", pool.get(0).getNombre());
+        assertEquals(1, pool.get(0).getMaxCanciones());
+        assertTrue(catalogo.buscar("Ana").isPresent());
+        assertTrue(catalogo.buscar("Nadie").isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> catalogo.crearPool(List.of("Nadie")));
+        PerfilArtistaExterno repetido = new PerfilArtistaExterno("Ana", Set.of(), Set.of(), 1.0, 1, null);
+        assertThrows(IllegalArgumentException.class,
+                () -> new CatalogoArtistas(List.of(catalogo.getPerfiles().get(0), repetido)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.grupo_rho.domain;
+
+import com.grupo_rho.domain.artista.ArtistaBase;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.exception.ArtistaNoEntrenableException;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantaneaRecitalTest {
+
+    @Test
+    void lasVariantesNoTocanElRecitalYSoloDifierenEnLoQueCambiaron() {
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Queen"), 1000.0, 2, TipoRecital.ROCK);
+        ArtistaExterno beto = new ArtistaExterno("Beto", Set.of(RolTipo.BAJO), Set.of(), 800.0, 1, null);
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido bajo1 = new RolRequerido(RolTipo.BAJO);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c1 = new Cancion("C1", List.of(voz1, bajo1));
+        RolRequerido voz3 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c2 = new Cancion("C2", List.of(voz2));
+        Cancion c3 = new Cancion("C3", List.of(voz3));
+        Recital recital = new Recital(
+                "Escenarios", List.of(c1, c2, c3), List.of(brian), List.of(ana, beto), TipoRecital.ROCK);
+
+        voz1.asignar(ana);
+        ana.registrarAsignacionEnCancion();
+        InstantaneaRecital actual = recital.tomarInstantanea();
+        assertSame(actual, recital.tomarInstantanea());
+        assertEquals(recital.calcularCostoDetallado(), actual.getCostoDetallado());
+
+        InstantaneaRecital variante = actual
+                .conAsignacion(bajo1, beto)
+                .conAsignacion(voz2, ana);
+        assertNull(bajo1.getArtistaAsignado());
+        assertSame(actual, recital.tomarInstantanea());
+        assertEquals(List.of(bajo1, voz2), actual.rolesDistintos(variante));
+        assertEquals(1, variante.getCantidadFaltantes());
+        assertEquals(2, variante.getCancionesAsignadas(ana));
+        // Ana: 2 x 500 (banda con Brian) con 25% de estrella; Beto: 800
+        assertEquals(1550.0, variante.getCostoTotal(), 0.0001);
+
+        // Las mismas reglas que el recital real
+        assertThrows(IllegalStateException.class, () -> variante.conAsignacion(voz3, ana));
+        assertThrows(IllegalArgumentException.class, () -> actual.conAsignacion(bajo1, ana));
+        assertThrows(ArtistaNoEntrenableException.class, () -> actual.conEntrenamiento(ana, RolTipo.BAJO));
+
+        // Entrenar en el escenario cambia roles y costo sólo ahí
+        InstantaneaRecital entrenado = actual.sinCancion(c1).conEntrenamiento(ana, RolTipo.BAJO)
+                .conAsignacion(bajo1, ana);
+        assertEquals(Set.of(RolTipo.BAJO), entrenado.getRolesEntrenados(ana));
+        assertEquals(List.of(ana), actual.externosConEntrenamientosDistintos(entrenado));
+        assertFalse(ana.puedeTocar(RolTipo.BAJO));
+        assertEquals(750.0 * 0.75, entrenado.getCostoTotal(), 0.0001);
+    }
+
+    @Test
+    void siguenAlRecitalEnRecitalesGrandes() {
+        List<ArtistaExterno> externos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            externos.add(new ArtistaExterno("Ext " + i, Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS),
+                    Set.of(), 100.0 + i, 100, i % 7 == 0 ? TipoRecital.ROCK : null));
+        }
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            canciones.add(new Cancion("C" + i, List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL),
+                    new RolRequerido(RolTipo.COROS), new RolRequerido(RolTipo.COROS))));
+        }
+        Recital recital = new Recital("Grande", canciones, List.of(), externos, TipoRecital.ROCK);
+        InstantaneaRecital inicial = recital.tomarInstantanea();
+
+        Random random = new Random(7);
+        for (int paso = 0; paso < 3000; paso++) {
+            Cancion c = canciones.get(random.nextInt(canciones.size()));
+            RolRequerido rol = c.getRolesRequeridos().get(random.nextInt(3));
+            ArtistaExterno externo = externos.get(random.nextInt(externos.size()));
+            if (rol.estaCubierto()) {
+                rol.desasignar();
+            } else if (!c.tieneAsignado(externo)) {
+                rol.asignar(externo);
+            }
+        }
+
+        InstantaneaRecital actual = recital.tomarInstantanea();
+        assertEquals(recital.calcularCostoDetallado().totalFinal(), actual.getCostoTotal(), 0.0001);
+        int distintos = 0;
+        for (Cancion c : canciones) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                assertSame(rol.getArtistaAsignado(), actual.getArtistaAsignado(rol));
+                if (rol.estaCubierto()) {
+                    distintos++;
+                }
+            }
+        }
+        assertEquals(distintos, inicial.rolesDistintos(actual).size());
+        assertEquals(1200 - distintos, actual.getCantidadFaltantes());
+        assertTrue(inicial.rolesDistintos(inicial).isEmpty());
+    }
+}
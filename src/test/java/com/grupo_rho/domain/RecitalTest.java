@@ -5,6 +5,10 @@ import com.grupo_rho.domain.artista.ArtistaExterno;
 import com.grupo_rho.domain.artista.RolTipo;
 import com.grupo_rho.domain.cancion.Cancion;
 import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.CacheCostos;
+import com.grupo_rho.domain.recital.CostoRecitalDetalle;
+import com.grupo_rho.domain.recital.IndiceAsignaciones;
+import com.grupo_rho.domain.recital.IndiceCandidatos;
 import com.grupo_rho.domain.recital.Recital;
 import com.grupo_rho.domain.recital.TipoRecital;
 import org.junit.jupiter.api.Test;
@@ -47,6 +51,36 @@ class RecitalTest {
         assertEquals(1, faltantes.get(RolTipo.BATERIA));
     }
 
+    @Test
+    void rolesFaltantesTotalesSeMantienenConCadaAsignacion() {
+        ArtistaExterno george = new ArtistaExterno(
+                "George", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of("Wham!"), 1000.0, 3, null);
+        ArtistaExterno andrew = new ArtistaExterno(
+                "Andrew", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Wham!"), 800.0, 3, null);
+
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido coros1 = new RolRequerido(RolTipo.COROS);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c1 = new Cancion("C1", List.of(voz1, coros1));
+        Cancion c2 = new Cancion("C2", List.of(voz2));
+        voz2.asignar(george);
+
+        Recital recital = new Recital("Faltantes", List.of(c1, c2), List.of(), List.of(george, andrew), TipoRecital.POP);
+        assertEquals(Map.of(RolTipo.VOZ_PRINCIPAL, 1, RolTipo.COROS, 1), recital.getRolesFaltantesTotales());
+
+        voz1.asignar(andrew);
+        voz1.asignar(george);
+        assertEquals(Map.of(RolTipo.COROS, 1), recital.getRolesFaltantesTotales());
+        assertEquals(0, recital.getRolesFaltantesTotales(RolTipo.VOZ_PRINCIPAL));
+        assertEquals(Map.of(RolTipo.COROS, 1), recital.getRolesFaltantesCancion(c1));
+
+        voz2.desasignar();
+        coros1.asignar(george);
+        assertEquals(Map.of(RolTipo.VOZ_PRINCIPAL, 1), recital.getRolesFaltantesTotales());
+        assertTrue(recital.getRolesFaltantesCancion(c1).isEmpty());
+        assertEquals(Map.of(RolTipo.VOZ_PRINCIPAL, 1), recital.getRolesFaltantesCancion(c2));
+    }
+
     @Test
     void getArtistasContratadosDevuelveExternosSinDuplicar() {
         ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
@@ -136,4 +170,179 @@ class RecitalTest {
         double costo = recital.getCostoTotalRecital();
         assertEquals(3000.0, costo, 0.0001);
     }
+
+    @Test
+    void registroDeCostosSeMantieneAlAsignarYDesasignar() {
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
+        ArtistaExterno estrella = new ArtistaExterno(
+                "Estrella Rock",
+                Set.of(RolTipo.VOZ_PRINCIPAL),
+                Set.of("RockBand"),
+                2000.0,
+                3,
+                TipoRecital.ROCK
+        );
+        ArtistaExterno otraEstrella = new ArtistaExterno(
+                "Otra Estrella",
+                Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS),
+                Set.of("Queen"),
+                1000.0,
+                3,
+                TipoRecital.ROCK
+        );
+
+        Cancion c1 = new Cancion(
+                "C1",
+                List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.COROS))
+        );
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+
+        Recital recital = new Recital(
+                "Test registro",
+                List.of(c1, c2),
+                List.of(brian),
+                List.of(estrella, otraEstrella),
+                TipoRecital.ROCK
+        );
+
+        c1.asignarArtista(c1.getRolesRequeridos().get(0), estrella);
+        c1.asignarArtista(c1.getRolesRequeridos().get(1), otraEstrella);
+        c2.asignarArtista(c2.getRolesRequeridos().get(0), otraEstrella);
+        assertDetalleConsistente(recital);
+        // Estrella Rock factura 2000, Otra Estrella 2 × 500 (comparte Queen)
+        assertEquals(estrella, recital.calcularCostoDetallado().artistaEstrella());
+        assertEquals(3000.0 - 500.0, recital.getCostoTotalRecital(), 0.0001);
+
+        c1.getRolesRequeridos().get(0).desasignar();
+        assertDetalleConsistente(recital);
+        assertEquals(otraEstrella, recital.calcularCostoDetallado().artistaEstrella());
+        assertEquals(1000.0 - 250.0, recital.getCostoTotalRecital(), 0.0001);
+
+        c1.getRolesRequeridos().get(1).desasignar();
+        c2.getRolesRequeridos().get(0).desasignar();
+        assertDetalleConsistente(recital);
+        assertNull(recital.calcularCostoDetallado().artistaEstrella());
+        assertEquals(0.0, recital.getCostoTotalRecital());
+    }
+
+    @Test
+    void indiceDeAsignacionesSigueAsignacionesReasignacionesYDesasignaciones() {
+        ArtistaExterno george = new ArtistaExterno(
+                "George", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of("Wham!"), 1000.0, 3, null);
+        ArtistaExterno andrew = new ArtistaExterno(
+                "Andrew", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Wham!"), 800.0, 3, null);
+
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido coros1 = new RolRequerido(RolTipo.COROS);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c1 = new Cancion("C1", List.of(voz1, coros1));
+        Cancion c2 = new Cancion("C2", List.of(voz2));
+        // Lo asignado antes de crear el recital también se indexa
+        voz2.asignar(george);
+
+        Recital recital = new Recital("Índice", List.of(c1, c2), List.of(), List.of(george, andrew), TipoRecital.POP);
+        IndiceAsignaciones indice = recital.getIndiceAsignaciones();
+
+        coros1.asignar(george);
+        voz1.asignar(andrew);
+        assertEquals(Map.of(voz2, c2, coros1, c1), indice.getAsignaciones(george));
+        assertEquals(List.of(george, andrew), recital.getArtistasContratados());
+
+        // Reasignar saca al anterior del índice
+        voz1.asignar(george);
+        assertTrue(indice.getAsignaciones(andrew).isEmpty());
+        assertEquals(List.of(george), recital.getArtistasContratados());
+        assertEquals(c1, indice.getAsignaciones(george).get(voz1));
+
+        voz1.desasignar();
+        coros1.desasignar();
+        voz2.desasignar();
+        assertTrue(indice.getAsignaciones(george).isEmpty());
+        assertTrue(recital.getArtistasContratados().isEmpty());
+    }
+
+    @Test
+    void indiceDeCandidatosOrdenaPorCostoYSigueElCupo() {
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
+        ArtistaExterno caro = new ArtistaExterno(
+                "Caro", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 1, null);
+        ArtistaExterno conBanda = new ArtistaExterno(
+                "Con Banda", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Queen"), 1200.0, 2, null);
+        ArtistaExterno barato = new ArtistaExterno(
+                "Barato", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of(), 400.0, 1, null);
+
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido coros1 = new RolRequerido(RolTipo.COROS);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c1 = new Cancion("C1", List.of(voz1, coros1));
+        Cancion c2 = new Cancion("C2", List.of(voz2));
+
+        Recital recital = new Recital(
+                "Candidatos", List.of(c1, c2), List.of(brian), List.of(caro, conBanda, barato), TipoRecital.ROCK);
+        IndiceCandidatos indice = recital.getIndiceCandidatos();
+
+        // Con Banda cuesta 600 por compartir banda con Brian
+        assertEquals(List.of(barato, conBanda, caro), indice.getDisponibles(RolTipo.VOZ_PRINCIPAL));
+        assertSame(barato, indice.buscarMasBarato(RolTipo.VOZ_PRINCIPAL, c1));
+
+        // Al llenar su cupo sale de todos sus roles
+        coros1.asignar(barato);
+        assertEquals(List.of(conBanda, caro), indice.getDisponibles(RolTipo.VOZ_PRINCIPAL));
+        assertTrue(indice.getDisponibles(RolTipo.COROS).isEmpty());
+
+        // Quien ya toca en la canción se saltea, aunque le quede cupo
+        voz2.asignar(conBanda);
+        assertSame(conBanda, indice.buscarMasBarato(RolTipo.VOZ_PRINCIPAL, c1));
+        assertSame(caro, indice.buscarMasBarato(RolTipo.VOZ_PRINCIPAL, c2));
+
+        // Al liberarse vuelve, y un entrenamiento lo reubica
+        coros1.desasignar();
+        assertSame(barato, indice.buscarMasBarato(RolTipo.COROS, c1));
+        caro.entrenar(RolTipo.COROS);
+        indice.actualizar(caro);
+        assertEquals(List.of(barato, caro), indice.getDisponibles(RolTipo.COROS));
+        barato.entrenar(RolTipo.BAJO);
+        barato.entrenar(RolTipo.BATERIA);
+        indice.actualizar(barato);
+        assertEquals(List.of(conBanda, barato, caro), indice.getDisponibles(RolTipo.VOZ_PRINCIPAL));
+        assertEquals(List.of(barato), indice.getDisponibles(RolTipo.BAJO));
+    }
+
+    @Test
+    void cacheDeCostosUsaElIndiceDeBandasYReflejaEntrenamientos() {
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen", "Smile"));
+        ArtistaBase roger = new ArtistaBase("Roger", Set.of(RolTipo.BATERIA), Set.of("Queen", "The Cross"));
+        ArtistaExterno conBanda = new ArtistaExterno(
+                "Con Banda", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Otra", "The Cross"), 1000.0, 2, null);
+        ArtistaExterno sinBanda = new ArtistaExterno(
+                "Sin Banda", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Otra"), 1000.0, 2, null);
+
+        Recital recital = new Recital(
+                "Cache", List.of(), List.of(brian, roger), List.of(conBanda, sinBanda), TipoRecital.ROCK);
+        CacheCostos cache = recital.getCacheCostos();
+
+        for (ArtistaExterno externo : List.of(conBanda, sinBanda)) {
+            assertEquals(externo.getCostoFinal(recital.getArtistasBase()), cache.getCostoFinal(externo), 0.0001);
+        }
+        assertEquals(500.0, cache.getCostoFinal(conBanda), 0.0001);
+        assertEquals(Set.of(roger), cache.basesConBandaCompartida(conBanda));
+        assertTrue(cache.basesConBandaCompartida(sinBanda).isEmpty());
+
+        // El entrenamiento sube el costo base y el cache lo refleja sin invalidarse
+        conBanda.entrenar(RolTipo.COROS);
+        assertEquals(750.0, cache.getCostoFinal(conBanda), 0.0001);
+        assertEquals(conBanda.getCostoFinal(recital.getArtistasBase()), cache.getCostoFinal(conBanda), 0.0001);
+    }
+
+    private void assertDetalleConsistente(Recital recital) {
+        CostoRecitalDetalle incremental = recital.calcularCostoDetallado();
+        CostoRecitalDetalle desdeCero = recital.recalcularCostoDetallado();
+
+        assertEquals(desdeCero.totalSinEntrenamiento(), incremental.totalSinEntrenamiento(), 0.0001);
+        assertEquals(desdeCero.aumentoPorEntrenamientos(), incremental.aumentoPorEntrenamientos(), 0.0001);
+        assertEquals(desdeCero.descuentoPorBandas(), incremental.descuentoPorBandas(), 0.0001);
+        assertEquals(desdeCero.descuentoArtistaEstrella(), incremental.descuentoArtistaEstrella(), 0.0001);
+        assertEquals(desdeCero.totalFinal(), incremental.totalFinal(), 0.0001);
+        assertEquals(desdeCero.artistaEstrella(), incremental.artistaEstrella());
+    }
 }
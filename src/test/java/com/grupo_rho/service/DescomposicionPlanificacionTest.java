@@ -0,0 +1,130 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescomposicionPlanificacionTest {
+
+    @Test
+    void separaLaCancionDePianoYResuelvePorFlujoLoQueNoDependeDeLaEstrella() {
+        ArtistaExterno pianista = new ArtistaExterno(
+                "Pianista", Set.of(RolTipo.PIANO), Set.of("Solo"), 900.0, 1, null);
+        ArtistaExterno cantante = new ArtistaExterno(
+                "Cantante", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Banda A"), 1000.0, 2, TipoRecital.ROCK);
+        ArtistaExterno baterista = new ArtistaExterno(
+                "Baterista", Set.of(RolTipo.BATERIA, RolTipo.VOZ_PRINCIPAL), Set.of("Banda B"), 500.0, 2, null);
+
+        Cancion solo = new Cancion("Song Solo Piano", List.of(new RolRequerido(RolTipo.PIANO)));
+        Cancion banda1 = new Cancion("Banda 1", List.of(
+                new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.BATERIA)));
+        Cancion banda2 = new Cancion("Banda 2", List.of(
+                new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.BATERIA)));
+        Recital recital = new Recital("Componentes", List.of(solo, banda1, banda2), List.of(),
+                List.of(pianista, cantante, baterista), TipoRecital.ROCK);
+
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, todosLosSlots(recital));
+        DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(modelo);
+
+        assertEquals(2, descomposicion.getCantidadComponentes());
+        assertTrue(descomposicion.tieneBloqueEstrella());
+
+        int[] aditivas = descomposicion.resolverAditivas(ForkJoinPool.commonPool());
+        assertEquals(0, aditivas[0]);
+        ModeloPlanificacion bloque = descomposicion.bloqueEstrella(aditivas);
+        assertEquals(4, bloque.cantidadSlots());
+        assertEquals(900.0, bloque.costoFijo, 0.0001);
+
+        SolucionModelo combinada = descomposicion.combinar(aditivas, resolver(bloque));
+        // 900 del piano + 2 * 1000 de voz (estrella, -500) + 2 * 500 de batería
+        assertEquals(3400.0, combinada.costo(), 0.0001);
+        assertEquals(resolver(modelo).costo(), combinada.costo(), 0.0001);
+    }
+
+    @Test
+    void combinarLasComponentesDaElMismoOptimoQueResolverTodoJunto() {
+        for (long semilla = 1; semilla <= 30; semilla++) {
+            Recital recital = recitalPorGrupos(semilla);
+            ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, todosLosSlots(recital));
+            SolucionModelo exacta = resolver(modelo);
+            if (exacta == null) {
+                continue;
+            }
+
+            DescomposicionPlanificacion descomposicion = new DescomposicionPlanificacion(modelo);
+            assertTrue(descomposicion.getCantidadComponentes() >= 1);
+            int[] aditivas = descomposicion.resolverAditivas(ForkJoinPool.commonPool());
+            SolucionModelo delBloque = descomposicion.tieneBloqueEstrella()
+                    ? resolver(descomposicion.bloqueEstrella(aditivas))
+                    : null;
+            SolucionModelo combinada = descomposicion.combinar(aditivas, delBloque);
+
+            assertEquals(exacta.costo(), combinada.costo(), 0.0001);
+            if (delBloque != null) {
+                assertEquals(delBloque.costo(), combinada.costo(), 0.0001);
+            }
+        }
+    }
+
+    /**
+     * Tres grupos de canciones (voz, piano y batería), cada uno con su propio pool de externos.
+     */
+    private static Recital recitalPorGrupos(long semilla) {
+        Random random = new Random(semilla);
+        RolTipo[] grupos = {RolTipo.VOZ_PRINCIPAL, RolTipo.PIANO, RolTipo.BATERIA};
+        List<Cancion> canciones = new ArrayList<>();
+        List<ArtistaExterno> externos = new ArrayList<>();
+
+        for (RolTipo rol : grupos) {
+            int cantidadCanciones = 2 + random.nextInt(2);
+            for (int i = 0; i < cantidadCanciones; i++) {
+                List<RolRequerido> requeridos = new ArrayList<>();
+                int cantidadRoles = 1 + random.nextInt(2);
+                for (int j = 0; j < cantidadRoles; j++) {
+                    requeridos.add(new RolRequerido(rol));
+                }
+                canciones.add(new Cancion(rol + " " + i, requeridos));
+            }
+            int cantidadExternos = 3 + random.nextInt(3);
+            for (int i = 0; i < cantidadExternos; i++) {
+                externos.add(new ArtistaExterno(
+                        rol + " ext " + i,
+                        Set.of(rol),
+                        Set.of("Banda " + rol + i),
+                        100.0 * (5 + random.nextInt(20)),
+                        1 + random.nextInt(3),
+                        random.nextInt(5) == 0 ? TipoRecital.ROCK : null
+                ));
+            }
+        }
+        return new Recital("Grupos " + semilla, canciones, List.of(), externos, TipoRecital.ROCK);
+    }
+
+    private static List<RolPendiente> todosLosSlots(Recital recital) {
+        List<RolPendiente> slots = new ArrayList<>();
+        for (Cancion c : recital.getCanciones()) {
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                slots.add(new RolPendiente(c, rol));
+            }
+        }
+        return slots;
+    }
+
+    private static SolucionModelo resolver(ModeloPlanificacion modelo) {
+        BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(modelo);
+        busqueda.buscar(new EstadoBusqueda(modelo));
+        return busqueda.getSolucion();
+    }
+}
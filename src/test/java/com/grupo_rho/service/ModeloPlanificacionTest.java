@@ -0,0 +1,120 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaBase;
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import com.grupo_rho.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModeloPlanificacionTest {
+
+    @Test
+    void compilarArmaCandidatosOrdenadosYExcluyeAlQueYaEstaEnLaCancion() {
+        ArtistaBase brian = new ArtistaBase("Brian", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of("Queen"));
+        ArtistaExterno caro = new ArtistaExterno(
+                "Caro", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of("Band"), 2000.0, 2, null);
+        ArtistaExterno conBanda = new ArtistaExterno(
+                "Con Banda", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Queen"), 1500.0, 2, null);
+        ArtistaExterno sinCupo = new ArtistaExterno(
+                "Sin Cupo", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("Band"), 100.0, 0, null);
+
+        RolRequerido voz = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido coros = new RolRequerido(RolTipo.COROS);
+        Cancion cancion = new Cancion("C1", List.of(voz, coros));
+        cancion.asignarArtista(coros, caro);
+        caro.registrarAsignacionEnCancion();
+
+        Recital recital = new Recital(
+                "Modelo", List.of(cancion), List.of(brian), List.of(caro, conBanda, sinCupo), TipoRecital.ROCK);
+
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(
+                recital, List.of(new RolPendiente(cancion, voz)));
+
+        assertEquals(3, modelo.cantidadExternos());
+        assertEquals(1, modelo.cantidadSlots());
+        assertEquals(
+                ModeloPlanificacion.mascara(RolTipo.VOZ_PRINCIPAL) | ModeloPlanificacion.mascara(RolTipo.COROS),
+                modelo.rolesMascara[0]
+        );
+        assertEquals(750.0, modelo.costo[1], 0.0001);
+        assertEquals(1, modelo.cupo[0]);
+
+        // "Caro" ya está en la canción y "Sin Cupo" no tiene cupo: sólo queda "Con Banda"
+        assertArrayEquals(new int[]{1}, modelo.candidatos[0]);
+        assertEquals(2000.0, modelo.costoFijo, 0.0001);
+
+        Map<RolRequerido, ArtistaExterno> traducido = modelo.traducir(new int[]{1});
+        assertEquals(conBanda, traducido.get(voz));
+    }
+
+    @Test
+    void compilarDescartaDominadosSinPerderLaProfundidadNecesaria() {
+        ArtistaExterno barato = new ArtistaExterno(
+                "Barato", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("A"), 100.0, 1, null);
+        ArtistaExterno medio = new ArtistaExterno(
+                "Medio", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("B"), 200.0, 1, null);
+        ArtistaExterno caro = new ArtistaExterno(
+                "Caro", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("C"), 300.0, 1, null);
+        ArtistaExterno estrella = new ArtistaExterno(
+                "Estrella", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of("D"), 400.0, 1, TipoRecital.ROCK);
+
+        RolRequerido voz1 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido voz2 = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        Cancion c1 = new Cancion("C1", List.of(voz1));
+        Cancion c2 = new Cancion("C2", List.of(voz2));
+        Recital recital = new Recital(
+                "Dominancia", List.of(c1, c2), List.of(), List.of(barato, medio, caro, estrella), TipoRecital.ROCK);
+
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(
+                recital, List.of(new RolPendiente(c1, voz1), new RolPendiente(c2, voz2)));
+
+        // Dos slots con cupo 1: hacen falta Barato y Medio; Caro sobra y Estrella puede ser estrella
+        assertArrayEquals(new int[]{0, 1, 3}, modelo.candidatos[0]);
+        assertArrayEquals(new int[]{0, 1, 3}, modelo.candidatos[1]);
+        assertEquals(new PodaPorDominancia(4, 1, 8, 6), modelo.poda);
+        assertEquals(0.25, modelo.poda.reduccion(), 0.0001);
+    }
+
+    @Test
+    void podaPorDominanciaNoCambiaElOptimo() {
+        long candidatosDescartados = 0;
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            Recital recital = TestDataFactory.recitalAleatorio(semilla, 4, 30);
+            List<RolPendiente> pendientes = new ArrayList<>();
+            for (Cancion c : recital.getCanciones()) {
+                for (RolRequerido rol : c.getRolesRequeridos()) {
+                    pendientes.add(new RolPendiente(c, rol));
+                }
+            }
+
+            ModeloPlanificacion podado = ModeloPlanificacion.compilar(recital, pendientes);
+            ModeloPlanificacion completo = ModeloPlanificacion.compilar(recital, pendientes, false);
+            candidatosDescartados += podado.poda.candidatosAntes() - podado.poda.candidatosDespues();
+
+            SolucionModelo conPoda = resolver(podado);
+            SolucionModelo sinPoda = resolver(completo);
+            assertEquals(sinPoda == null, conPoda == null);
+            if (sinPoda != null) {
+                assertEquals(sinPoda.costo(), conPoda.costo(), 0.0001);
+            }
+        }
+        assertTrue(candidatosDescartados > 0);
+    }
+
+    private static SolucionModelo resolver(ModeloPlanificacion modelo) {
+        BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(modelo);
+        busqueda.buscar(new EstadoBusqueda(modelo));
+        return busqueda.getSolucion();
+    }
+}
@@ -2,18 +2,27 @@ package com.grupo_rho.service;
 
 import com.grupo_rho.domain.artista.ArtistaBase;
 import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.CatalogoArtistas;
 import com.grupo_rho.domain.artista.RolTipo;
 import com.grupo_rho.domain.cancion.Cancion;
 import com.grupo_rho.domain.cancion.RolRequerido;
 import com.grupo_rho.domain.exception.ArtistaNoEntrenableException;
 import com.grupo_rho.domain.exception.NoHayArtistasDisponiblesException;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
 import com.grupo_rho.domain.recital.Recital;
 import com.grupo_rho.domain.recital.TipoRecital;
 import com.grupo_rho.util.TestDataFactory;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +45,49 @@ class PlanificacionServiceTest {
         );
     }
 
+    @Test
+    void contratarParaCancionEnSerieEligeSiempreElMasBaratoDisponible() {
+        Recital recital = TestDataFactory.recitalAleatorio(11, 300, 120);
+        PlanificacionService service = new PlanificacionService(recital);
+        List<ArtistaExterno> pool = recital.getArtistasExternosPool();
+
+        for (Cancion c : recital.getCanciones()) {
+            Set<RolRequerido> cubiertosAntes = new HashSet<>();
+            c.getRolesRequeridos().stream().filter(RolRequerido::estaCubierto).forEach(cubiertosAntes::add);
+            Map<ArtistaExterno, Integer> usos = new HashMap<>();
+            pool.forEach(e -> usos.put(e, e.getCancionesAsignadasEnRecital()));
+            try {
+                service.contratarParaCancion(c);
+            } catch (NoHayArtistasDisponiblesException e) {
+                continue;
+            }
+
+            // Se repite la elección rol por rol recorriendo todo el pool
+            Set<Object> enLaCancion = new HashSet<>();
+            cubiertosAntes.forEach(rol -> enLaCancion.add(rol.getArtistaAsignado()));
+            for (RolRequerido rol : c.getRolesRequeridos()) {
+                if (cubiertosAntes.contains(rol) || !(rol.getArtistaAsignado() instanceof ArtistaExterno elegido)) {
+                    continue;
+                }
+                ArtistaExterno esperado = null;
+                for (ArtistaExterno e : pool) {
+                    if (e.puedeTocar(rol.getTipoRol()) && usos.get(e) < e.getMaxCanciones() && !enLaCancion.contains(e)
+                            && (esperado == null || costo(recital, e) < costo(recital, esperado))) {
+                        esperado = e;
+                    }
+                }
+                assertSame(esperado, elegido);
+                enLaCancion.add(elegido);
+                usos.merge(elegido, 1, Integer::sum);
+            }
+        }
+        assertEquals(recital.recalcularCostoDetallado().totalFinal(), recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    private static double costo(Recital recital, ArtistaExterno externo) {
+        return recital.getCacheCostos().getCostoFinal(externo);
+    }
+
     @Test
     void contratarParaCancionLanzaExcepcionSiNoHayArtistasParaUnRol() {
         // Canción requiere un rol exótico sin nadie que lo pueda tocar
@@ -249,4 +301,548 @@ class PlanificacionServiceTest {
         );
         assertFalse(c1.estaCompleta());
     }
+
+    @Test
+    void contratarParaTodoElRecitalEligeEstrellaSiElDescuentoLaHaceMasBarata() {
+        ArtistaExterno barato = new ArtistaExterno(
+                "Barato",
+                Set.of(RolTipo.VOZ_PRINCIPAL),
+                Set.of("Band"),
+                1000.0,
+                2,
+                null
+        );
+        ArtistaExterno estrella = new ArtistaExterno(
+                "Estrella",
+                Set.of(RolTipo.VOZ_PRINCIPAL),
+                Set.of("Otra Band"),
+                1200.0,
+                2,
+                TipoRecital.ROCK
+        );
+
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+
+        Recital recital = new Recital(
+                "Test estrella",
+                List.of(c1, c2),
+                List.of(),
+                List.of(barato, estrella),
+                TipoRecital.ROCK
+        );
+
+        new PlanificacionService(recital).contratarParaTodoElRecital();
+
+        // 2 × 1200 - 25% = 1800, mejor que 2 × 1000 = 2000 o 2200 - 300 = 1900
+        assertEquals(1800.0, recital.getCostoTotalRecital(), 0.0001);
+        assertEquals(2, estrella.getCancionesAsignadasEnRecital());
+        assertEquals(0, barato.getCancionesAsignadasEnRecital());
+    }
+
+    @Test
+    void contratarParaTodoElRecitalDescartaPermutacionesDeSlotsYExternosIntercambiables() {
+        List<ArtistaExterno> pool = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pool.add(new ArtistaExterno("Clon " + i, Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 2, null));
+        }
+        pool.add(new ArtistaExterno("Estrella", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1500.0, 1, TipoRecital.ROCK));
+
+        // Dos voces principales por canción: slots idénticos
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+
+        Recital recital = new Recital("Simetrías", List.of(c1, c2), List.of(), pool, TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+        service.contratarParaTodoElRecital(ModoPlanificacion.SECUENCIAL);
+
+        // 4 × 1000 = 4000, contra 3 × 1000 + 1500 - 375 = 4125 con la estrella
+        assertEquals(4000.0, recital.getCostoTotalRecital(), 0.0001);
+        EstadisticasPlanificacion estadisticas = service.getUltimasEstadisticas();
+        assertEquals("branch and bound", estadisticas.metodo());
+        assertTrue(estadisticas.ramasPodadasPorSimetria() > 0);
+    }
+
+    @Test
+    void contratarParaTodoElRecitalInformaLosRolesQueNoAlcanzanSinBuscar() {
+        List<ArtistaExterno> pool = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pool.add(new ArtistaExterno(
+                    "Voz " + i, Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0 + 10 * i, 3, TipoRecital.ROCK));
+        }
+        // Entre los dos bateristas cubren 10 canciones, pero hay 12
+        pool.add(new ArtistaExterno("Batero 1", Set.of(RolTipo.BATERIA), Set.of(), 800.0, 5, null));
+        pool.add(new ArtistaExterno("Batero 2", Set.of(RolTipo.BATERIA), Set.of(), 900.0, 5, null));
+
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            canciones.add(new Cancion("C" + i, List.of(
+                    new RolRequerido(RolTipo.VOZ_PRINCIPAL),
+                    new RolRequerido(RolTipo.BATERIA))));
+        }
+
+        Recital recital = new Recital("Ajustado", canciones, List.of(), pool, TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        RecitalInfactibleException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+                RecitalInfactibleException.class,
+                () -> service.contratarParaTodoElRecital()
+        ));
+        assertTrue(recital.getArtistasContratados().isEmpty());
+
+        // El cuello de botella son las baterías, no las voces
+        assertEquals(2, e.getRolesSinCubrir());
+        assertEquals(Set.of(RolTipo.BATERIA), e.getRolesDeficientes().keySet());
+        assertEquals(12, e.getRolesDeficientes().get(RolTipo.BATERIA).size());
+        assertEquals(RolTipo.BATERIA, e.getRolFaltante());
+    }
+
+    @Test
+    void contratarParaTodoElRecitalPodaRecitalesGrandes() {
+        RolTipo[] roles = {RolTipo.VOZ_PRINCIPAL, RolTipo.GUITARRA_ELECTRICA, RolTipo.BAJO, RolTipo.BATERIA};
+
+        List<ArtistaExterno> pool = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pool.add(new ArtistaExterno(
+                    "Ext " + i,
+                    Set.of(roles[i % roles.length]),
+                    Set.of("Band " + i),
+                    1000.0 + i,
+                    10,
+                    null
+            ));
+        }
+
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<RolRequerido> requeridos = new ArrayList<>();
+            for (RolTipo rol : roles) {
+                requeridos.add(new RolRequerido(rol));
+            }
+            canciones.add(new Cancion("C" + i, requeridos));
+        }
+
+        Recital recital = new Recital("Grande", canciones, List.of(), pool, TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.contratarParaTodoElRecital());
+
+        // Cada rol lo cubre siempre el más barato que lo sabe tocar (Ext 0..3)
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        assertEquals(10 * (1000.0 + 1001.0 + 1002.0 + 1003.0), recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    @Test
+    void contratarEnParaleloEncuentraElMismoCostoQueSecuencial() {
+        for (long semilla = 1; semilla <= 10; semilla++) {
+            Recital secuencial = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            Recital paralelo = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+
+            boolean haySolucion = true;
+            try {
+                new PlanificacionService(secuencial).contratarParaTodoElRecital(ModoPlanificacion.SECUENCIAL);
+            } catch (NoHayArtistasDisponiblesException e) {
+                haySolucion = false;
+            }
+
+            if (haySolucion) {
+                new PlanificacionService(paralelo).contratarParaTodoElRecital(ModoPlanificacion.PARALELO);
+                assertTrue(paralelo.getCanciones().stream().allMatch(Cancion::estaCompleta));
+                assertEquals(secuencial.getCostoTotalRecital(), paralelo.getCostoTotalRecital(), 0.0001);
+            } else {
+                PlanificacionService service = new PlanificacionService(paralelo);
+                assertThrows(
+                        NoHayArtistasDisponiblesException.class,
+                        () -> service.contratarParaTodoElRecital(ModoPlanificacion.PARALELO)
+                );
+                assertTrue(paralelo.getArtistasContratados().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void contratarConPresupuestoDevuelveElMejorPlanHastaElCorte() {
+        Recital recital = TestDataFactory.recitalAleatorio(3, 30, 60);
+        PlanificacionService service = new PlanificacionService(recital);
+        List<ProgresoPlanificacion> mejoras = new ArrayList<>();
+
+        ProgresoPlanificacion resultado = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                service.contratarParaTodoElRecital(
+                        ModoPlanificacion.SECUENCIAL, ControlBusqueda.conNodos(500), mejoras::add));
+
+        assertFalse(resultado.optimoDemostrado());
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        assertEquals(resultado.costo(), recital.getCostoTotalRecital(), 0.0001);
+        assertTrue(resultado.cotaInferior() <= resultado.costo());
+        assertTrue(resultado.brecha() >= 0.0);
+
+        // Las mejoras llegan en orden y la última es el plan aplicado
+        assertFalse(mejoras.isEmpty());
+        for (int i = 1; i < mejoras.size(); i++) {
+            assertTrue(mejoras.get(i).costo() < mejoras.get(i - 1).costo());
+        }
+        assertEquals(resultado.costo(), mejoras.getLast().costo(), 0.0001);
+    }
+
+    @Test
+    void contratarSePuedeCancelarDesdeElInformeDeMejoras() {
+        for (ModoPlanificacion modo : ModoPlanificacion.values()) {
+            Recital recital = TestDataFactory.recitalAleatorio(3, 30, 60);
+            PlanificacionService service = new PlanificacionService(recital);
+            ControlBusqueda control = ControlBusqueda.sinLimite();
+
+            ProgresoPlanificacion resultado = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    service.contratarParaTodoElRecital(modo, control, progreso -> control.cancelar()));
+
+            assertTrue(control.fueDetenida());
+            assertFalse(resultado.optimoDemostrado());
+            assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        }
+    }
+
+    @Test
+    void contratarSinLimiteDemuestraElOptimo() {
+        for (long semilla = 1; semilla <= 5; semilla++) {
+            Recital recital = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            Recital referencia = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            try {
+                new PlanificacionService(referencia).contratarParaTodoElRecital();
+            } catch (NoHayArtistasDisponiblesException e) {
+                continue;
+            }
+
+            ProgresoPlanificacion resultado = new PlanificacionService(recital).contratarParaTodoElRecital(
+                    ModoPlanificacion.SECUENCIAL, ControlBusqueda.sinLimite(), progreso -> { });
+
+            assertTrue(resultado.optimoDemostrado());
+            assertEquals(0.0, resultado.brecha());
+            assertEquals(referencia.getCostoTotalRecital(), resultado.costo(), 0.0001);
+        }
+    }
+
+    @Test
+    void contratarParaTodoElRecitalSinEstrellaResuelveRecitalesGrandesConFlujo() {
+        Recital recital = TestDataFactory.recitalAleatorio(7, 40, 200, TipoRecital.POP);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.contratarParaTodoElRecital());
+
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+            assertTrue(externo.getCancionesAsignadasEnRecital() <= externo.getMaxCanciones());
+        }
+    }
+
+    @Test
+    void contratarPorEstrellaDaElMismoOptimoQueElBranchAndBound() {
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            Recital porEstrella = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            Recital referencia = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            try {
+                new PlanificacionService(referencia).contratarParaTodoElRecital(ModoPlanificacion.SECUENCIAL);
+            } catch (NoHayArtistasDisponiblesException e) {
+                continue;
+            }
+
+            PlanificacionService service = new PlanificacionService(porEstrella);
+            ProgresoPlanificacion resultado = service.contratarParaTodoElRecital(
+                    ModoPlanificacion.POR_ESTRELLA, ControlBusqueda.sinLimite(), progreso -> { });
+
+            assertTrue(resultado.optimoDemostrado());
+            assertEquals(referencia.getCostoTotalRecital(), porEstrella.getCostoTotalRecital(), 0.0001);
+            assertEquals(resultado.costo(), porEstrella.getCostoTotalRecital(), 0.0001);
+        }
+    }
+
+    @Test
+    void contratarPorEstrellaResuelveRecitalesGrandesConEstrella() {
+        Recital recital = TestDataFactory.recitalAleatorio(11, 60, 300);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        ProgresoPlanificacion resultado = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                service.contratarParaTodoElRecital(
+                        ModoPlanificacion.POR_ESTRELLA, ControlBusqueda.sinLimite(), progreso -> { }));
+
+        assertTrue(resultado.optimoDemostrado());
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        assertEquals(resultado.costo(), recital.getCostoTotalRecital(), 0.0001);
+        assertEquals("flujo de costo mínimo por candidato a estrella", service.getUltimasEstadisticas().metodo());
+    }
+
+    @Test
+    void contratarConEntrenamientosCubreRolesQueNadieTocaSinEntrenarAContratados() {
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 2, null);
+        ArtistaExterno beto = new ArtistaExterno("Beto", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 600.0, 2, null);
+        ArtistaExterno caro = new ArtistaExterno("Caro", Set.of(RolTipo.BAJO), Set.of(), 400.0, 1, null);
+        ArtistaExterno dani = new ArtistaExterno("Dani", Set.of(RolTipo.BAJO), Set.of(), 100.0, 2, null);
+
+        RolRequerido bajo = new RolRequerido(RolTipo.BAJO);
+        Cancion c0 = new Cancion("C0", List.of(bajo));
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.PIANO)));
+        // Dani ya está contratado: aunque sería el más barato, no se lo puede entrenar
+        c0.asignarArtista(bajo, dani);
+        dani.registrarAsignacionEnCancion();
+
+        Recital recital = new Recital(
+                "Entrenar", List.of(c0, c1), List.of(), List.of(ana, beto, caro, dani), TipoRecital.ROCK);
+        PlanEntrenamientos plan = new PlanificacionService(recital).contratarConEntrenamientos();
+
+        assertEquals(List.of(new PlanEntrenamientos.Entrenamiento(caro, RolTipo.PIANO)), plan.entrenamientos());
+        assertTrue(caro.puedeTocar(RolTipo.PIANO));
+        assertFalse(dani.puedeTocar(RolTipo.PIANO));
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        // 100 de Dani + 600 de Beto + 400 * 1.5 de Caro
+        assertEquals(1300.0, plan.costo(), 0.0001);
+        assertEquals(plan.costo(), recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    @Test
+    void contratarConEntrenamientosEntrenaCuandoAbarata() {
+        ArtistaExterno caro = new ArtistaExterno("Caro", Set.of(RolTipo.BATERIA), Set.of(), 5000.0, 2, null);
+        ArtistaExterno eva = new ArtistaExterno("Eva", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 2, null);
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.BATERIA)));
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.BATERIA)));
+
+        Recital recital = new Recital("Abaratar", List.of(c1, c2), List.of(), List.of(caro, eva), TipoRecital.ROCK);
+        PlanEntrenamientos plan = new PlanificacionService(recital).contratarConEntrenamientos();
+
+        assertEquals(List.of(new PlanEntrenamientos.Entrenamiento(eva, RolTipo.BATERIA)), plan.entrenamientos());
+        assertEquals(3000.0, recital.getCostoTotalRecital(), 0.0001);
+        assertEquals(0, caro.getCancionesAsignadasEnRecital());
+    }
+
+    @Test
+    void contratarConEntrenamientosEsHeuristicoYPuedeQuedarseEnUnOptimoLocal() {
+        // Xavi (10) es el más barato de entrenar en los dos roles, pero no puede tocar ambos en la misma
+        // canción; Yago (16) sólo se prueba para un rol si es de los más baratos, y deja de serlo recién
+        // cuando Xavi ya está entrenado (y entrenar otra vez a Xavi cuesta 22.5, menos que Yago)
+        PlanEntrenamientos plan = new PlanificacionService(recitalParaEntrenar()).contratarConEntrenamientos();
+        assertEquals(115.0, plan.costo(), 0.0001);
+        assertFalse(plan.optimoDemostrado());
+
+        // Entrenando a Xavi en la voz y a Yago en la guitarra sale 15 + 24
+        Recital optimo = recitalParaEntrenar();
+        PlanificacionService service = new PlanificacionService(optimo);
+        for (ArtistaExterno externo : optimo.getArtistasExternosPool()) {
+            switch (externo.getNombre()) {
+                case "Xavi" -> service.entrenarArtista(externo, RolTipo.VOZ_PRINCIPAL);
+                case "Yago" -> service.entrenarArtista(externo, RolTipo.GUITARRA_ELECTRICA);
+                default -> { }
+            }
+        }
+        service.contratarParaTodoElRecital();
+        assertEquals(39.0, optimo.getCostoTotalRecital(), 0.0001);
+    }
+
+    private static Recital recitalParaEntrenar() {
+        List<ArtistaExterno> pool = List.of(
+                new ArtistaExterno("Vera", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 100.0, 1, null),
+                new ArtistaExterno("Gus", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of(), 100.0, 1, null),
+                new ArtistaExterno("Xavi", Set.of(RolTipo.BAJO), Set.of(), 10.0, 1, null),
+                new ArtistaExterno("Yago", Set.of(RolTipo.BAJO), Set.of(), 16.0, 1, null));
+        Cancion c1 = new Cancion("C1", List.of(
+                new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.GUITARRA_ELECTRICA)));
+        return new Recital("Entrenar", List.of(c1), List.of(), pool, TipoRecital.ROCK);
+    }
+
+    @Test
+    void contratarConEntrenamientosNoTocaNadaSiNiEntrenandoAlcanza() {
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 2, null);
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.PIANO)));
+        Recital recital = new Recital("Imposible", List.of(c1), List.of(), List.of(ana), TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        assertThrows(RecitalInfactibleException.class, service::contratarConEntrenamientos);
+        assertTrue(ana.getRolesEntrenados().isEmpty());
+        assertEquals(1000.0, ana.getCostoBase(), 0.0001);
+        assertTrue(recital.getArtistasContratados().isEmpty());
+    }
+
+    @Test
+    void contratarConEntrenamientosEscalaYNuncaCuestaMasQueSinEntrenar() {
+        Recital recital = TestDataFactory.recitalAleatorio(5, 30, 300);
+        Recital referencia = TestDataFactory.recitalAleatorio(5, 30, 300);
+        new PlanificacionService(referencia).contratarParaTodoElRecital();
+
+        PlanEntrenamientos plan = assertTimeoutPreemptively(Duration.ofSeconds(20), () ->
+                new PlanificacionService(recital).contratarConEntrenamientos());
+
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        assertTrue(plan.costo() <= referencia.getCostoTotalRecital() + 0.0001);
+        for (PlanEntrenamientos.Entrenamiento entrenamiento : plan.entrenamientos()) {
+            assertTrue(entrenamiento.artista().getRolesEntrenados().contains(entrenamiento.rol()));
+        }
+    }
+
+    @Test
+    void contratarParaCancionesConTodasEsLoMismoQueLaGlobalYConAlgunasNoTocaElResto() {
+        int comparadas = 0;
+        for (long semilla = 1; semilla <= 10; semilla++) {
+            Recital referencia = TestDataFactory.recitalAleatorio(semilla, 12, 40);
+            try {
+                new PlanificacionService(referencia).contratarParaTodoElRecital();
+            } catch (RecitalInfactibleException e) {
+                continue;
+            }
+
+            Recital todas = TestDataFactory.recitalAleatorio(semilla, 12, 40);
+            ProgresoPlanificacion resultado =
+                    new PlanificacionService(todas).contratarParaCanciones(todas.getCanciones());
+            assertEquals(referencia.getCostoTotalRecital(), resultado.costo(), 0.0001, "semilla " + semilla);
+
+            Recital algunas = TestDataFactory.recitalAleatorio(semilla, 12, 40);
+            List<Cancion> bloque = algunas.getCanciones().subList(3, 9);
+            new PlanificacionService(algunas).contratarParaCanciones(bloque);
+            for (Cancion c : algunas.getCanciones()) {
+                assertEquals(bloque.contains(c), c.estaCompleta(), "semilla " + semilla + ", " + c.getTitulo());
+            }
+            assertEquals(algunas.recalcularCostoDetallado().totalFinal(), algunas.getCostoTotalRecital(), 0.0001);
+            comparadas++;
+        }
+        assertTrue(comparadas > 0);
+    }
+
+    @Test
+    void contratarParaCancionesComparteCuposYSiNoAlcanzaNoTocaNada() {
+        ArtistaBase base = new ArtistaBase("Base", Set.of(RolTipo.BAJO), Set.of());
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 1, null);
+        ArtistaExterno bea = new ArtistaExterno("Bea", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 3000.0, 1, null);
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.BAJO)));
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+        Cancion c3 = new Cancion("C3", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL)));
+        Recital recital = new Recital("Lote", List.of(c1, c2, c3), List.of(base), List.of(ana, bea), TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+
+        // Ana ya está tomada en C3: para C1 y C2 queda sólo Bea
+        service.contratarParaCancion(c3);
+        assertThrows(RecitalInfactibleException.class, () -> service.contratarParaCanciones(List.of(c1, c2)));
+        assertFalse(c1.getRolesRequeridos().get(1).estaCubierto(), "el bajo de la base también se deshace");
+        assertTrue(c2.getRolesFaltantes().size() == 1 && bea.getCancionesAsignadasEnRecital() == 0);
+        assertEquals(1000.0, recital.getCostoTotalRecital(), 0.0001);
+
+        ProgresoPlanificacion resultado = service.contratarParaCanciones(List.of(c1));
+        assertTrue(c1.estaCompleta());
+        assertEquals(4000.0, resultado.costo(), 0.0001);
+    }
+
+    @Test
+    void recitalesDelMismoCatalogoSePlanificanEnParaleloSinInterferir() {
+        Recital referencia = TestDataFactory.recitalAleatorio(4, 10, 40);
+        CatalogoArtistas catalogo = new CatalogoArtistas(referencia.getArtistasExternosPool().stream()
+                .map(ArtistaExterno::getPerfil)
+                .toList());
+        new PlanificacionService(referencia).contratarParaTodoElRecital();
+
+        List<Recital> recitales = IntStream.range(0, 8).parallel()
+                .mapToObj(i -> {
+                    Recital molde = TestDataFactory.recitalAleatorio(4, 10, 40);
+                    Recital recital = new Recital("Copia " + i, molde.getCanciones(),
+                            molde.getArtistasBase(), catalogo.crearPool(), TipoRecital.ROCK);
+                    new PlanificacionService(recital).contratarParaTodoElRecital();
+                    return recital;
+                })
+                .toList();
+
+        for (Recital recital : recitales) {
+            assertEquals(referencia.getCostoTotalRecital(), recital.getCostoTotalRecital(), 0.0001);
+            for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+                assertEquals(recital.getIndiceAsignaciones().getAsignaciones(externo).size(),
+                        externo.getCancionesAsignadasEnRecital());
+            }
+        }
+    }
+
+    @Test
+    void repararPlanReabreVecinosSinVolverAContratarAlQuitado() {
+        // Canción por canción quedaron Ana (100) en la voz de "Uno" y Gus (400) en la guitarra de "Dos".
+        // Sin Gus y sin reabrir nada, la guitarra no tiene quién la toque: el recital queda como estaba
+        RecitalInfactibleException e = assertThrows(RecitalInfactibleException.class, () -> repararSinGus(0));
+        assertNotNull(e.getMessage());
+        // Reabriendo la voz, Ana pasa a la guitarra y Vera (150) toma la voz
+        assertEquals(250.0, repararSinGus(PlanificacionService.VECINOS_POR_ROL_LIBRE), 0.0001);
+    }
+
+    @Test
+    void repararPlanNoTomaElPlanGolosoComoCotaInferior() {
+        // Canción por canción: E y F en las dos primeras voces, A (voz y guitarra) en la tercera y C en la guitarra
+        List<Cancion> canciones = cancionesParaReparar();
+        List<ArtistaExterno> pool = poolParaReparar();
+        Recital recital = new Recital("Golosa", canciones, List.of(), pool, TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+        canciones.forEach(service::contratarParaCancion);
+        ArtistaExterno quitado = (ArtistaExterno) canciones.get(0).getRolesRequeridos().get(0).getArtistaAsignado();
+        assertEquals(5.0, quitado.getCostoBase(), 0.0001);
+
+        InstantaneaRecital anterior = recital.tomarInstantanea();
+        new RecitalService(recital).quitarArtistaDelRecital(quitado);
+        ProgresoPlanificacion progreso = service.repararPlan(anterior, Set.of(quitado), 0);
+
+        // El óptimo sin el quitado, resolviendo de cero
+        List<ArtistaExterno> sinQuitado = poolParaReparar().stream()
+                .filter(e -> !e.getNombre().equals(quitado.getNombre()))
+                .toList();
+        Recital deCero = new Recital("De cero", cancionesParaReparar(), List.of(), sinQuitado, TipoRecital.ROCK);
+        new PlanificacionService(deCero).contratarParaTodoElRecital();
+        double optimo = deCero.getCostoTotalRecital();
+
+        assertEquals(recital.getCostoTotalRecital(), progreso.costo(), 0.0001);
+        assertTrue(progreso.costo() > optimo + 0.0001);
+        assertTrue(progreso.cotaInferior() <= optimo + 0.0001);
+        assertFalse(progreso.optimoDemostrado());
+        assertTrue(progreso.brecha() >= (progreso.costo() - optimo) / progreso.costo() - 0.0001);
+    }
+
+    private static List<Cancion> cancionesParaReparar() {
+        return List.of(
+                new Cancion("Uno", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL))),
+                new Cancion("Dos", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL))),
+                new Cancion("Tres", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL))),
+                new Cancion("Cuatro", List.of(new RolRequerido(RolTipo.GUITARRA_ELECTRICA))));
+    }
+
+    private static List<ArtistaExterno> poolParaReparar() {
+        return List.of(
+                new ArtistaExterno("A", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.GUITARRA_ELECTRICA), Set.of(), 10.0, 1, null),
+                new ArtistaExterno("B", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 15.0, 2, null),
+                new ArtistaExterno("C", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of(), 100.0, 1, null),
+                new ArtistaExterno("E", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 5.0, 1, null),
+                new ArtistaExterno("F", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 5.0, 1, null));
+    }
+
+    /**
+     * Contrata canción por canción, quita a Gus y repara con el vecindario dado.
+     */
+    private static double repararSinGus(int vecinosPorRolLibre) {
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.GUITARRA_ELECTRICA),
+                Set.of(), 100.0, 1, null);
+        ArtistaExterno vera = new ArtistaExterno("Vera", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 150.0, 1, null);
+        ArtistaExterno gus = new ArtistaExterno("Gus", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of(), 400.0, 1, null);
+        RolRequerido voz = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido guitarra = new RolRequerido(RolTipo.GUITARRA_ELECTRICA);
+        Recital recital = new Recital("Reparar",
+                List.of(new Cancion("Uno", List.of(voz)), new Cancion("Dos", List.of(guitarra))),
+                List.of(), List.of(ana, vera, gus), TipoRecital.ROCK);
+        PlanificacionService service = new PlanificacionService(recital);
+        recital.getCanciones().forEach(service::contratarParaCancion);
+        assertSame(gus, guitarra.getArtistaAsignado());
+
+        InstantaneaRecital anterior = recital.tomarInstantanea();
+        new RecitalService(recital).quitarArtistaDelRecital(gus);
+        try {
+            ProgresoPlanificacion progreso = service.repararPlan(anterior, Set.of(gus), vecinosPorRolLibre);
+            // El plan goloso no era el óptimo: su costo no sirve de cota
+            assertFalse(progreso.optimoDemostrado());
+            assertTrue(progreso.cotaInferior() <= progreso.costo());
+        } finally {
+            assertEquals(0, gus.getCancionesAsignadasEnRecital());
+            for (ArtistaExterno externo : List.of(ana, vera, gus)) {
+                assertEquals(recital.getIndiceAsignaciones().getAsignaciones(externo).size(),
+                        externo.getCancionesAsignadasEnRecital());
+            }
+        }
+
+        assertTrue(voz.estaCubierto() && guitarra.estaCubierto());
+        assertEquals("reparación incremental", service.getUltimasEstadisticas().metodo());
+        return recital.getCostoTotalRecital();
+    }
 }
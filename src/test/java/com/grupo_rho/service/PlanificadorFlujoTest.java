@@ -0,0 +1,111 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import com.grupo_rho.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanificadorFlujoTest {
+
+    @Test
+    void sinEstrellaElFlujoDaElMismoCostoQueElBranchAndBound() {
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            Recital recital = TestDataFactory.recitalAleatorio(semilla, 6, 14, TipoRecital.POP);
+            ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, todosLosSlots(recital));
+            assertEquals(0, modelo.elegiblesEstrella.length);
+
+            SolucionModelo flujo = new PlanificadorFlujo(modelo).resolverSinEstrella();
+            SolucionModelo exacta = resolverConBranchAndBound(modelo);
+
+            if (exacta == null) {
+                assertNull(flujo);
+            } else {
+                assertNotNull(flujo);
+                assertEquals(exacta.costo(), flujo.costo(), 0.0001);
+                assertEsValida(modelo, flujo);
+            }
+        }
+    }
+
+    @Test
+    void fijandoCadaEstrellaElMejorCasoEsElOptimo() {
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            Recital recital = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, todosLosSlots(recital));
+            PlanificadorFlujo planificador = new PlanificadorFlujo(modelo);
+
+            SolucionModelo mejor = null;
+            for (int estrella : modelo.elegiblesEstrella) {
+                SolucionModelo s = planificador.resolverConEstrellaFija(estrella);
+                if (s != null && (mejor == null || s.costo() < mejor.costo())) {
+                    mejor = s;
+                }
+            }
+            SolucionModelo exacta = resolverConBranchAndBound(modelo);
+
+            if (exacta == null || modelo.elegiblesEstrella.length == 0) {
+                continue;
+            }
+            assertNotNull(mejor);
+            assertEquals(exacta.costo(), mejor.costo(), 0.0001);
+            assertEsValida(modelo, mejor);
+        }
+    }
+
+    @Test
+    void verificarCoberturaDetectaLaReglaDeUnRolPorCancion() {
+        // Un único externo sabe voz y coros, y no puede hacer las dos cosas en la misma canción
+        ArtistaExterno todoTerreno = new ArtistaExterno(
+                "Todo Terreno", Set.of(RolTipo.VOZ_PRINCIPAL, RolTipo.COROS), Set.of(), 1000.0, 5, null);
+        ArtistaExterno bajista = new ArtistaExterno(
+                "Bajista", Set.of(RolTipo.BAJO), Set.of(), 1000.0, 5, null);
+
+        Cancion c1 = new Cancion("C1", List.of(new RolRequerido(RolTipo.VOZ_PRINCIPAL), new RolRequerido(RolTipo.COROS)));
+        Cancion c2 = new Cancion("C2", List.of(new RolRequerido(RolTipo.BAJO)));
+        Recital recital = new Recital("Cobertura", List.of(c1, c2), List.of(), List.of(todoTerreno, bajista), TipoRecital.POP);
+
+        ModeloPlanificacion modelo = ModeloPlanificacion.compilar(recital, todosLosSlots(recital));
+        PlanificadorFlujo.Deficit deficit = new PlanificadorFlujo(modelo).verificarCobertura();
+
+        assertNotNull(deficit);
+        assertEquals(1, deficit.sinCubrir());
+        // Los dos roles de C1 compiten por el mismo externo; el bajo de C2 no tiene problema
+        assertArrayEquals(new int[]{0, 1}, deficit.slots());
+    }
+
+    private SolucionModelo resolverConBranchAndBound(ModeloPlanificacion modelo) {
+        BusquedaBranchAndBound busqueda = new BusquedaBranchAndBound(modelo);
+        busqueda.buscar(new EstadoBusqueda(modelo));
+        return busqueda.getSolucion();
+    }
+
+    private void assertEsValida(ModeloPlanificacion modelo, SolucionModelo solucion) {
+        EstadoBusqueda estado = new EstadoBusqueda(modelo);
+        for (int slot = 0; slot < modelo.cantidadSlots(); slot++) {
+            int externo = solucion.asignacion()[slot];
+            assertTrue(estado.puedeOcupar(modelo, externo, slot));
+            assertTrue((modelo.rolesMascara[externo] & (1 << modelo.slotRol[slot])) != 0);
+            estado.asignar(modelo, externo, slot);
+        }
+    }
+
+    private List<RolPendiente> todosLosSlots(Recital recital) {
+        List<RolPendiente> slots = new ArrayList<>();
+        for (Cancion c : recital.getCanciones()) {
+            for (RolRequerido rol : c.getRolesFaltantes()) {
+                slots.add(new RolPendiente(c, rol));
+            }
+        }
+        return slots;
+    }
+}
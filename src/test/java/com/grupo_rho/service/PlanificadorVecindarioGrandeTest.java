@@ -0,0 +1,93 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.exception.NoHayArtistasDisponiblesException;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanificadorVecindarioGrandeTest {
+
+    @Test
+    void nuncaEsMejorQueElOptimoYSueleAlcanzarlo() {
+        int alcanzados = 0;
+        int comparados = 0;
+        for (long semilla = 1; semilla <= 10; semilla++) {
+            Recital exacto = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            try {
+                new PlanificacionService(exacto).contratarParaTodoElRecital();
+            } catch (NoHayArtistasDisponiblesException e) {
+                continue;
+            }
+
+            Recital recital = TestDataFactory.recitalAleatorio(semilla, 6, 14);
+            ProgresoPlanificacion resultado = new PlanificacionService(recital).contratarConVecindariosGrandes(
+                    ParametrosVecindario.porDefecto(semilla), ControlBusqueda.sinLimite(), progreso -> { });
+
+            assertEsValido(recital);
+            assertEquals(resultado.costo(), recital.getCostoTotalRecital(), 0.0001);
+            assertTrue(resultado.costo() >= exacto.getCostoTotalRecital() - 0.0001);
+            comparados++;
+            if (Math.abs(resultado.costo() - exacto.getCostoTotalRecital()) < 0.0001) {
+                alcanzados++;
+            }
+        }
+        assertTrue(comparados > 0);
+        assertTrue(alcanzados * 2 >= comparados);
+    }
+
+    @Test
+    void conLaMismaSemillaDaElMismoPlan() {
+        ParametrosVecindario conRecocido = new ParametrosVecindario(200, 2, 42, 0.3, 0.98, 5_000);
+
+        Recital primero = TestDataFactory.recitalAleatorio(5, 20, 40);
+        Recital segundo = TestDataFactory.recitalAleatorio(5, 20, 40);
+        new PlanificacionService(primero).contratarConVecindariosGrandes(
+                conRecocido, ControlBusqueda.sinLimite(), progreso -> { });
+        new PlanificacionService(segundo).contratarConVecindariosGrandes(
+                conRecocido, ControlBusqueda.sinLimite(), progreso -> { });
+
+        assertEsValido(primero);
+        assertEquals(primero.getCostoTotalRecital(), segundo.getCostoTotalRecital(), 0.0);
+        for (int i = 0; i < primero.getCanciones().size(); i++) {
+            List<RolRequerido> roles1 = primero.getCanciones().get(i).getRolesRequeridos();
+            List<RolRequerido> roles2 = segundo.getCanciones().get(i).getRolesRequeridos();
+            for (int j = 0; j < roles1.size(); j++) {
+                assertEquals(roles1.get(j).getArtistaAsignado().getNombre(), roles2.get(j).getArtistaAsignado().getNombre());
+            }
+        }
+    }
+
+    @Test
+    void resuelveRecitalesMuyGrandesDentroDelPresupuesto() {
+        Recital recital = TestDataFactory.recitalAleatorio(11, 60, 1000);
+        PlanificacionService service = new PlanificacionService(recital);
+        List<ProgresoPlanificacion> mejoras = new ArrayList<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> service.contratarConVecindariosGrandes(
+                ParametrosVecindario.porDefecto(11), ControlBusqueda.conTiempo(Duration.ofSeconds(2)), mejoras::add));
+
+        assertEsValido(recital);
+        assertFalse(mejoras.isEmpty());
+        assertEquals(mejoras.getLast().costo(), recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    private void assertEsValido(Recital recital) {
+        assertTrue(recital.getCanciones().stream().allMatch(Cancion::estaCompleta));
+        for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+            assertTrue(externo.getCancionesAsignadasEnRecital() <= externo.getMaxCanciones());
+        }
+        for (Cancion c : recital.getCanciones()) {
+            long distintos = c.getRolesRequeridos().stream().map(RolRequerido::getArtistaAsignado).distinct().count();
+            assertEquals(c.getRolesRequeridos().size(), distintos);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.grupo_rho.service;
+
+import com.grupo_rho.domain.artista.ArtistaExterno;
+import com.grupo_rho.domain.artista.RolTipo;
+import com.grupo_rho.domain.cancion.Cancion;
+import com.grupo_rho.domain.cancion.RolRequerido;
+import com.grupo_rho.domain.exception.RecitalInfactibleException;
+import com.grupo_rho.domain.recital.InstantaneaRecital;
+import com.grupo_rho.domain.recital.Recital;
+import com.grupo_rho.domain.recital.TipoRecital;
+import com.grupo_rho.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecitalServiceTest {
+
+    @Test
+    void bifurcarCompararYConfirmarUnEscenario() {
+        Recital recital = TestDataFactory.recitalAleatorio(3, 12, 40);
+        RecitalService service = new RecitalService(recital);
+        service.contratarParaTodoElRecital();
+        double costoOriginal = recital.getCostoTotalRecital();
+
+        // ¿Y si sacamos las primeras tres canciones?
+        InstantaneaRecital base = service.bifurcar();
+        InstantaneaRecital sinTres = base;
+        for (Cancion c : recital.getCanciones().subList(0, 3)) {
+            sinTres = sinTres.sinCancion(c);
+        }
+
+        ComparacionEscenarios comparacion = service.comparar(base, sinTres);
+        int rolesDeLasTres = recital.getCanciones().subList(0, 3).stream()
+                .mapToInt(c -> c.getRolesRequeridos().size())
+                .sum();
+        assertEquals(rolesDeLasTres, comparacion.rolesCambiados().size());
+        assertEquals(rolesDeLasTres, comparacion.faltantesAlternativa());
+        assertTrue(comparacion.diferenciaCosto() <= 0.0);
+        assertEquals(costoOriginal, recital.getCostoTotalRecital(), 0.0001);
+
+        service.confirmar(sinTres);
+        assertEquals(sinTres.getCostoTotal(), recital.getCostoTotalRecital(), 0.0001);
+        assertEquals(recital.recalcularCostoDetallado().totalFinal(), recital.getCostoTotalRecital(), 0.0001);
+        assertTrue(recital.tomarInstantanea().rolesDistintos(sinTres).isEmpty());
+        for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+            assertEquals(sinTres.getCancionesAsignadas(externo), externo.getCancionesAsignadasEnRecital());
+        }
+
+        // Y se puede volver al estado de antes
+        service.confirmar(base);
+        assertEquals(costoOriginal, recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    @Test
+    void confirmarUnEntrenamientoVuelveAFacturarAlEntrenado() {
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 1000.0, 3, null);
+        RolRequerido voz = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        RolRequerido piano = new RolRequerido(RolTipo.PIANO);
+        Recital recital = new Recital("Piano", List.of(new Cancion("C1", List.of(voz)), new Cancion("C2", List.of(piano))),
+                List.of(), List.of(ana), TipoRecital.ROCK);
+        RecitalService service = new RecitalService(recital);
+        service.contratarParaCancion(recital.getCanciones().get(0));
+
+        InstantaneaRecital escenario = service.bifurcar()
+                .sinArtista(ana)
+                .conEntrenamiento(ana, RolTipo.PIANO)
+                .conAsignacion(voz, ana)
+                .conAsignacion(piano, ana);
+        assertEquals(2000.0, service.comparar(service.bifurcar(), escenario).diferenciaCosto(), 0.0001);
+
+        service.confirmar(escenario);
+        assertTrue(ana.puedeTocar(RolTipo.PIANO));
+        assertEquals(3000.0, recital.getCostoTotalRecital(), 0.0001);
+        assertEquals(recital.recalcularCostoDetallado(), recital.calcularCostoDetallado());
+        assertEquals(2, ana.getCancionesAsignadasEnRecital());
+    }
+
+    @Test
+    void escenariosEnParaleloCoincidenConHacerlosDeAUno() {
+        Recital recital = TestDataFactory.recitalAleatorio(5, 12, 40);
+        RecitalService service = new RecitalService(recital);
+        service.contratarParaTodoElRecital();
+        InstantaneaRecital antes = service.bifurcar();
+
+        List<EscenarioHipotetico> escenarios = new ArrayList<>();
+        recital.getCanciones().forEach(c -> escenarios.add(EscenarioHipotetico.quitarCancion(c)));
+        List<ArtistaExterno> contratados = recital.getArtistasContratados();
+        contratados.forEach(a -> escenarios.add(EscenarioHipotetico.quitarArtista(a)));
+        recital.getArtistasExternosPool().stream()
+                .filter(a -> a.getCancionesAsignadasEnRecital() == 0)
+                .limit(3)
+                .forEach(a -> escenarios.add(EscenarioHipotetico.entrenar(a, RolTipo.BATERIA)));
+        escenarios.add(EscenarioHipotetico.agregarRol(recital.getCanciones().get(0), RolTipo.VOZ_PRINCIPAL));
+
+        List<ResultadoEscenario> resultados = service.evaluarEscenarios(escenarios);
+
+        assertEquals(escenarios.size(), resultados.size());
+        assertSame(antes, recital.tomarInstantanea());
+        for (int i = 1; i < resultados.size(); i++) {
+            assertTrue(ResultadoEscenario.POR_COSTO.compare(resultados.get(i - 1), resultados.get(i)) <= 0);
+        }
+
+        for (ResultadoEscenario resultado : resultados) {
+            if (resultado.esFactible()) {
+                assertEquals(resultado.resultado().totalFinal() - antes.getCostoTotal(),
+                        resultado.diferencia().totalFinal(), 0.0001);
+            }
+            EscenarioHipotetico.Cambio cambio = resultado.escenario().cambios().get(0);
+            if (cambio instanceof EscenarioHipotetico.QuitarCancion q) {
+                // Con el plan completo no queda nada por contratar: es el plan sin esa canción
+                assertEquals(antes.sinCancion(q.cancion()).getCostoTotal(), resultado.resultado().totalFinal(), 0.0001);
+            } else if (cambio instanceof EscenarioHipotetico.QuitarArtista q) {
+                // Lo mismo, pero de a uno sobre el recital real
+                service.quitarArtistaDelRecital(q.artista());
+                if (resultado.esFactible()) {
+                    service.contratarParaTodoElRecital();
+                    assertEquals(recital.getCostoTotalRecital(), resultado.resultado().totalFinal(), 0.0001);
+                } else {
+                    assertThrows(RecitalInfactibleException.class, service::contratarParaTodoElRecital);
+                }
+                service.confirmar(antes);
+            }
+        }
+        assertEquals(antes.getCostoTotal(), recital.getCostoTotalRecital(), 0.0001);
+    }
+
+    @Test
+    void sensibilidadCoincideConResolverCadaCasoDeCero() {
+        Recital recital = TestDataFactory.recitalAleatorio(11, 10, 30);
+        RecitalService service = new RecitalService(recital);
+        // Lo ya contratado no cuenta: se mide contra el óptimo de cero
+        service.contratarParaCancion(recital.getCanciones().get(0));
+        InstantaneaRecital antes = service.bifurcar();
+
+        AnalisisSensibilidad analisis = service.analizarSensibilidad();
+
+        assertSame(antes, recital.tomarInstantanea());
+        assertEquals(optimoSin(-1, -1), analisis.costoOptimo(), 0.0001);
+        assertEquals(recital.getCanciones().size(), analisis.canciones().size());
+        for (int i = 1; i < analisis.canciones().size(); i++) {
+            assertTrue(analisis.canciones().get(i - 1).ahorro() >= analisis.canciones().get(i).ahorro());
+        }
+        for (AnalisisSensibilidad.PorCancion porCancion : analisis.canciones()) {
+            int cancion = recital.getCanciones().indexOf(porCancion.cancion());
+            assertEquals(analisis.costoOptimo() - optimoSin(cancion, -1), porCancion.ahorro(), 0.0001);
+        }
+        for (AnalisisSensibilidad.PorRol porRol : analisis.roles()) {
+            // El artista base (COROS) pasaría a cubrir otro rol: quitar el rol no es lo mismo que cubrirlo
+            if (porRol.rol().getTipoRol() == RolTipo.COROS) continue;
+            int cancion = recital.getCanciones().indexOf(porRol.cancion());
+            int rol = porRol.cancion().getRolesRequeridos().indexOf(porRol.rol());
+            assertEquals(analisis.costoOptimo() - optimoSin(cancion, rol), porRol.ahorro(), 0.0001);
+        }
+    }
+
+    /**
+     * Óptimo de cero del recital de prueba sin la canción indicada (rol = -1) o sin uno de sus roles.
+     */
+    private static double optimoSin(int cancion, int rol) {
+        Recital original = TestDataFactory.recitalAleatorio(11, 10, 30);
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < original.getCanciones().size(); i++) {
+            Cancion c = original.getCanciones().get(i);
+            if (i != cancion) {
+                canciones.add(c);
+            } else if (rol >= 0) {
+                List<RolRequerido> roles = new ArrayList<>(c.getRolesRequeridos());
+                roles.remove(rol);
+                canciones.add(new Cancion(c.getTitulo(), roles));
+            }
+        }
+        Recital recital = new Recital(original.getNombre(), canciones, original.getArtistasBase(),
+                original.getArtistasExternosPool(), original.getTipoRecital());
+        new RecitalService(recital).contratarParaTodoElRecital();
+        return recital.getCostoTotalRecital();
+    }
+
+    @Test
+    void quitarYRepararNoVuelveAContratarAlQuitadoNiBajaDelOptimo() {
+        Recital recital = TestDataFactory.recitalAleatorio(8, 20, 40);
+        RecitalService service = new RecitalService(recital);
+        service.contratarParaTodoElRecital();
+        double optimo = recital.getCostoTotalRecital();
+
+        Set<ArtistaExterno> quitados = new HashSet<>();
+        for (ArtistaExterno artista : recital.getArtistasContratados().subList(0, 4)) {
+            InstantaneaRecital anterior = service.bifurcar();
+            service.quitarArtistaDelRecital(artista);
+            quitados.add(artista);
+            int libres = anterior.rolesDistintos(service.bifurcar()).size();
+
+            ProgresoPlanificacion progreso = service.repararPlan(anterior, quitados);
+
+            // Sin los quitados sólo hay menos opciones: no se puede bajar del óptimo de antes
+            for (ArtistaExterno quitado : quitados) {
+                assertEquals(0, quitado.getCancionesAsignadasEnRecital());
+                assertTrue(recital.getIndiceAsignaciones().getAsignaciones(quitado).isEmpty());
+            }
+            assertTrue(recital.getCostoTotalRecital() >= optimo - 0.0001);
+            assertEquals(progreso.costo(), recital.getCostoTotalRecital(), 0.0001);
+            assertTrue(progreso.cotaInferior() <= progreso.costo() + 0.0001);
+            if (progreso.optimoDemostrado()) {
+                assertEquals(progreso.cotaInferior(), progreso.costo(), 0.0001);
+            }
+            assertEquals(0, recital.tomarInstantanea().getCantidadFaltantes());
+            assertTrue(anterior.rolesDistintos(recital.tomarInstantanea()).size()
+                    <= libres * (1 + PlanificacionService.VECINOS_POR_ROL_LIBRE));
+            assertEquals(recital.recalcularCostoDetallado().totalFinal(), recital.getCostoTotalRecital(), 0.0001);
+            for (ArtistaExterno externo : recital.getArtistasExternosPool()) {
+                assertEquals(recital.getIndiceAsignaciones().getAsignaciones(externo).size(),
+                        externo.getCancionesAsignadasEnRecital());
+            }
+        }
+    }
+
+    @Test
+    void escenariosYSensibilidadAceptanContratadosQueYaNoEstanEnElPool() {
+        ArtistaExterno xavi = new ArtistaExterno("Xavi", Set.of(RolTipo.VOZ_PRINCIPAL), Set.of(), 300.0, 2, null);
+        RolRequerido voz = new RolRequerido(RolTipo.VOZ_PRINCIPAL);
+        voz.asignar(xavi);
+        xavi.registrarAsignacionEnCancion();
+        Cancion uno = new Cancion("Uno", List.of(voz, new RolRequerido(RolTipo.GUITARRA_ELECTRICA)));
+        Cancion dos = new Cancion("Dos", List.of(new RolRequerido(RolTipo.GUITARRA_ELECTRICA)));
+        ArtistaExterno ana = new ArtistaExterno("Ana", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of(), 100.0, 2, null);
+        ArtistaExterno bea = new ArtistaExterno("Bea", Set.of(RolTipo.GUITARRA_ELECTRICA), Set.of(), 150.0, 2, null);
+        Recital recital = new Recital("Fuera del pool", List.of(uno, dos), List.of(), List.of(ana, bea), TipoRecital.ROCK);
+        RecitalService service = new RecitalService(recital);
+        service.contratarParaTodoElRecital();
+        assertEquals(500.0, recital.getCostoTotalRecital(), 0.0001);
+
+        List<ResultadoEscenario> resultados = service.evaluarEscenarios(List.of(EscenarioHipotetico.quitarCancion(dos)));
+        assertTrue(resultados.get(0).esFactible());
+        assertEquals(400.0, resultados.get(0).resultado().totalFinal(), 0.0001);
+
+        AnalisisSensibilidad sensibilidad = service.analizarSensibilidad();
+        assertEquals(500.0, sensibilidad.costoOptimo(), 0.0001);
+        assertTrue(sensibilidad.canciones().stream()
+                .anyMatch(c -> c.cancion() == dos && Math.abs(c.ahorro() - 100.0) < 0.0001));
+
+        // Xavi sigue contratado en el recital real y fuera del pool
+        assertSame(xavi, voz.getArtistaAsignado());
+        assertEquals(1, xavi.getCancionesAsignadasEnRecital());
+        assertFalse(recital.getArtistasExternosPool().contains(xavi));
+    }
+}
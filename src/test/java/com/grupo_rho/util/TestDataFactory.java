@@ -8,7 +8,10 @@ import com.grupo_rho.domain.cancion.RolRequerido;
 import com.grupo_rho.domain.recital.Recital;
 import com.grupo_rho.domain.recital.TipoRecital;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 public class TestDataFactory {
@@ -120,4 +123,55 @@ public class TestDataFactory {
                 TipoRecital.ROCK
         );
     }
+
+    /**
+     * Recital sintético reproducible a partir de una semilla: mezcla roles repetidos,
+     * externos con y sin descuento por banda, candidatos a estrella y cupos chicos.
+     */
+    public static Recital recitalAleatorio(long semilla, int cantidadCanciones, int cantidadExternos) {
+        return recitalAleatorio(semilla, cantidadCanciones, cantidadExternos, TipoRecital.ROCK);
+    }
+
+    /**
+     * Igual que el anterior, pero los candidatos a estrella prefieren ROCK:
+     * con otro tipo de recital nadie recibe el descuento de estrella.
+     */
+    public static Recital recitalAleatorio(long semilla,
+                                           int cantidadCanciones,
+                                           int cantidadExternos,
+                                           TipoRecital tipoRecital) {
+        Random random = new Random(semilla);
+        RolTipo[] roles = RolTipo.values();
+
+        ArtistaBase base = new ArtistaBase("Base", Set.of(RolTipo.COROS), Set.of("Queen"));
+
+        List<ArtistaExterno> externos = new ArrayList<>();
+        for (int i = 0; i < cantidadExternos; i++) {
+            Set<RolTipo> rolesExterno = new HashSet<>();
+            rolesExterno.add(roles[random.nextInt(4)]);
+            if (random.nextBoolean()) {
+                rolesExterno.add(roles[random.nextInt(roles.length)]);
+            }
+            externos.add(new ArtistaExterno(
+                    "Ext " + i,
+                    rolesExterno,
+                    Set.of(random.nextInt(4) == 0 ? "Queen" : "Banda " + i),
+                    100.0 * (5 + random.nextInt(20)),
+                    2 + random.nextInt(3),
+                    random.nextInt(4) == 0 ? TipoRecital.ROCK : null
+            ));
+        }
+
+        List<Cancion> canciones = new ArrayList<>();
+        for (int i = 0; i < cantidadCanciones; i++) {
+            List<RolRequerido> requeridos = new ArrayList<>();
+            int cantidadRoles = 1 + random.nextInt(3);
+            for (int j = 0; j < cantidadRoles; j++) {
+                requeridos.add(new RolRequerido(roles[random.nextInt(4)]));
+            }
+            canciones.add(new Cancion("Canción " + i, requeridos));
+        }
+
+        return new Recital("Aleatorio " + semilla, canciones, List.of(base), externos, tipoRecital);
+    }
 }